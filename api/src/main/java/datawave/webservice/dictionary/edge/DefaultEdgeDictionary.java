@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 import javax.xml.bind.annotation.XmlAccessOrder;
@@ -48,7 +47,7 @@ public class DefaultEdgeDictionary extends EdgeDictionaryBase<DefaultEdgeDiction
             this.metadataList = null;
             setTotalResults(0);
         } else {
-            this.metadataList = new LinkedList<>(fields);
+            this.metadataList = new ArrayList<>(fields);
             setTotalResults(this.metadataList.size());
             this.setHasResults(true);
         }
@@ -0,0 +1,107 @@
+package datawave.microservice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import datawave.microservice.dictionary.config.ResponseObjectFactory;
+import datawave.webservice.dictionary.data.DefaultDataDictionary;
+import datawave.webservice.dictionary.data.DefaultDescription;
+import datawave.webservice.dictionary.data.DefaultDictionaryField;
+import datawave.webservice.dictionary.data.DefaultFields;
+import datawave.webservice.dictionary.edge.DefaultMetadata;
+import datawave.webservice.dictionary.edge.EventField;
+import datawave.webservice.metadata.DefaultMetadataField;
+
+/**
+ * Synthetic, deterministic data shared by the benchmarks.
+ */
+public final class BenchmarkData {
+    
+    public static final String[] DATA_TYPES = {"csv", "enwiki"};
+    
+    private static final String[] TYPES = {"datawave.data.type.LcNoDiacriticsType", "datawave.data.type.NumberType"};
+    private static final long BASE_TIMESTAMP = 1577836800000L;
+    
+    public static final ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> RESPONSE_OBJECT_FACTORY = new ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields>() {
+        @Override
+        public DefaultDataDictionary getDataDictionary() {
+            return new DefaultDataDictionary();
+        }
+        
+        @Override
+        public DefaultDescription getDescription() {
+            return new DefaultDescription();
+        }
+        
+        @Override
+        public DefaultFields getFields() {
+            return new DefaultFields();
+        }
+    };
+    
+    private BenchmarkData() {}
+    
+    public static String fieldName(int i) {
+        return String.format("FIELD_%07d", i);
+    }
+    
+    public static String type(int i) {
+        return TYPES[i % TYPES.length];
+    }
+    
+    public static long timestamp(int i) {
+        return BASE_TIMESTAMP + i * 1000L;
+    }
+    
+    /**
+     * Create the specified number of metadata fields, as they would be returned by the data dictionary.
+     *
+     * @param numFields
+     *            the number of fields
+     * @return the fields
+     */
+    public static List<DefaultMetadataField> metadataFields(int numFields) {
+        List<DefaultMetadataField> fields = new ArrayList<>(numFields);
+        for (int i = 0; i < numFields; i++) {
+            DefaultMetadataField field = new DefaultMetadataField();
+            field.setFieldName(fieldName(i / DATA_TYPES.length));
+            field.setDataType(DATA_TYPES[i % DATA_TYPES.length]);
+            field.setIndexOnly(false);
+            field.setForwardIndexed(true);
+            field.setReverseIndexed(i % 2 == 0);
+            field.addType(i % 2 == 0 ? "Text" : "Number");
+            DefaultDescription description = new DefaultDescription();
+            description.setDescription("Description of " + field.getFieldName());
+            description.setMarkings(Collections.singletonMap("columnVisibility", "PUBLIC"));
+            field.getDescriptions().add(description);
+            field.setLastUpdated("20200101000000");
+            fields.add(field);
+        }
+        return fields;
+    }
+    
+    /**
+     * Create the specified number of edge metadata entries, as they would be returned by the edge dictionary.
+     *
+     * @param numEdges
+     *            the number of edges
+     * @return the edge metadata
+     */
+    public static List<DefaultMetadata> edgeMetadata(int numEdges) {
+        List<DefaultMetadata> metadata = new ArrayList<>(numEdges);
+        for (int i = 0; i < numEdges; i++) {
+            DefaultMetadata meta = new DefaultMetadata();
+            meta.setEdgeType("TYPE_" + (i % 100));
+            meta.setEdgeRelationship("FROM-TO");
+            meta.setEdgeAttribute1Source("SOURCE_" + (i % 10));
+            meta.setStartDate("20200101");
+            EventField eventField = new EventField();
+            eventField.setSourceField(fieldName(i));
+            eventField.setSinkField(fieldName(i + 1));
+            meta.setEventFields(Collections.singletonList(eventField));
+            metadata.add(meta);
+        }
+        return metadata;
+    }
+}
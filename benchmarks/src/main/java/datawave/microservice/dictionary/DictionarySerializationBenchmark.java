@@ -0,0 +1,95 @@
+package datawave.microservice.dictionary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import datawave.microservice.BenchmarkData;
+import datawave.webservice.dictionary.data.DefaultDataDictionary;
+import datawave.webservice.dictionary.edge.DefaultEdgeDictionary;
+import io.protostuff.LinkedBuffer;
+import io.protostuff.Message;
+import io.protostuff.ProtostuffIOUtil;
+
+/**
+ * Measures the serialization of the data dictionary and edge dictionary responses in each of the formats served by the dictionary service. Responses are
+ * written to a stream that discards them, so only the cost of serialization is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class DictionarySerializationBenchmark {
+    
+    public enum Format {
+        PROTOSTUFF, JSON, XML
+    }
+    
+    @Param({"10000", "100000", "1000000"})
+    private int numFields;
+    
+    @Param
+    private Format format;
+    
+    private DefaultDataDictionary dataDictionary;
+    private DefaultEdgeDictionary edgeDictionary;
+    private ObjectMapper objectMapper;
+    private Marshaller dataDictionaryMarshaller;
+    private Marshaller edgeDictionaryMarshaller;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws JAXBException {
+        dataDictionary = new DefaultDataDictionary(BenchmarkData.metadataFields(numFields));
+        dataDictionary.setTotalResults(numFields);
+        edgeDictionary = new DefaultEdgeDictionary(BenchmarkData.edgeMetadata(numFields));
+        objectMapper = new ObjectMapper();
+        dataDictionaryMarshaller = JAXBContext.newInstance(DefaultDataDictionary.class).createMarshaller();
+        edgeDictionaryMarshaller = JAXBContext.newInstance(DefaultEdgeDictionary.class).createMarshaller();
+    }
+    
+    @Benchmark
+    public void writeDataDictionary() throws IOException, JAXBException {
+        write(dataDictionary, dataDictionaryMarshaller);
+    }
+    
+    @Benchmark
+    public void writeEdgeDictionary() throws IOException, JAXBException {
+        write(edgeDictionary, edgeDictionaryMarshaller);
+    }
+    
+    private <T extends Message<T>> void write(T response, Marshaller marshaller) throws IOException, JAXBException {
+        OutputStream out = OutputStream.nullOutputStream();
+        switch (format) {
+            case PROTOSTUFF:
+                ProtostuffIOUtil.writeTo(out, response, response.cachedSchema(), LinkedBuffer.allocate());
+                break;
+            case JSON:
+                objectMapper.writeValue(out, response);
+                break;
+            case XML:
+                marshaller.marshal(response, out);
+                break;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package datawave.microservice.dictionary.edge;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+
+import datawave.data.ColumnFamilyConstants;
+import datawave.metadata.protobuf.EdgeMetadata.MetadataValue;
+import datawave.microservice.BenchmarkData;
+import datawave.webservice.dictionary.edge.DefaultEdgeDictionary;
+
+/**
+ * Measures the transformation of edge metadata rows, whose values are protobuf {@link MetadataValue} payloads, into the edge dictionary by the
+ * {@link EdgeDictionaryImpl}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class EdgeDictionaryTransformBenchmark {
+    
+    // The number of metadata entries in the payload of each edge row.
+    private static final int METADATA_PER_EDGE = 3;
+    
+    @Param({"10000", "100000", "1000000"})
+    private int numEdges;
+    
+    @Param({"1", "4"})
+    private int numThreads;
+    
+    private SetMultimap<Key,Value> edgeMetadataRows;
+    private EdgeDictionaryImpl edgeDictionary;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        edgeMetadataRows = HashMultimap.create(numEdges, 1);
+        for (int i = 0; i < numEdges; i++) {
+            MetadataValue.Builder builder = MetadataValue.newBuilder();
+            for (int j = 0; j < METADATA_PER_EDGE; j++) {
+                builder.addMetadata(MetadataValue.Metadata.newBuilder().setSource(BenchmarkData.fieldName(i)).setSink(BenchmarkData.fieldName(i + j))
+                                .setDate("2020010" + (j + 1)).build());
+            }
+            String row = "TYPE_" + (i % 100) + EdgeDictionary.COL_SEPARATOR + "FROM-TO_" + i;
+            edgeMetadataRows.put(new Key(row, ColumnFamilyConstants.COLF_EDGE.toString(), "SOURCE_" + (i % 10)), new Value(builder.build().toByteArray()));
+        }
+        edgeDictionary = new EdgeDictionaryImpl(null, null, Duration.ZERO, numThreads);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        edgeDictionary.close();
+    }
+    
+    @Benchmark
+    public DefaultEdgeDictionary transformResults() {
+        return edgeDictionary.transformResults(edgeMetadataRows, numThreads);
+    }
+}
@@ -0,0 +1,81 @@
+package datawave.microservice.metadata;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.SetMultimap;
+
+import datawave.accumulo.inmemory.InMemoryAccumuloClient;
+import datawave.accumulo.inmemory.InMemoryInstance;
+import datawave.data.ColumnFamilyConstants;
+import datawave.marking.MarkingFunctions;
+import datawave.microservice.BenchmarkData;
+import datawave.query.util.MetadataEntry;
+import datawave.webservice.dictionary.data.DefaultDescription;
+
+/**
+ * Measures the loading of every description from a metadata table by the {@link MetadataDescriptionsHelper}. The metadata table is held in memory, so this
+ * measures the scan, visibility and marking overhead of the helper rather than any tablet server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class MetadataDescriptionsBenchmark {
+    
+    private static final String METADATA_TABLE = "metadataTable";
+    private static final Set<Authorizations> AUTHS = Collections.singleton(new Authorizations("PUBLIC"));
+    
+    @Param({"10000", "100000", "1000000"})
+    private int numFields;
+    
+    private MetadataDescriptionsHelper<DefaultDescription> helper;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        AccumuloClient client = new InMemoryAccumuloClient("root", new InMemoryInstance());
+        client.securityOperations().changeUserAuthorizations("root", AUTHS.iterator().next());
+        client.tableOperations().create(METADATA_TABLE);
+        try (BatchWriter writer = client.createBatchWriter(METADATA_TABLE, new BatchWriterConfig())) {
+            for (int i = 0; i * BenchmarkData.DATA_TYPES.length < numFields; i++) {
+                Mutation mutation = new Mutation(BenchmarkData.fieldName(i));
+                for (String dataType : BenchmarkData.DATA_TYPES) {
+                    mutation.put(ColumnFamilyConstants.COLF_DESC.toString(), dataType, new ColumnVisibility("PUBLIC"), BenchmarkData.timestamp(i),
+                                    new Value("Description of " + BenchmarkData.fieldName(i)));
+                }
+                writer.addMutation(mutation);
+            }
+        }
+        
+        helper = new MetadataDescriptionsHelper<>(new MarkingFunctions.Default(), BenchmarkData.RESPONSE_OBJECT_FACTORY);
+        helper.initialize(client, METADATA_TABLE, AUTHS);
+    }
+    
+    @Benchmark
+    public SetMultimap<MetadataEntry,DefaultDescription> loadDescriptions() throws Exception {
+        return helper.loadDescriptions();
+    }
+}
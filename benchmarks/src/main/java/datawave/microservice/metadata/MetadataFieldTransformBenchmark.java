@@ -0,0 +1,95 @@
+package datawave.microservice.metadata;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.user.WholeRowIterator;
+import org.apache.hadoop.io.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import datawave.data.ColumnFamilyConstants;
+import datawave.marking.MarkingFunctions;
+import datawave.microservice.BenchmarkData;
+
+/**
+ * Measures the client-side transformation of metadata rows into fields by the {@link DefaultMetadataFieldScanner}, over synthetic rows encoded either by the
+ * {@link WholeRowIterator} or by the {@link MetadataRowSummaryIterator}. Run with {@code -prof gc} to report the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class MetadataFieldTransformBenchmark {
+    
+    @Param({"10000", "100000", "1000000"})
+    private int numFields;
+    
+    @Param({"false", "true"})
+    private boolean rowSummaries;
+    
+    private List<Map.Entry<Key,Value>> rows;
+    private DefaultMetadataFieldScanner scanner;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        MetadataRowSummaryIterator summaryIterator = new MetadataRowSummaryIterator();
+        rows = new ArrayList<>(numFields / BenchmarkData.DATA_TYPES.length);
+        for (int row = 0; row * BenchmarkData.DATA_TYPES.length < numFields; row++) {
+            // A whole row holds its entries sorted by column family, then column qualifier.
+            SortedMap<Key,Value> entries = new TreeMap<>();
+            Text fieldName = new Text(BenchmarkData.fieldName(row));
+            for (String dataType : BenchmarkData.DATA_TYPES) {
+                long timestamp = BenchmarkData.timestamp(row);
+                addEntry(entries, fieldName, ColumnFamilyConstants.COLF_DESC, dataType, "PUBLIC", timestamp, "Description of " + fieldName);
+                addEntry(entries, fieldName, ColumnFamilyConstants.COLF_E, dataType, "", timestamp, "");
+                addEntry(entries, fieldName, ColumnFamilyConstants.COLF_I, dataType, "", timestamp, "");
+                addEntry(entries, fieldName, ColumnFamilyConstants.COLF_RI, dataType, "", timestamp, "");
+                addEntry(entries, fieldName, ColumnFamilyConstants.COLF_T, dataType + "\0" + BenchmarkData.type(row), "", timestamp, "");
+            }
+            List<Key> keys = new ArrayList<>(entries.keySet());
+            List<Value> values = new ArrayList<>(entries.values());
+            Value value = rowSummaries ? summaryIterator.rowEncoder(keys, values) : WholeRowIterator.encodeRow(keys, values);
+            rows.add(new AbstractMap.SimpleImmutableEntry<>(new Key(fieldName), value));
+        }
+        
+        Map<String,String> normalizationMap = new HashMap<>();
+        normalizationMap.put("datawave.data.type.LcNoDiacriticsType", "Text");
+        normalizationMap.put("datawave.data.type.NumberType", "Number");
+        scanner = new DefaultMetadataFieldScanner(new MarkingFunctions.Default(), BenchmarkData.RESPONSE_OBJECT_FACTORY, normalizationMap, null, 1);
+        scanner.setRowSummaries(rowSummaries);
+    }
+    
+    @Benchmark
+    public void transform(Blackhole blackhole) {
+        scanner.transform(rows.iterator(), Collections.emptyMap(), Collections.emptySet(), blackhole::consume);
+    }
+    
+    private static void addEntry(SortedMap<Key,Value> entries, Text row, Text columnFamily, String columnQualifier, String visibility, long timestamp,
+                    String value) {
+        entries.put(new Key(row, columnFamily, new Text(columnQualifier), new Text(visibility), timestamp), new Value(value));
+    }
+}
@@ -1,26 +1,28 @@
 package datawave.microservice;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.Spliterator;
-import java.util.Spliterators;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import org.apache.accumulo.core.client.AccumuloClient;
-import org.apache.accumulo.core.client.BatchWriter;
-import org.apache.accumulo.core.client.BatchWriterConfig;
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.client.MutationsRejectedException;
 import org.apache.accumulo.core.client.Scanner;
 import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.iterators.user.RegExFilter;
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.commons.lang.StringUtils;
+import org.apache.hadoop.io.Text;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
@@ -31,7 +33,6 @@ import datawave.security.authorization.DatawaveUser;
 import datawave.security.util.ScannerHelper;
 import datawave.webservice.query.exception.DatawaveErrorCode;
 import datawave.webservice.query.exception.QueryException;
-import lombok.Cleanup;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -48,16 +49,14 @@ public class AccumuloConnectionService {
     private final DataDictionaryProperties dataDictionaryConfiguration;
     private final UserAuthFunctions userAuthFunctions;
     
-    // These were already hardcodeded values in ModelBean -> ModelController therefore they weren't made configurable
-    private static final long BATCH_WRITER_MAX_LATENCY = 1000L;
-    private static final long BATCH_WRITER_MAX_MEMORY = 10845760;
-    private static final int BATCH_WRITER_MAX_THREADS = 2;
+    private final BatchWriterPool batchWriterPool;
     
     public AccumuloConnectionService(DataDictionaryProperties dataDictionaryConfiguration, UserAuthFunctions userAuthFunctions,
-                    @Qualifier("warehouse") AccumuloClient accumuloClient) {
+                    @Qualifier("warehouse") AccumuloClient accumuloClient, BatchWriterPool batchWriterPool) {
         this.dataDictionaryConfiguration = dataDictionaryConfiguration;
         this.userAuthFunctions = userAuthFunctions;
         this.accumuloClient = accumuloClient;
+        this.batchWriterPool = batchWriterPool;
     }
     
     /**
@@ -164,19 +163,82 @@ public class AccumuloConnectionService {
      *             Thrown if the table is not found
      */
     public List<Key> getKeys(String modelTable, DatawaveUserDetails currentUser, String regexTerm) throws TableNotFoundException {
-        Scanner scanner = ScannerHelper.createScanner(this.accumuloClient, modelTable, this.getAuths(currentUser));
-        if (!regexTerm.isEmpty()) {
-            IteratorSetting cfg = new IteratorSetting(21, "colfRegex", RegExFilter.class.getName());
-            cfg.addOption(RegExFilter.COLF_REGEX, "^" + regexTerm + "(\\x00.*)?");
-            scanner.addScanIterator(cfg);
+        return getKeys(modelTable, currentUser, regexTerm.isEmpty() ? null : createColumnFamilyFilter(regexTerm));
+    }
+    
+    /**
+     * Create a server-side filter that only passes keys whose column family is the specified term, optionally followed by a null byte and a suffix.
+     *
+     * @param regexTerm
+     *            the regex (can be just a string) to match the column family against
+     *            
+     * @return the filter to add to a scan
+     */
+    public static IteratorSetting createColumnFamilyFilter(String regexTerm) {
+        IteratorSetting cfg = new IteratorSetting(21, "colfRegex", RegExFilter.class.getName());
+        cfg.addOption(RegExFilter.COLF_REGEX, "^" + regexTerm + "(\\x00.*)?");
+        return cfg;
+    }
+    
+    /**
+     * Return the keys of the specified table that pass the specified server-side filter, so that filtered keys are never transferred from the tablet servers.
+     *
+     * @param modelTable
+     *            the model table to get the keys of
+     * @param currentUser
+     *            the user requesting the keys. Used for authorizations purposes
+     * @param filter
+     *            the iterator to add to the scan, or null to return every key the user has the authorizations to access
+     *            
+     * @return the keys of the specified table that pass the filter and that the specified user has the authorizations to access.
+     * @throws TableNotFoundException
+     *             Thrown if the table is not found
+     */
+    public List<Key> getKeys(String modelTable, DatawaveUserDetails currentUser, IteratorSetting filter) throws TableNotFoundException {
+        List<Key> keys = new ArrayList<>();
+        scanKeys(modelTable, currentUser, new Range(), Collections.emptySet(), filter, keys::add);
+        return keys;
+    }
+    
+    /**
+     * Pass each key of the specified table to the visitor as it is read, without collecting the keys in memory. The scan stops as soon as the visitor returns
+     * false, and the remainder of the range is never read.
+     *
+     * @param table
+     *            the table to scan
+     * @param currentUser
+     *            the user requesting the keys. Used for authorizations purposes
+     * @param range
+     *            the range to scan
+     * @param columnFamilies
+     *            the column families to fetch on the tablet servers, or an empty collection to fetch every column family
+     * @param filter
+     *            the iterator to add to the scan, or null to visit every key the user has the authorizations to access
+     * @param visitor
+     *            receives each key in order, and returns false to end the scan
+     *            
+     * @throws TableNotFoundException
+     *             Thrown if the table is not found
+     */
+    public void scanKeys(String table, DatawaveUserDetails currentUser, Range range, Collection<Text> columnFamilies, IteratorSetting filter,
+                    Predicate<Key> visitor) throws TableNotFoundException {
+        try (Scanner scanner = ScannerHelper.createScanner(this.accumuloClient, table, this.getAuths(currentUser))) {
+            scanner.setRange(range);
+            columnFamilies.forEach(scanner::fetchColumnFamily);
+            if (filter != null) {
+                scanner.addScanIterator(filter);
+            }
+            for (Map.Entry<Key,Value> entry : scanner) {
+                if (!visitor.test(entry.getKey())) {
+                    break;
+                }
+            }
         }
-        
-        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(scanner.iterator(), Spliterator.ORDERED), false).map(entry -> entry.getKey())
-                        .collect(Collectors.toList());
     }
     
     /**
-     * Modify (insert, delete, etc) the mappings. Throws an exception if not successful.
+     * Modify (insert, delete, etc) the mappings. Throws an exception if not successful. The mutations are written through the shared writer of the model
+     * table.
      *
      * @param mutations
      *            the mutations (insertions, deletions, etc) to perform
@@ -191,31 +253,17 @@ public class AccumuloConnectionService {
      */
     public QueryException modifyMappings(List<Mutation> mutations, String modelTable, String modelName, DatawaveUserDetails user) {
         QueryException exception = null;
-        Mutation mute = null;
         
         try {
-            @Cleanup
-            BatchWriter writer = getDefaultBatchWriter(modelTable, modelName, user);
-            
-            for (Mutation m : mutations) {
-                mute = m; // make the specific mapping available outside this scope for logging purposes.
-                writer.addMutation(m);
-            }
+            batchWriterPool.write(modelTable, mutations);
         } catch (TableNotFoundException e) {
             log.error("The " + modelTable + " could not be found to write to ", e);
             exception = new QueryException(DatawaveErrorCode.TABLE_NOT_FOUND, e);
         } catch (MutationsRejectedException e) {
-            log.error("Could not modify mapping  -- " + mute, e);
+            log.error("Could not modify mappings -- " + mutations.size() + " mutations to " + modelTable, e);
             exception = new QueryException(DatawaveErrorCode.INSERT_MAPPING_ERROR, e);
         }
         
         return exception;
     }
-    
-    private BatchWriter getDefaultBatchWriter(String modelTable, String modelName, DatawaveUserDetails user) throws TableNotFoundException {
-        AccumuloClient accumuloClient = getConnection(modelTable, modelName, user).getAccumuloClient();
-        // TODO Do we need a new instance of BatchWriterConfig each time, or can this be a static or bean object?
-        return accumuloClient.createBatchWriter(modelTable, new BatchWriterConfig().setMaxLatency(BATCH_WRITER_MAX_LATENCY, TimeUnit.MILLISECONDS)
-                        .setMaxMemory(BATCH_WRITER_MAX_MEMORY).setMaxWriteThreads(BATCH_WRITER_MAX_THREADS));
-    }
 }
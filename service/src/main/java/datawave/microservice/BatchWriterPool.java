@@ -0,0 +1,279 @@
+package datawave.microservice;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Mutation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps one long-lived {@link BatchWriter} per table, so that writes do not pay the cost of creating a batch writer each time, and mutations written to the
+ * same table at the same time are sent to the tablet servers together.
+ *
+ * <p>
+ *
+ * Each write waits until its mutations have been flushed, so that they are durable when it returns. Writes are queued per table and flushed by whichever
+ * waiting thread next acquires the writer, which flushes every write queued behind it at once. Concurrent writes therefore share a single flush rather than
+ * each flushing the writer in turn. Since every write waits on a flush, the max latency of the writer does not delay them.
+ *
+ * <p>
+ *
+ * If the mutations of a combined flush are rejected, each of its writes is written again on its own, so that only the writes whose mutations were rejected
+ * fail, and each with its own {@link MutationsRejectedException}. Writes that had been applied before the rejection are applied again, which is harmless for
+ * the descriptions and model mappings written through this pool. A writer whose mutations are rejected can not be used again, so it is closed and replaced by
+ * a new writer for the next write to its table. All writers are flushed and closed when the pool is closed.
+ */
+@Slf4j
+public class BatchWriterPool implements AutoCloseable {
+    
+    private final AccumuloClient accumuloClient;
+    private final BatchWriterConfig config;
+    private final Map<String,PooledWriter> writers = new ConcurrentHashMap<>();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    
+    private volatile Timer writeTimer;
+    private volatile Counter rejectedCounter;
+    private volatile boolean closed;
+    
+    /**
+     * Create a pool of writers to the tables of the specified client.
+     *
+     * @param accumuloClient
+     *            the client to create the writers with
+     * @param config
+     *            the configuration of every writer in the pool
+     */
+    public BatchWriterPool(AccumuloClient accumuloClient, BatchWriterConfig config) {
+        this.accumuloClient = accumuloClient;
+        this.config = config;
+    }
+    
+    /**
+     * Write the specified mutations to a table, and wait until they have been flushed.
+     *
+     * @param tableName
+     *            the table to write to
+     * @param mutations
+     *            the mutations to write
+     * @throws TableNotFoundException
+     *             if the table does not exist
+     * @throws MutationsRejectedException
+     *             if any of the specified mutations were rejected
+     */
+    public void write(String tableName, Collection<Mutation> mutations) throws TableNotFoundException, MutationsRejectedException {
+        if (mutations.isEmpty()) {
+            return;
+        }
+        PendingWrite write = new PendingWrite(mutations);
+        long start = System.nanoTime();
+        queuedBytes.addAndGet(write.bytes);
+        try {
+            while (!write.done) {
+                PooledWriter pooled = getWriter(tableName);
+                if (!pooled.enqueue(write)) {
+                    // replaced after a rejection while this thread was getting it
+                    continue;
+                }
+                pooled.lock.lock();
+                try {
+                    if (!write.done && !pooled.dequeue(write)) {
+                        // still queued, so no other thread has flushed it yet
+                        flush(tableName, pooled);
+                    }
+                } finally {
+                    pooled.lock.unlock();
+                }
+            }
+        } finally {
+            queuedBytes.addAndGet(-write.bytes);
+            Timer timer = writeTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+        
+        if (write.failure != null) {
+            Counter counter = rejectedCounter;
+            if (counter != null) {
+                counter.increment();
+            }
+            if (write.failure instanceof TableNotFoundException) {
+                throw (TableNotFoundException) write.failure;
+            }
+            throw (MutationsRejectedException) write.failure;
+        }
+    }
+    
+    /**
+     * Register the metrics of this pool: the bytes of mutations waiting to be flushed, the number of open writers, the latency of each write including its
+     * flush, and the number of writes that were rejected.
+     *
+     * @param registry
+     *            the registry to register the metrics with
+     * @param name
+     *            the prefix of the metric names
+     */
+    public void bindTo(MeterRegistry registry, String name) {
+        Gauge.builder(name + ".queued.bytes", queuedBytes, AtomicLong::get).baseUnit("bytes").register(registry);
+        Gauge.builder(name + ".writers", writers, Map::size).register(registry);
+        writeTimer = Timer.builder(name + ".latency").register(registry);
+        rejectedCounter = Counter.builder(name + ".rejected").register(registry);
+    }
+    
+    /**
+     * Flush and close every writer in the pool. Writes that are in progress or already queued are allowed to complete first.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Map.Entry<String,PooledWriter> entry : writers.entrySet()) {
+            PooledWriter pooled = entry.getValue();
+            pooled.lock.lock();
+            try {
+                if (!pooled.isClosed()) {
+                    flush(entry.getKey(), pooled);
+                }
+            } finally {
+                pooled.lock.unlock();
+            }
+            discard(entry.getKey(), pooled);
+        }
+    }
+    
+    private synchronized PooledWriter getWriter(String tableName) throws TableNotFoundException {
+        if (closed) {
+            throw new IllegalStateException("The batch writer pool is closed");
+        }
+        PooledWriter pooled = writers.get(tableName);
+        if (pooled == null) {
+            log.debug("Creating a batch writer for {}", tableName);
+            pooled = new PooledWriter(accumuloClient.createBatchWriter(tableName, config));
+            writers.put(tableName, pooled);
+        }
+        return pooled;
+    }
+    
+    /**
+     * Flush every write queued on the specified writer, whose lock must be held by the calling thread. If the flush is rejected, the writer is discarded and
+     * each of the writes is written again on its own, to determine which of them were rejected.
+     */
+    private void flush(String tableName, PooledWriter pooled) {
+        List<PendingWrite> batch = pooled.drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            for (PendingWrite write : batch) {
+                pooled.writer.addMutations(write.mutations);
+            }
+            pooled.writer.flush();
+        } catch (MutationsRejectedException e) {
+            discard(tableName, pooled);
+            if (batch.size() == 1) {
+                batch.get(0).failure = e;
+            } else {
+                log.debug("Mutations of {} combined writes to {} were rejected, writing each on its own", batch.size(), tableName, e);
+                batch.forEach(write -> writeAlone(tableName, write));
+            }
+        }
+        batch.forEach(write -> write.done = true);
+    }
+    
+    // Write the mutations of a single write with a writer of its own, and record any failure against it.
+    private void writeAlone(String tableName, PendingWrite write) {
+        try (BatchWriter writer = accumuloClient.createBatchWriter(tableName, config)) {
+            writer.addMutations(write.mutations);
+        } catch (MutationsRejectedException | TableNotFoundException e) {
+            write.failure = e;
+        }
+    }
+    
+    private void discard(String tableName, PooledWriter pooled) {
+        writers.remove(tableName, pooled);
+        pooled.lock.lock();
+        try {
+            if (pooled.close()) {
+                pooled.writer.close();
+            }
+        } catch (MutationsRejectedException e) {
+            log.warn("Mutations were rejected when closing the batch writer for {}", tableName, e);
+        } finally {
+            pooled.lock.unlock();
+        }
+    }
+    
+    private static class PooledWriter {
+        private final BatchWriter writer;
+        // held by the thread flushing the writer, so that writes queued meanwhile are flushed together by the next thread to acquire it
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<PendingWrite> queue = new ArrayList<>();
+        private boolean closed;
+        
+        private PooledWriter(BatchWriter writer) {
+            this.writer = writer;
+        }
+        
+        // queue a write to be flushed, unless the writer has been closed
+        private synchronized boolean enqueue(PendingWrite write) {
+            if (!closed) {
+                queue.add(write);
+            }
+            return !closed;
+        }
+        
+        // remove a write that is still queued after the writer was closed, so that it can be queued on the replacement writer
+        private synchronized boolean dequeue(PendingWrite write) {
+            return closed && queue.remove(write);
+        }
+        
+        private synchronized List<PendingWrite> drain() {
+            List<PendingWrite> batch = new ArrayList<>(queue);
+            queue.clear();
+            return batch;
+        }
+        
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+        
+        // mark the writer closed, and return whether it was open
+        private synchronized boolean close() {
+            boolean open = !closed;
+            closed = true;
+            return open;
+        }
+    }
+    
+    private static class PendingWrite {
+        private final Collection<Mutation> mutations;
+        private final long bytes;
+        // set by the flushing thread while it holds the lock of the writer, and read by the writing thread once it has acquired the same lock
+        private boolean done;
+        private Exception failure;
+        
+        private PendingWrite(Collection<Mutation> mutations) {
+            this.mutations = mutations;
+            long estimate = 0;
+            for (Mutation mutation : mutations) {
+                estimate += mutation.estimatedMemoryUsed();
+            }
+            this.bytes = estimate;
+        }
+    }
+}
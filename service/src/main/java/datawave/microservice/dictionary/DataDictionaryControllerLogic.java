@@ -1,16 +1,20 @@
 package datawave.microservice.dictionary;
 
-import java.util.Arrays;
+import static datawave.microservice.dictionary.RequestParameters.split;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
-import org.apache.commons.lang.StringUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 
@@ -20,6 +24,9 @@ import datawave.microservice.authorization.user.DatawaveUserDetails;
 import datawave.microservice.dictionary.config.DataDictionaryProperties;
 import datawave.microservice.dictionary.config.ResponseObjectFactory;
 import datawave.microservice.dictionary.data.DataDictionary;
+import datawave.microservice.dictionary.data.DataDictionaryChanges;
+import datawave.microservice.dictionary.data.DataDictionaryPage;
+import datawave.microservice.metadata.FieldNameFilter;
 import datawave.webservice.dictionary.data.DataDictionaryBase;
 import datawave.webservice.dictionary.data.DescriptionBase;
 import datawave.webservice.dictionary.data.DictionaryFieldBase;
@@ -33,6 +40,12 @@ public class DataDictionaryControllerLogic<DESC extends DescriptionBase<DESC>,DI
     private final ResponseObjectFactory<DESC,DICT,META,FIELD,FIELDS> responseObjectFactory;
     private final AccumuloConnectionService accumuloConnectionService;
     
+    public static final String RESUME_TOKEN_HEADER = "X-Resume-Token";
+    public static final String HIGH_WATER_MARK_HEADER = "X-High-Water-Mark";
+    public static final int MAX_IMPORT_MESSAGES = 100;
+    
+    // Fields served from the cache are shared between requests, and already have their internal field names, so that this only ever modifies fields that
+    // were scanned for the request.
     private final Consumer<META> TRANSFORM_EMPTY_INTERNAL_FIELD_NAMES = meta -> {
         if (meta.getInternalFieldName() == null || meta.getInternalFieldName().isEmpty()) {
             meta.setInternalFieldName(meta.getFieldName());
@@ -69,13 +82,43 @@ public class DataDictionaryControllerLogic<DESC extends DescriptionBase<DESC>,DI
      */
     public DataDictionaryBase<DICT,META> get(String modelName, String modelTableName, String metadataTableName, String queryAuthorizations,
                     String dataTypeFilters, DatawaveUserDetails currentUser) throws Exception {
-        Connection connection = accumuloConnectionService.getConnection(metadataTableName, modelTableName, modelName, currentUser);
-        // If the user provides authorizations, intersect it with their actual authorizations
-        connection.setAuths(accumuloConnectionService.getDowngradedAuthorizations(queryAuthorizations, currentUser));
-        
-        Collection<String> dataTypes = (StringUtils.isBlank(dataTypeFilters) ? Collections.emptyList() : Arrays.asList(dataTypeFilters.split(",")));
+        return get(modelName, modelTableName, metadataTableName, queryAuthorizations, dataTypeFilters, null, null, null, currentUser);
+    }
+    
+    /**
+     * Returns the DataDictionary for the given parameters, restricted to the fields whose names, either as stored in the metadata table or as aliased by the
+     * query model, match the given field name filters. The field name filters are applied to the scan of the metadata table, so only matching rows are read.
+     *
+     * @param modelName
+     *            Optional model name
+     * @param modelTableName
+     *            Optional model table name
+     * @param metadataTableName
+     *            Optional metadata table name
+     * @param queryAuthorizations
+     *            Optional query authorizations
+     * @param dataTypeFilters
+     *            Optional data type filters
+     * @param fieldNames
+     *            Optional comma-delimited field names
+     * @param fieldNamePrefix
+     *            Optional field name prefix
+     * @param fieldNameRegex
+     *            Optional regular expression that field names must match
+     * @param currentUser
+     *            the current user
+     * @return the DataDictionaryBase class (extended) that contains the data dictionary fields
+     * @throws Exception
+     *             if there is any problem fetching the entries
+     */
+    public DataDictionaryBase<DICT,META> get(String modelName, String modelTableName, String metadataTableName, String queryAuthorizations,
+                    String dataTypeFilters, String fieldNames, String fieldNamePrefix, String fieldNameRegex, DatawaveUserDetails currentUser)
+                    throws Exception {
+        Connection connection = getConnection(metadataTableName, modelTableName, modelName, queryAuthorizations, currentUser);
+        Collection<String> dataTypes = split(dataTypeFilters);
+        FieldNameFilter fieldNameFilter = FieldNameFilter.of(split(fieldNames), fieldNamePrefix, fieldNameRegex);
         
-        Collection<META> fields = dataDictionary.getFields(connection, dataTypes, dataDictionaryConfiguration.getNumThreads());
+        Collection<META> fields = dataDictionary.getFields(connection, dataTypes, fieldNameFilter, dataDictionaryConfiguration.getNumThreads());
         DICT dataDictionary = responseObjectFactory.getDataDictionary();
         dataDictionary.setFields(fields);
         // Ensure that empty internal field names will be set to the field name instead.
@@ -85,7 +128,178 @@ public class DataDictionaryControllerLogic<DESC extends DescriptionBase<DESC>,DI
     }
     
     /**
-     * Upload a collection of descriptions to load into the database. Apply a query model to the provided FieldDescriptions before storing.
+     * Returns a single page of the DataDictionary for the given parameters, in field name order. If there may be more fields after the page, the token with
+     * which to request the next page is returned in the {@value #RESUME_TOKEN_HEADER} header.
+     *
+     * @param modelName
+     *            Optional model name
+     * @param modelTableName
+     *            Optional model table name
+     * @param metadataTableName
+     *            Optional metadata table name
+     * @param queryAuthorizations
+     *            Optional query authorizations
+     * @param dataTypeFilters
+     *            Optional data type filters
+     * @param fieldNames
+     *            Optional comma-delimited field names
+     * @param fieldNamePrefix
+     *            Optional field name prefix
+     * @param fieldNameRegex
+     *            Optional regular expression that field names must match
+     * @param pageSize
+     *            the number of fields to return
+     * @param resumeToken
+     *            Optional resume token returned with the previous page
+     * @param currentUser
+     *            the current user
+     * @return the DataDictionaryBase class (extended) that contains the page of data dictionary fields
+     * @throws Exception
+     *             if there is any problem fetching the entries
+     */
+    public ResponseEntity<DICT> getPage(String modelName, String modelTableName, String metadataTableName, String queryAuthorizations, String dataTypeFilters,
+                    String fieldNames, String fieldNamePrefix, String fieldNameRegex, int pageSize, String resumeToken, DatawaveUserDetails currentUser)
+                    throws Exception {
+        Connection connection = getConnection(metadataTableName, modelTableName, modelName, queryAuthorizations, currentUser);
+        Collection<String> dataTypes = split(dataTypeFilters);
+        FieldNameFilter fieldNameFilter = FieldNameFilter.of(split(fieldNames), fieldNamePrefix, fieldNameRegex);
+        
+        DataDictionaryPage<META> page = dataDictionary.getFieldsPage(connection, dataTypes, fieldNameFilter, dataDictionaryConfiguration.getNumThreads(),
+                        resumeToken, pageSize);
+        DICT dataDictionary = responseObjectFactory.getDataDictionary();
+        dataDictionary.setFields(page.getFields());
+        // Ensure that empty internal field names will be set to the field name instead.
+        dataDictionary.transformFields(TRANSFORM_EMPTY_INTERNAL_FIELD_NAMES);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getResumeToken() != null) {
+            response.header(RESUME_TOKEN_HEADER, page.getResumeToken());
+        }
+        return response.body(dataDictionary);
+    }
+    
+    /**
+     * Returns the fields of the DataDictionary for the given parameters that have changed since the given timestamp, so that a client which mirrors the data
+     * dictionary can retrieve only what changed since its last poll. The timestamp to pass as {@code since} on the next poll is returned in the
+     * {@value #HIGH_WATER_MARK_HEADER} header. Changes are scanned from {@link DataDictionaryProperties#getChangesOverlap()} before the timestamp, so a field
+     * may be returned by more than one poll, and clients should replace any field they already hold. Deleted and hidden fields are not returned, so clients
+     * should periodically poll with a {@code since} of zero, which returns every field, and replace their mirror.
+     *
+     * @param modelName
+     *            Optional model name
+     * @param modelTableName
+     *            Optional model table name
+     * @param metadataTableName
+     *            Optional metadata table name
+     * @param queryAuthorizations
+     *            Optional query authorizations
+     * @param dataTypeFilters
+     *            Optional data type filters
+     * @param fieldNames
+     *            Optional comma-delimited field names
+     * @param fieldNamePrefix
+     *            Optional field name prefix
+     * @param fieldNameRegex
+     *            Optional regular expression that field names must match
+     * @param since
+     *            the timestamp, in milliseconds since the epoch, from which fields are considered changed, or zero for every field
+     * @param currentUser
+     *            the current user
+     * @return the DataDictionaryBase class (extended) that contains the changed data dictionary fields
+     * @throws Exception
+     *             if there is any problem fetching the entries
+     */
+    public ResponseEntity<DICT> getChanges(String modelName, String modelTableName, String metadataTableName, String queryAuthorizations,
+                    String dataTypeFilters, String fieldNames, String fieldNamePrefix, String fieldNameRegex, long since, DatawaveUserDetails currentUser)
+                    throws Exception {
+        Connection connection = getConnection(metadataTableName, modelTableName, modelName, queryAuthorizations, currentUser);
+        Collection<String> dataTypes = split(dataTypeFilters);
+        FieldNameFilter fieldNameFilter = FieldNameFilter.of(split(fieldNames), fieldNamePrefix, fieldNameRegex);
+        
+        long from = since - dataDictionaryConfiguration.getChangesOverlap().toMillis();
+        DataDictionaryChanges<META> changes = dataDictionary.getChanges(connection, dataTypes, fieldNameFilter, dataDictionaryConfiguration.getNumThreads(),
+                        from);
+        // The overlap must not move the next poll backwards.
+        long highWaterMark = Math.max(since, changes.getHighWaterMark());
+        DICT dataDictionary = responseObjectFactory.getDataDictionary();
+        dataDictionary.setFields(changes.getFields());
+        // Ensure that empty internal field names will be set to the field name instead.
+        dataDictionary.transformFields(TRANSFORM_EMPTY_INTERNAL_FIELD_NAMES);
+        
+        return ResponseEntity.ok().header(HIGH_WATER_MARK_HEADER, Long.toString(highWaterMark)).body(dataDictionary);
+    }
+    
+    /**
+     * Returns a response body that streams the DataDictionary for the given parameters. Each field is written as soon as it has been read, so that the entire
+     * data dictionary is never held in memory at once. The connection is established before this method returns, while the current user is still available.
+     *
+     * @param modelName
+     *            Optional model name
+     * @param modelTableName
+     *            Optional model table name
+     * @param metadataTableName
+     *            Optional metadata table name
+     * @param queryAuthorizations
+     *            Optional query authorizations
+     * @param dataTypeFilters
+     *            Optional data type filters
+     * @param fieldNames
+     *            Optional comma-delimited field names
+     * @param fieldNamePrefix
+     *            Optional field name prefix
+     * @param fieldNameRegex
+     *            Optional regular expression that field names must match
+     * @param currentUser
+     *            the current user
+     * @param writerFactory
+     *            creates the writer for the requested media type from the response output stream
+     * @return the streaming response body
+     * @throws Exception
+     *             if there is any problem connecting to accumulo
+     */
+    public StreamingResponseBody stream(String modelName, String modelTableName, String metadataTableName, String queryAuthorizations, String dataTypeFilters,
+                    String fieldNames, String fieldNamePrefix, String fieldNameRegex, DatawaveUserDetails currentUser,
+                    MetadataFieldWriter.Factory<META> writerFactory) throws Exception {
+        Connection connection = getConnection(metadataTableName, modelTableName, modelName, queryAuthorizations, currentUser);
+        Collection<String> dataTypes = split(dataTypeFilters);
+        FieldNameFilter fieldNameFilter = FieldNameFilter.of(split(fieldNames), fieldNamePrefix, fieldNameRegex);
+        
+        return outputStream -> {
+            MetadataFieldWriter<META> writer = writerFactory.create(outputStream);
+            AtomicLong totalResults = new AtomicLong();
+            try {
+                dataDictionary.streamFields(connection, dataTypes, fieldNameFilter, dataDictionaryConfiguration.getNumThreads(), field -> {
+                    // Ensure that empty internal field names will be set to the field name instead.
+                    TRANSFORM_EMPTY_INTERNAL_FIELD_NAMES.accept(field);
+                    try {
+                        writer.write(field);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    totalResults.incrementAndGet();
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Unable to stream data dictionary", e);
+            }
+            writer.finish(totalResults.get());
+        };
+    }
+    
+    // Connect to the specified tables as the current user. If the user provides authorizations, they are intersected with their actual authorizations.
+    private Connection getConnection(String metadataTableName, String modelTableName, String modelName, String queryAuthorizations,
+                    DatawaveUserDetails currentUser) {
+        Connection connection = accumuloConnectionService.getConnection(metadataTableName, modelTableName, modelName, currentUser);
+        connection.setAuths(accumuloConnectionService.getDowngradedAuthorizations(queryAuthorizations, currentUser));
+        return connection;
+    }
+    
+    /**
+     * Upload a collection of descriptions to load into the database. Apply a query model to the provided FieldDescriptions before storing. The descriptions
+     * are written together, and a message is added to the response for each field whose descriptions could not be set.
      *
      * @param fields
      *            a FieldDescriptions to load
@@ -101,15 +315,112 @@ public class DataDictionaryControllerLogic<DESC extends DescriptionBase<DESC>,DI
      */
     public VoidResponse uploadDescriptions(FIELDS fields, String modelName, String modelTable, DatawaveUserDetails currentUser) throws Exception {
         Connection connection = accumuloConnectionService.getConnection(modelTable, modelName, currentUser);
-        List<FIELD> list = fields.getFields();
-        for (FIELD desc : list) {
-            dataDictionary.setDescription(connection, desc);
-        }
+        Map<Map.Entry<String,String>,Exception> failures = dataDictionary.setDescriptions(connection, fields.getFields());
         
         // TODO: reload model table cache?
         // cache.reloadCache(modelTable);
         
-        return new VoidResponse();
+        VoidResponse response = new VoidResponse();
+        failures.forEach((entry, e) -> response
+                        .addMessage("Unable to set descriptions of " + entry.getKey() + " in data type " + entry.getValue() + ": " + e.getMessage()));
+        return response;
+    }
+    
+    /**
+     * Import descriptions read one row at a time from a request body. Rows are collected into batches of {@link DataDictionaryProperties#getImportBatchSize()}
+     * descriptions, and each batch is written before the next is read, so the request body is only consumed as fast as the descriptions can be written. A
+     * message is added to the response for each row that is malformed or could not be written, up to {@value #MAX_IMPORT_MESSAGES} messages, while the
+     * remaining rows are still imported.
+     *
+     * @param reader
+     *            the reader of the request body
+     * @param modelName
+     *            Optional model name
+     * @param modelTable
+     *            Optional model table name
+     * @param currentUser
+     *            The user sending the request
+     * @return a VoidResponse
+     * @throws Exception
+     *             if there is any problem reading the request body or writing the descriptions
+     */
+    public VoidResponse importDescriptions(DescriptionRowReader reader, String modelName, String modelTable, DatawaveUserDetails currentUser)
+                    throws Exception {
+        Connection connection = accumuloConnectionService.getConnection(modelTable, modelName, currentUser);
+        VoidResponse response = new VoidResponse();
+        ImportMessages messages = new ImportMessages(response);
+        Multimap<Map.Entry<String,String>,DESC> batch = LinkedHashMultimap.create();
+        long imported = 0;
+        while (true) {
+            DescriptionRowReader.Row row;
+            try {
+                row = reader.read();
+            } catch (IllegalArgumentException e) {
+                messages.add(e.getMessage());
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+            DESC desc = responseObjectFactory.getDescription();
+            Map<String,String> markings = Maps.newHashMap();
+            markings.put("columnVisibility", row.getVisibility());
+            desc.setMarkings(markings);
+            desc.setDescription(row.getDescription());
+            batch.put(Maps.immutableEntry(row.getFieldName(), row.getDatatype()), desc);
+            if (batch.size() >= dataDictionaryConfiguration.getImportBatchSize()) {
+                imported += writeImportBatch(connection, batch, messages);
+            }
+        }
+        imported += writeImportBatch(connection, batch, messages);
+        messages.finish();
+        response.addMessage("Imported " + imported + " descriptions");
+        return response;
+    }
+    
+    private long writeImportBatch(Connection connection, Multimap<Map.Entry<String,String>,DESC> batch, ImportMessages messages) throws Exception {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        FIELDS fields = responseObjectFactory.getFields();
+        fields.setDescriptions(batch);
+        Map<Map.Entry<String,String>,Exception> failures = dataDictionary.setDescriptions(connection, fields.getFields());
+        long written = batch.size();
+        for (Map.Entry<Map.Entry<String,String>,Exception> failure : failures.entrySet()) {
+            Map.Entry<String,String> entry = failure.getKey();
+            written -= batch.get(entry).size();
+            messages.add("Unable to set descriptions of " + entry.getKey() + " in data type " + entry.getValue() + ": " + failure.getValue().getMessage());
+        }
+        batch.clear();
+        return written;
+    }
+    
+    /**
+     * Adds messages to an import response, up to a limit, so that a request body with many bad rows can not grow the response without bound.
+     */
+    private static class ImportMessages {
+        private final VoidResponse response;
+        private long omitted = 0;
+        private int added = 0;
+        
+        private ImportMessages(VoidResponse response) {
+            this.response = response;
+        }
+        
+        private void add(String message) {
+            if (added < MAX_IMPORT_MESSAGES) {
+                response.addMessage(message);
+                added++;
+            } else {
+                omitted++;
+            }
+        }
+        
+        private void finish() {
+            if (omitted > 0) {
+                response.addMessage(omitted + " more rows could not be imported");
+            }
+        }
     }
     
     /**
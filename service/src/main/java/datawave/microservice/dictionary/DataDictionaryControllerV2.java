@@ -2,8 +2,11 @@ package datawave.microservice.dictionary;
 
 import static datawave.microservice.http.converter.protostuff.ProtostuffHttpMessageConverter.PROTOSTUFF_VALUE;
 
+import java.io.InputStream;
+
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,8 +18,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import datawave.microservice.AccumuloConnectionService;
 import datawave.microservice.authorization.user.DatawaveUserDetails;
@@ -42,20 +47,90 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @EnableConfigurationProperties(DataDictionaryProperties.class)
 public class DataDictionaryControllerV2<DESC extends DescriptionBase<DESC>,DICT extends DataDictionaryBase<DICT,META>,META extends MetadataFieldBase<META,DESC>,FIELD extends DictionaryFieldBase<FIELD,DESC>,FIELDS extends FieldsBase<FIELDS,FIELD,DESC>> {
     
-    private DataDictionaryControllerLogic dataDictionaryControllerLogic;
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+    
+    private DataDictionaryControllerLogic<DESC,DICT,META,FIELD,FIELDS> dataDictionaryControllerLogic;
+    private final ObjectMapper objectMapper;
     
     public DataDictionaryControllerV2(DataDictionaryProperties dataDictionaryConfiguration, DataDictionary<META,DESC,FIELD> dataDictionary,
-                    ResponseObjectFactory<DESC,DICT,META,FIELD,FIELDS> responseObjectFactory, AccumuloConnectionService accumloConnectionService) {
+                    ResponseObjectFactory<DESC,DICT,META,FIELD,FIELDS> responseObjectFactory, AccumuloConnectionService accumloConnectionService,
+                    ObjectMapper objectMapper) {
         dataDictionaryControllerLogic = new DataDictionaryControllerLogic<>(dataDictionaryConfiguration, dataDictionary, responseObjectFactory,
                         accumloConnectionService);
+        this.objectMapper = objectMapper;
     }
     
     @GetMapping("/")
     @Timed(name = "dw.dictionary.data.get", absolute = true)
     public DataDictionaryBase<DICT,META> get(@RequestParam(required = false) String modelName, @RequestParam(required = false) String modelTableName,
                     @RequestParam(required = false) String metadataTableName, @RequestParam(name = "auths", required = false) String queryAuthorizations,
-                    @RequestParam(defaultValue = "") String dataTypeFilters, @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
-        return dataDictionaryControllerLogic.get(modelName, modelTableName, metadataTableName, queryAuthorizations, dataTypeFilters, currentUser);
+                    @RequestParam(defaultValue = "") String dataTypeFilters, @RequestParam(required = false) String fieldNames,
+                    @RequestParam(required = false) String fieldNamePrefix, @RequestParam(required = false) String fieldNameRegex,
+                    @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
+        return dataDictionaryControllerLogic.get(modelName, modelTableName, metadataTableName, queryAuthorizations, dataTypeFilters, fieldNames,
+                        fieldNamePrefix, fieldNameRegex, currentUser);
+    }
+    
+    /**
+     * Returns a single page of the data dictionary in field name order. The token for the next page, if any, is returned in the
+     * {@value DataDictionaryControllerLogic#RESUME_TOKEN_HEADER} header, and is passed back as the {@code resumeToken} parameter to retrieve that page.
+     */
+    @GetMapping(path = "/", params = "pageSize")
+    @Timed(name = "dw.dictionary.data.getPage", absolute = true)
+    public ResponseEntity<DICT> getPage(@RequestParam(required = false) String modelName, @RequestParam(required = false) String modelTableName,
+                    @RequestParam(required = false) String metadataTableName, @RequestParam(name = "auths", required = false) String queryAuthorizations,
+                    @RequestParam(defaultValue = "") String dataTypeFilters, @RequestParam(required = false) String fieldNames,
+                    @RequestParam(required = false) String fieldNamePrefix, @RequestParam(required = false) String fieldNameRegex, @RequestParam int pageSize,
+                    @RequestParam(required = false) String resumeToken, @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
+        return dataDictionaryControllerLogic.getPage(modelName, modelTableName, metadataTableName, queryAuthorizations, dataTypeFilters, fieldNames,
+                        fieldNamePrefix, fieldNameRegex, pageSize, resumeToken, currentUser);
+    }
+    
+    /**
+     * Returns the fields of the data dictionary with an entry written since the {@code since} timestamp, in milliseconds since the epoch, or every field if it
+     * is zero. The timestamp to pass as {@code since} on the next poll is returned in the {@value DataDictionaryControllerLogic#HIGH_WATER_MARK_HEADER}
+     * header. A field may be returned by more than one poll, and deleted or hidden fields are not returned.
+     */
+    @GetMapping("/changes")
+    @Timed(name = "dw.dictionary.data.getChanges", absolute = true)
+    public ResponseEntity<DICT> getChanges(@RequestParam(required = false) String modelName, @RequestParam(required = false) String modelTableName,
+                    @RequestParam(required = false) String metadataTableName, @RequestParam(name = "auths", required = false) String queryAuthorizations,
+                    @RequestParam(defaultValue = "") String dataTypeFilters, @RequestParam(required = false) String fieldNames,
+                    @RequestParam(required = false) String fieldNamePrefix, @RequestParam(required = false) String fieldNameRegex, @RequestParam long since,
+                    @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
+        return dataDictionaryControllerLogic.getChanges(modelName, modelTableName, metadataTableName, queryAuthorizations, dataTypeFilters, fieldNames,
+                        fieldNamePrefix, fieldNameRegex, since, currentUser);
+    }
+    
+    /**
+     * Streams the data dictionary as JSON, writing each field as soon as it has been read rather than building the entire response in memory first.
+     */
+    @GetMapping(path = "/", params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed(name = "dw.dictionary.data.stream", absolute = true)
+    public ResponseEntity<StreamingResponseBody> streamJson(@RequestParam(required = false) String modelName,
+                    @RequestParam(required = false) String modelTableName, @RequestParam(required = false) String metadataTableName,
+                    @RequestParam(name = "auths", required = false) String queryAuthorizations, @RequestParam(defaultValue = "") String dataTypeFilters,
+                    @RequestParam(required = false) String fieldNames, @RequestParam(required = false) String fieldNamePrefix,
+                    @RequestParam(required = false) String fieldNameRegex, @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
+        StreamingResponseBody body = dataDictionaryControllerLogic.stream(modelName, modelTableName, metadataTableName, queryAuthorizations, dataTypeFilters,
+                        fieldNames, fieldNamePrefix, fieldNameRegex, currentUser, outputStream -> MetadataFieldWriter.json(objectMapper, outputStream));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+    
+    /**
+     * Streams the data dictionary as protostuff, writing each field as soon as it has been read rather than building the entire response in memory first.
+     */
+    @GetMapping(path = "/", params = "stream=true", produces = PROTOSTUFF_VALUE)
+    @Timed(name = "dw.dictionary.data.streamProtostuff", absolute = true)
+    public ResponseEntity<StreamingResponseBody> streamProtostuff(@RequestParam(required = false) String modelName,
+                    @RequestParam(required = false) String modelTableName, @RequestParam(required = false) String metadataTableName,
+                    @RequestParam(name = "auths", required = false) String queryAuthorizations, @RequestParam(defaultValue = "") String dataTypeFilters,
+                    @RequestParam(required = false) String fieldNames, @RequestParam(required = false) String fieldNamePrefix,
+                    @RequestParam(required = false) String fieldNameRegex, @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
+        StreamingResponseBody body = dataDictionaryControllerLogic.stream(modelName, modelTableName, metadataTableName, queryAuthorizations, dataTypeFilters,
+                        fieldNames, fieldNamePrefix, fieldNameRegex, currentUser, MetadataFieldWriter::protostuff);
+        return ResponseEntity.ok().contentType(MediaType.valueOf(PROTOSTUFF_VALUE)).body(body);
     }
     
     @PostMapping(path = "/Descriptions", consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE, MediaType.APPLICATION_JSON_VALUE})
@@ -65,6 +140,30 @@ public class DataDictionaryControllerV2<DESC extends DescriptionBase<DESC>,DICT
         return dataDictionaryControllerLogic.uploadDescriptions(fields, modelName, modelTable, currentUser);
     }
     
+    /**
+     * Imports descriptions from newline-delimited JSON, with one object per line that has fieldName, datatype, visibility and description properties. The
+     * request body is read as the descriptions are written, rather than deserialized in its entirety first.
+     */
+    @Secured({"Administrator", "JBossAdministrator"})
+    @PostMapping(path = "/Descriptions/import", consumes = NDJSON_VALUE)
+    @Timed(name = "dw.dictionary.data.importDescriptionsNdjson", absolute = true)
+    public VoidResponse importDescriptionsNdjson(InputStream body, @RequestParam(required = false) String modelName,
+                    @RequestParam(required = false) String modelTable, @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
+        return dataDictionaryControllerLogic.importDescriptions(DescriptionRowReader.ndjson(objectMapper, body), modelName, modelTable, currentUser);
+    }
+    
+    /**
+     * Imports descriptions from comma-separated values, with one fieldName, datatype, visibility, description record per line and an optional header. The
+     * request body is read as the descriptions are written, rather than deserialized in its entirety first.
+     */
+    @Secured({"Administrator", "JBossAdministrator"})
+    @PostMapping(path = "/Descriptions/import", consumes = CSV_VALUE)
+    @Timed(name = "dw.dictionary.data.importDescriptionsCsv", absolute = true)
+    public VoidResponse importDescriptionsCsv(InputStream body, @RequestParam(required = false) String modelName,
+                    @RequestParam(required = false) String modelTable, @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
+        return dataDictionaryControllerLogic.importDescriptions(DescriptionRowReader.csv(body), modelName, modelTable, currentUser);
+    }
+    
     @Secured({"Administrator", "JBossAdministrator"})
     @PutMapping("/Descriptions/{datatype}/{fieldName}/{description}")
     @Timed(name = "dw.dictionary.data.setDescriptionPut", absolute = true)
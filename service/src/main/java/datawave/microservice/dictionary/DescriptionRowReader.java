@@ -0,0 +1,216 @@
+package datawave.microservice.dictionary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads field descriptions from a request body one row at a time, so that an import of any size can be processed without reading the entire body into memory.
+ * Each row has a field name, data type, column visibility and description.
+ */
+public interface DescriptionRowReader {
+    
+    /**
+     * The names of the columns of a row, in the order they appear in a CSV row, and as the property names of an NDJSON row.
+     */
+    List<String> COLUMNS = Arrays.asList("fieldName", "datatype", "visibility", "description");
+    
+    /**
+     * Read the next row. A malformed row is reported by an {@link IllegalArgumentException} identifying the line it starts on, after which the following rows
+     * may still be read.
+     *
+     * @return the next row, or null if there are no more rows
+     * @throws IOException
+     *             if the request body cannot be read
+     * @throws IllegalArgumentException
+     *             if the next row is malformed
+     */
+    Row read() throws IOException;
+    
+    /**
+     * A single field description.
+     */
+    final class Row {
+        private final String fieldName;
+        private final String datatype;
+        private final String visibility;
+        private final String description;
+        
+        public Row(String fieldName, String datatype, String visibility, String description) {
+            this.fieldName = fieldName;
+            this.datatype = datatype;
+            this.visibility = visibility;
+            this.description = description;
+        }
+        
+        public String getFieldName() {
+            return fieldName;
+        }
+        
+        public String getDatatype() {
+            return datatype;
+        }
+        
+        public String getVisibility() {
+            return visibility;
+        }
+        
+        public String getDescription() {
+            return description;
+        }
+    }
+    
+    /**
+     * Create a reader for newline-delimited JSON, where each non-blank line is a JSON object with the {@link #COLUMNS} as its properties.
+     *
+     * @param objectMapper
+     *            the object mapper used to parse each line
+     * @param inputStream
+     *            the UTF-8 encoded request body
+     * @return the reader
+     */
+    static DescriptionRowReader ndjson(ObjectMapper objectMapper, InputStream inputStream) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        return new DescriptionRowReader() {
+            private long lineNumber = 0;
+            
+            @Override
+            public Row read() throws IOException {
+                String line;
+                do {
+                    line = reader.readLine();
+                    if (line == null) {
+                        return null;
+                    }
+                    lineNumber++;
+                } while (line.trim().isEmpty());
+                
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " is not valid JSON: " + e.getOriginalMessage());
+                }
+                if (node == null || !node.isObject()) {
+                    throw new IllegalArgumentException("Line " + lineNumber + " is not a JSON object");
+                }
+                String[] values = new String[COLUMNS.size()];
+                for (int i = 0; i < values.length; i++) {
+                    JsonNode value = node.get(COLUMNS.get(i));
+                    if (value == null || value.isNull() || value.isContainerNode()) {
+                        throw new IllegalArgumentException("Line " + lineNumber + " has no " + COLUMNS.get(i));
+                    }
+                    values[i] = value.asText();
+                }
+                return new Row(values[0], values[1], values[2], values[3]);
+            }
+        };
+    }
+    
+    /**
+     * Create a reader for comma-separated values, where each record has the {@link #COLUMNS} in order. Values may be enclosed in double quotes to include
+     * commas, line breaks or double quotes, which are escaped by doubling them. A first record that matches the column names is treated as a header and
+     * skipped.
+     *
+     * @param inputStream
+     *            the UTF-8 encoded request body
+     * @return the reader
+     */
+    static DescriptionRowReader csv(InputStream inputStream) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        return new DescriptionRowReader() {
+            private long lineNumber = 0;
+            
+            @Override
+            public Row read() throws IOException {
+                List<String> values;
+                long startLine;
+                do {
+                    startLine = lineNumber + 1;
+                    values = readRecord();
+                    if (values == null) {
+                        return null;
+                    }
+                } while ((values.size() == 1 && values.get(0).isEmpty()) || (startLine == 1 && isHeader(values)));
+                
+                if (values.size() != COLUMNS.size()) {
+                    throw new IllegalArgumentException("Line " + startLine + " has " + values.size() + " values, but " + COLUMNS.size() + " are required");
+                }
+                return new Row(values.get(0), values.get(1), values.get(2), values.get(3));
+            }
+            
+            private boolean isHeader(List<String> values) {
+                if (values.size() != COLUMNS.size()) {
+                    return false;
+                }
+                for (int i = 0; i < values.size(); i++) {
+                    if (!COLUMNS.get(i).equalsIgnoreCase(values.get(i).trim())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            
+            /**
+             * Read the values of the next record, which spans more than one line if a quoted value contains a line break.
+             */
+            private List<String> readRecord() throws IOException {
+                String line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber++;
+                long startLine = lineNumber;
+                
+                List<String> values = new ArrayList<>(COLUMNS.size());
+                StringBuilder value = new StringBuilder();
+                boolean quoted = false;
+                int i = 0;
+                while (true) {
+                    if (i == line.length()) {
+                        if (!quoted) {
+                            break;
+                        }
+                        line = reader.readLine();
+                        if (line == null) {
+                            throw new IllegalArgumentException("Line " + startLine + " has an unterminated quoted value");
+                        }
+                        lineNumber++;
+                        value.append('\n');
+                        i = 0;
+                        continue;
+                    }
+                    char c = line.charAt(i++);
+                    if (quoted) {
+                        if (c != '"') {
+                            value.append(c);
+                        } else if (i < line.length() && line.charAt(i) == '"') {
+                            value.append('"');
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        values.add(value.toString());
+                        value.setLength(0);
+                    } else {
+                        value.append(c);
+                    }
+                }
+                values.add(value.toString());
+                return values;
+            }
+        };
+    }
+}
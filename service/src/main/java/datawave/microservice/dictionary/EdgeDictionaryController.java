@@ -1,23 +1,36 @@
 package datawave.microservice.dictionary;
 
+import static datawave.microservice.dictionary.RequestParameters.split;
 import static datawave.microservice.http.converter.protostuff.ProtostuffHttpMessageConverter.PROTOSTUFF_VALUE;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.security.Authorizations;
 import org.apache.commons.lang.StringUtils;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import datawave.accumulo.util.security.UserAuthFunctions;
 import datawave.microservice.AccumuloConnectionService;
 import datawave.microservice.authorization.user.DatawaveUserDetails;
 import datawave.microservice.dictionary.config.EdgeDictionaryProperties;
 import datawave.microservice.dictionary.edge.EdgeDictionary;
+import datawave.microservice.dictionary.edge.EdgeDictionaryPage;
+import datawave.microservice.dictionary.edge.EdgeMetadataFilter;
 import datawave.webservice.dictionary.edge.EdgeDictionaryBase;
 import datawave.webservice.dictionary.edge.MetadataBase;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
@@ -39,22 +52,31 @@ public class EdgeDictionaryController<EDGE extends EdgeDictionaryBase<EDGE,META>
     private final EdgeDictionary<EDGE,META> edgeDictionary;
     private final UserAuthFunctions userAuthFunctions;
     private final AccumuloConnectionService accumuloConnectionService;
+    private final ObjectMapper objectMapper;
     
     public EdgeDictionaryController(EdgeDictionaryProperties edgeDictionaryProperties, EdgeDictionary<EDGE,META> edgeDictionary,
-                    UserAuthFunctions userAuthFunctions, AccumuloConnectionService accumloConnectionService) {
+                    UserAuthFunctions userAuthFunctions, AccumuloConnectionService accumloConnectionService, ObjectMapper objectMapper) {
         this.edgeDictionaryProperties = edgeDictionaryProperties;
         this.edgeDictionary = edgeDictionary;
         this.userAuthFunctions = userAuthFunctions;
         this.accumuloConnectionService = accumloConnectionService;
+        this.objectMapper = objectMapper;
     }
     
     /**
-     * Returns the EdgeDictionary given a metadata table and authorizations
+     * Returns the EdgeDictionary given a metadata table and authorizations, optionally restricted to specific edge types, edge relationships and attribute1
+     * sources. Only the matching edge metadata is read from the metadata table when any of those are given.
      *
      * @param metadataTableName
      *            Name of metadata table (Optional)
      * @param queryAuthorizations
      *            Authorizations to use
+     * @param edgeTypes
+     *            Comma-delimited edge types to return (Optional)
+     * @param edgeRelationships
+     *            Comma-delimited prefixes of the edge relationships to return (Optional)
+     * @param attribute1Sources
+     *            Comma-delimited attribute1 sources to return (Optional)
      * @return the EdgeDictionaryBase class (extended) that contains the edge dictionary fields
      * @throws Exception
      *             if there is any problem retrieving the edge dictionary from Accumulo
@@ -62,18 +84,134 @@ public class EdgeDictionaryController<EDGE extends EdgeDictionaryBase<EDGE,META>
     @GetMapping("/")
     @Timed(name = "dw.dictionary.edge.get", absolute = true)
     public EdgeDictionaryBase<EDGE,META> get(@RequestParam(required = false) String metadataTableName,
-                    @RequestParam(name = "auths", required = false) String queryAuthorizations, @AuthenticationPrincipal DatawaveUserDetails currentUser)
-                    throws Exception {
+                    @RequestParam(name = "auths", required = false) String queryAuthorizations,
+                    @RequestParam(name = "edgeType", required = false) String edgeTypes,
+                    @RequestParam(name = "edgeRelationship", required = false) String edgeRelationships,
+                    @RequestParam(name = "attribute1Source", required = false) String attribute1Sources,
+                    @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
         log.info("EDGEDICTIONARY: entered rest endpoint");
         if (null == metadataTableName || StringUtils.isBlank(metadataTableName)) {
             metadataTableName = edgeDictionaryProperties.getMetadataTableName();
         }
         
+        EdgeMetadataFilter filter = EdgeMetadataFilter.of(split(edgeTypes), split(edgeRelationships), split(attribute1Sources));
         EDGE edgeDict = edgeDictionary.getEdgeDictionary(metadataTableName, accumuloConnectionService.getConnection().getAccumuloClient(),
-                        accumuloConnectionService.getDowngradedAuthorizations(queryAuthorizations, currentUser), edgeDictionaryProperties.getNumThreads());
+                        accumuloConnectionService.getDowngradedAuthorizations(queryAuthorizations, currentUser), edgeDictionaryProperties.getNumThreads(),
+                        filter);
         
         log.info("EDGEDICTIONARY: returning edge dictionary");
         return edgeDict;
     }
     
+    /**
+     * Returns a single page of the EdgeDictionary in edge metadata key order. The token for the next page, if any, is returned in the
+     * {@value DataDictionaryControllerLogic#RESUME_TOKEN_HEADER} header, and is passed back as the {@code resumeToken} parameter to retrieve that page.
+     *
+     * @param metadataTableName
+     *            Name of metadata table (Optional)
+     * @param queryAuthorizations
+     *            Authorizations to use
+     * @param edgeTypes
+     *            Comma-delimited edge types to return (Optional)
+     * @param edgeRelationships
+     *            Comma-delimited prefixes of the edge relationships to return (Optional)
+     * @param attribute1Sources
+     *            Comma-delimited attribute1 sources to return (Optional)
+     * @param pageSize
+     *            the number of edge dictionary entries to return
+     * @param resumeToken
+     *            Optional resume token returned with the previous page
+     * @return the EdgeDictionaryBase class (extended) that contains the page of edge dictionary entries
+     * @throws Exception
+     *             if there is any problem retrieving the edge dictionary from Accumulo
+     */
+    @GetMapping(path = "/", params = "pageSize")
+    @Timed(name = "dw.dictionary.edge.getPage", absolute = true)
+    public ResponseEntity<EDGE> getPage(@RequestParam(required = false) String metadataTableName,
+                    @RequestParam(name = "auths", required = false) String queryAuthorizations,
+                    @RequestParam(name = "edgeType", required = false) String edgeTypes,
+                    @RequestParam(name = "edgeRelationship", required = false) String edgeRelationships,
+                    @RequestParam(name = "attribute1Source", required = false) String attribute1Sources, @RequestParam int pageSize,
+                    @RequestParam(required = false) String resumeToken, @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
+        if (StringUtils.isBlank(metadataTableName)) {
+            metadataTableName = edgeDictionaryProperties.getMetadataTableName();
+        }
+        
+        EdgeMetadataFilter filter = EdgeMetadataFilter.of(split(edgeTypes), split(edgeRelationships), split(attribute1Sources));
+        EdgeDictionaryPage<EDGE> page = edgeDictionary.getEdgeDictionaryPage(metadataTableName,
+                        accumuloConnectionService.getConnection().getAccumuloClient(),
+                        accumuloConnectionService.getDowngradedAuthorizations(queryAuthorizations, currentUser), edgeDictionaryProperties.getNumThreads(),
+                        filter, resumeToken, pageSize);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getResumeToken() != null) {
+            response.header(DataDictionaryControllerLogic.RESUME_TOKEN_HEADER, page.getResumeToken());
+        }
+        return response.body(page.getDictionary());
+    }
+    
+    /**
+     * Streams the EdgeDictionary as JSON, writing each edge metadata entry as soon as it has been decoded rather than building the entire response in memory
+     * first.
+     */
+    @GetMapping(path = "/", params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Timed(name = "dw.dictionary.edge.stream", absolute = true)
+    public ResponseEntity<StreamingResponseBody> streamJson(@RequestParam(required = false) String metadataTableName,
+                    @RequestParam(name = "auths", required = false) String queryAuthorizations,
+                    @RequestParam(name = "edgeType", required = false) String edgeTypes,
+                    @RequestParam(name = "edgeRelationship", required = false) String edgeRelationships,
+                    @RequestParam(name = "attribute1Source", required = false) String attribute1Sources,
+                    @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
+        StreamingResponseBody body = stream(metadataTableName, queryAuthorizations, edgeTypes, edgeRelationships, attribute1Sources, currentUser,
+                        outputStream -> EdgeMetadataWriter.json(objectMapper, outputStream));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+    
+    /**
+     * Streams the EdgeDictionary as protostuff, writing each edge metadata entry as soon as it has been decoded rather than building the entire response in
+     * memory first.
+     */
+    @GetMapping(path = "/", params = "stream=true", produces = PROTOSTUFF_VALUE)
+    @Timed(name = "dw.dictionary.edge.streamProtostuff", absolute = true)
+    public ResponseEntity<StreamingResponseBody> streamProtostuff(@RequestParam(required = false) String metadataTableName,
+                    @RequestParam(name = "auths", required = false) String queryAuthorizations,
+                    @RequestParam(name = "edgeType", required = false) String edgeTypes,
+                    @RequestParam(name = "edgeRelationship", required = false) String edgeRelationships,
+                    @RequestParam(name = "attribute1Source", required = false) String attribute1Sources,
+                    @AuthenticationPrincipal DatawaveUserDetails currentUser) throws Exception {
+        StreamingResponseBody body = stream(metadataTableName, queryAuthorizations, edgeTypes, edgeRelationships, attribute1Sources, currentUser,
+                        EdgeMetadataWriter::protostuff);
+        return ResponseEntity.ok().contentType(MediaType.valueOf(PROTOSTUFF_VALUE)).body(body);
+    }
+    
+    // the client and authorizations are resolved before the response body is returned, while the current user is still available
+    private StreamingResponseBody stream(String metadataTableName, String queryAuthorizations, String edgeTypes, String edgeRelationships,
+                    String attribute1Sources, DatawaveUserDetails currentUser, EdgeMetadataWriter.Factory<META> writerFactory) throws Exception {
+        String tableName = StringUtils.isBlank(metadataTableName) ? edgeDictionaryProperties.getMetadataTableName() : metadataTableName;
+        EdgeMetadataFilter filter = EdgeMetadataFilter.of(split(edgeTypes), split(edgeRelationships), split(attribute1Sources));
+        AccumuloClient accumuloClient = accumuloConnectionService.getConnection().getAccumuloClient();
+        Set<Authorizations> auths = accumuloConnectionService.getDowngradedAuthorizations(queryAuthorizations, currentUser);
+        
+        return outputStream -> {
+            EdgeMetadataWriter<META> writer = writerFactory.create(outputStream);
+            AtomicLong totalResults = new AtomicLong();
+            try {
+                edgeDictionary.streamEdgeDictionary(tableName, accumuloClient, auths, edgeDictionaryProperties.getNumThreads(), filter, metadata -> {
+                    try {
+                        writer.write(metadata);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    totalResults.incrementAndGet();
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Unable to stream edge dictionary", e);
+            }
+            writer.finish(totalResults.get());
+        };
+    }
 }
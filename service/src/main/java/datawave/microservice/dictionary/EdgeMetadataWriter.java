@@ -0,0 +1,115 @@
+package datawave.microservice.dictionary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import datawave.webservice.dictionary.edge.MetadataBase;
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffOutput;
+
+/**
+ * Writes an edge dictionary response to an output stream one {@link MetadataBase} at a time. The response has the same shape as the corresponding
+ * serialization of a fully materialized {@link datawave.webservice.dictionary.edge.EdgeDictionaryBase}, with the total number of results written after the
+ * last entry.
+ *
+ * @param <META>
+ *            the type of the edge metadata
+ */
+public interface EdgeMetadataWriter<META extends MetadataBase<META>> {
+    
+    /**
+     * Write a single edge metadata entry.
+     *
+     * @param metadata
+     *            the entry to write
+     * @throws IOException
+     *             if the entry cannot be written
+     */
+    void write(META metadata) throws IOException;
+    
+    /**
+     * Complete the response and flush it to the output stream.
+     *
+     * @param totalResults
+     *            the number of entries written
+     * @throws IOException
+     *             if the response cannot be written
+     */
+    void finish(long totalResults) throws IOException;
+    
+    /**
+     * Creates an {@link EdgeMetadataWriter} for a response output stream.
+     *
+     * @param <META>
+     *            the type of the edge metadata
+     */
+    @FunctionalInterface
+    interface Factory<META extends MetadataBase<META>> {
+        EdgeMetadataWriter<META> create(OutputStream outputStream) throws IOException;
+    }
+    
+    /**
+     * Create a writer that writes the response as a JSON object with the same property names as the fully materialized response.
+     *
+     * @param objectMapper
+     *            the object mapper used to write each entry
+     * @param outputStream
+     *            the output stream to write to
+     * @param <META>
+     *            the type of the edge metadata
+     * @return the writer
+     * @throws IOException
+     *             if the start of the response cannot be written
+     */
+    static <META extends MetadataBase<META>> EdgeMetadataWriter<META> json(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("EdgeMetadata");
+        return new EdgeMetadataWriter<META>() {
+            @Override
+            public void write(META metadata) throws IOException {
+                generator.writeObject(metadata);
+            }
+            
+            @Override
+            public void finish(long totalResults) throws IOException {
+                generator.writeEndArray();
+                generator.writeNumberField("TotalResults", totalResults);
+                generator.writeEndObject();
+                generator.close();
+            }
+        };
+    }
+    
+    /**
+     * Create a writer that writes the response in the protostuff format. Each entry is written as a repeated field 1 of the edge dictionary message, and the
+     * total number of results as field 2 after the last entry, in the same order as the schema of the fully materialized response writes them.
+     *
+     * @param outputStream
+     *            the output stream to write to
+     * @param <META>
+     *            the type of the edge metadata
+     * @return the writer
+     */
+    static <META extends MetadataBase<META>> EdgeMetadataWriter<META> protostuff(OutputStream outputStream) {
+        LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+        ProtostuffOutput output = new ProtostuffOutput(buffer, outputStream);
+        return new EdgeMetadataWriter<META>() {
+            @Override
+            public void write(META metadata) throws IOException {
+                output.writeObject(1, metadata, metadata.cachedSchema(), true);
+            }
+            
+            @Override
+            public void finish(long totalResults) throws IOException {
+                output.writeUInt64(2, totalResults, false);
+                LinkedBuffer.writeTo(outputStream, buffer);
+                outputStream.flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package datawave.microservice.dictionary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import datawave.webservice.metadata.MetadataFieldBase;
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffOutput;
+
+/**
+ * Writes a data dictionary response to an output stream one {@link MetadataFieldBase} at a time. The response has the same shape as the corresponding
+ * serialization of a fully materialized {@link datawave.webservice.dictionary.data.DataDictionaryBase}, with the total number of results written after the
+ * last field.
+ *
+ * @param <META>
+ *            the type of the metadata fields
+ */
+public interface MetadataFieldWriter<META extends MetadataFieldBase<META,?>> {
+    
+    /**
+     * Write a single field.
+     *
+     * @param field
+     *            the field to write
+     * @throws IOException
+     *             if the field cannot be written
+     */
+    void write(META field) throws IOException;
+    
+    /**
+     * Complete the response and flush it to the output stream.
+     *
+     * @param totalResults
+     *            the number of fields written
+     * @throws IOException
+     *             if the response cannot be written
+     */
+    void finish(long totalResults) throws IOException;
+    
+    /**
+     * Creates a {@link MetadataFieldWriter} for a response output stream.
+     *
+     * @param <META>
+     *            the type of the metadata fields
+     */
+    @FunctionalInterface
+    interface Factory<META extends MetadataFieldBase<META,?>> {
+        MetadataFieldWriter<META> create(OutputStream outputStream) throws IOException;
+    }
+    
+    /**
+     * Create a writer that writes the response as a JSON object with the same property names as the fully materialized response.
+     *
+     * @param objectMapper
+     *            the object mapper used to write each field
+     * @param outputStream
+     *            the output stream to write to
+     * @param <META>
+     *            the type of the metadata fields
+     * @return the writer
+     * @throws IOException
+     *             if the start of the response cannot be written
+     */
+    static <META extends MetadataFieldBase<META,?>> MetadataFieldWriter<META> json(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("MetadataFields");
+        return new MetadataFieldWriter<META>() {
+            @Override
+            public void write(META field) throws IOException {
+                generator.writeObject(field);
+            }
+            
+            @Override
+            public void finish(long totalResults) throws IOException {
+                generator.writeEndArray();
+                generator.writeNumberField("TotalResults", totalResults);
+                generator.writeEndObject();
+                generator.close();
+            }
+        };
+    }
+    
+    /**
+     * Create a writer that writes the response in the protostuff format. Each field is written as a repeated field 2 of the data dictionary message, and the
+     * total number of results as field 1 after the last field. Protostuff nests messages as groups, so no field needs to be buffered to determine its length.
+     *
+     * @param outputStream
+     *            the output stream to write to
+     * @param <META>
+     *            the type of the metadata fields
+     * @return the writer
+     */
+    static <META extends MetadataFieldBase<META,?>> MetadataFieldWriter<META> protostuff(OutputStream outputStream) {
+        LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+        ProtostuffOutput output = new ProtostuffOutput(buffer, outputStream);
+        return new MetadataFieldWriter<META>() {
+            @Override
+            public void write(META field) throws IOException {
+                output.writeObject(2, field, field.cachedSchema(), true);
+            }
+            
+            @Override
+            public void finish(long totalResults) throws IOException {
+                output.writeUInt64(1, totalResults, false);
+                LinkedBuffer.writeTo(outputStream, buffer);
+                outputStream.flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package datawave.microservice.dictionary;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Parsing of the request parameters shared by the dictionary controllers.
+ */
+final class RequestParameters {
+    
+    private RequestParameters() {}
+    
+    /**
+     * Split an optional comma-delimited request parameter into its values.
+     *
+     * @param values
+     *            the comma-delimited values, which may be null or blank
+     * @return the values, or an empty collection if there are none
+     */
+    static Collection<String> split(String values) {
+        return StringUtils.isBlank(values) ? Collections.emptyList() : Arrays.asList(values.split(","));
+    }
+}
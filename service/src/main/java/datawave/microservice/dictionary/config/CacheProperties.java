@@ -0,0 +1,23 @@
+package datawave.microservice.dictionary.config;
+
+import java.time.Duration;
+
+/**
+ * The settings that apply to every {@link datawave.microservice.dictionary.data.DataDictionaryCache}, regardless of what it caches.
+ */
+public interface CacheProperties {
+    
+    boolean isEnabled();
+    
+    long getMaximumSize();
+    
+    /**
+     * @return how often entries that are still in use are reloaded in the background, or zero to disable background refresh
+     */
+    Duration getRefreshInterval();
+    
+    /**
+     * @return the maximum age of a cached entry before a request blocks on a fresh load
+     */
+    Duration getMaxStaleness();
+}
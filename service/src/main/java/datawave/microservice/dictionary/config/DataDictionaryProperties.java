@@ -1,8 +1,14 @@
 package datawave.microservice.dictionary.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PositiveOrZero;
 import javax.validation.constraints.Positive;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -29,6 +35,27 @@ public class DataDictionaryProperties {
     @Positive
     private int numThreads;
     private Map<String,String> normalizerMap;
+    /**
+     * Whether to aggregate metadata rows into compact per data type summaries on the tablet servers, rather than transfer every entry of each row. This
+     * requires the {@link datawave.microservice.metadata.MetadataRowSummaryIterator} to be deployed to the tablet servers.
+     */
+    private boolean rowSummaries = false;
+    /**
+     * The number of descriptions read from an import request body before they are written to the metadata table. The next batch is not read until the
+     * previous batch has been written, which bounds the memory an import uses regardless of the size of the request body.
+     */
+    @Positive
+    private int importBatchSize = 1000;
+    /**
+     * How long before the {@code since} timestamp of a changes request to scan for changes from. This allows for clock skew between this service and the
+     * tablet servers, and for entries written with a slightly earlier timestamp. Fields that changed within the overlap are reported again.
+     */
+    @NotNull
+    private Duration changesOverlap = Duration.ofSeconds(10);
+    @Valid
+    private Cache cache = new Cache();
+    @Valid
+    private Writer writer = new Writer();
     
     @Getter
     @Setter
@@ -40,4 +67,81 @@ public class DataDictionaryProperties {
         private String styleTop;
         private String styleBottom;
     }
+    
+    /**
+     * Settings for the batch writers shared by all writes to the metadata and model tables. One writer is kept open per table, and each write waits on a flush
+     * that it shares with the writes queued alongside it, so these settings bound the memory and threads used by concurrent writes rather than delay them.
+     */
+    @Getter
+    @Setter
+    public static class Writer {
+        @Positive
+        private long maxMemory = 10845760L;
+        /**
+         * The maximum time a mutation is held in a writer's buffer before it is sent to the tablet servers. Writes are flushed as soon as they are queued, so
+         * this is only a backstop.
+         */
+        @NotNull
+        private Duration maxLatency = Duration.ofSeconds(1);
+        @Positive
+        private int maxWriteThreads = 2;
+    }
+    
+    /**
+     * Settings for the cache of data dictionary fields. Fields are cached per metadata table, query model, authorizations and data type filters. The same
+     * settings apply to the cache of query model aliases, which are cached per query model and authorizations in either mode.
+     */
+    @Getter
+    @Setter
+    public static class Cache implements CacheProperties {
+        private boolean enabled = true;
+        @NotNull
+        private Mode mode = Mode.AUTHORIZATIONS;
+        /**
+         * The authorizations to scan the metadata table with in {@link Mode#VISIBILITY} mode. These must include every authorization of every user that will
+         * be served, otherwise those users will be missing any fields that are only visible with the excluded authorizations. Defaults to the authorizations
+         * of the accumulo user this service connects as.
+         */
+        private String serviceAuths;
+        /**
+         * Whether to serve descriptions from memory. The descriptions of each metadata table are scanned once with the {@link #serviceAuths}, filtered by
+         * column visibility for each request, updated in place when set or deleted through this service, and scanned again once older than the
+         * {@link #maxStaleness}.
+         */
+        private boolean descriptions = true;
+        @PositiveOrZero
+        private long maximumSize = 1000;
+        /**
+         * How often cached fields that are still in use are re-scanned in the background. A zero interval disables background refresh, in which case entries
+         * are simply reloaded on the first request after they expire.
+         */
+        @NotNull
+        private Duration refreshInterval = Duration.ofMinutes(5);
+        /**
+         * The maximum age of cached fields. A request will block on a fresh scan rather than be served a snapshot older than this.
+         */
+        @NotNull
+        private Duration maxStaleness = Duration.ofMinutes(30);
+        /**
+         * Metadata tables to load into the cache at startup and keep warm. In {@link Mode#AUTHORIZATIONS} mode, each table is loaded with the default model
+         * and with the authorizations listed in {@link #prewarmAuths}, so only requests with exactly those authorizations and no data type filters will be
+         * served from the pre-warmed entry. In {@link Mode#VISIBILITY} mode, the table snapshot serves all requests.
+         */
+        private List<String> prewarmTables = new ArrayList<>();
+        /**
+         * The authorizations to pre-warm the cache with, one comma-delimited entry per user in the proxied entities chain.
+         */
+        private List<String> prewarmAuths = new ArrayList<>();
+        
+        public enum Mode {
+            /**
+             * Cache the fields returned for each distinct combination of metadata table, model, authorizations and data type filters.
+             */
+            AUTHORIZATIONS,
+            /**
+             * Cache a single snapshot of each metadata table, scanned with the service authorizations, and filter it by column visibility for each request.
+             */
+            VISIBILITY
+        }
+    }
 }
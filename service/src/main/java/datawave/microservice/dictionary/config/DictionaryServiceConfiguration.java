@@ -1,5 +1,12 @@
 package datawave.microservice.dictionary.config;
 
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
@@ -12,14 +19,22 @@ import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import datawave.accumulo.util.security.UserAuthFunctions;
 import datawave.marking.MarkingFunctions;
+import datawave.microservice.BatchWriterPool;
 import datawave.microservice.config.accumulo.AccumuloProperties;
 import datawave.microservice.config.web.DatawaveServerProperties;
 import datawave.microservice.dictionary.data.DataDictionary;
+import datawave.microservice.dictionary.data.DataDictionaryCache;
 import datawave.microservice.dictionary.data.DataDictionaryImpl;
+import datawave.microservice.dictionary.data.QueryModelAliases;
 import datawave.microservice.dictionary.edge.EdgeDictionary;
 import datawave.microservice.dictionary.edge.EdgeDictionaryImpl;
+import datawave.microservice.dictionary.edge.EdgeDictionarySnapshot;
+import datawave.microservice.metadata.MetadataDescriptionStore;
 import datawave.microservice.metadata.MetadataDescriptionsHelper;
 import datawave.microservice.metadata.MetadataDescriptionsHelperFactory;
+import datawave.microservice.metadata.MetadataFieldSnapshot;
+import datawave.microservice.model.ModelCatalog;
+import datawave.microservice.model.config.ModelProperties;
 import datawave.query.util.MetadataHelperFactory;
 import datawave.webservice.dictionary.data.DefaultDataDictionary;
 import datawave.webservice.dictionary.data.DefaultDescription;
@@ -27,9 +42,10 @@ import datawave.webservice.dictionary.data.DefaultDictionaryField;
 import datawave.webservice.dictionary.data.DefaultFields;
 import datawave.webservice.dictionary.data.FieldsBase;
 import datawave.webservice.metadata.DefaultMetadataField;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
-@EnableConfigurationProperties(DictionaryServiceProperties.class)
+@EnableConfigurationProperties({DictionaryServiceProperties.class, DataDictionaryProperties.class, EdgeDictionaryProperties.class})
 public class DictionaryServiceConfiguration {
     @Bean
     @Qualifier("warehouse")
@@ -47,22 +63,111 @@ public class DictionaryServiceConfiguration {
     @Scope("prototype")
     @ConditionalOnMissingBean
     public MetadataDescriptionsHelper<DefaultDescription> metadataHelperWithDescriptions(MarkingFunctions markingFunctions,
-                    ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> responseObjectFactory) {
-        return new MetadataDescriptionsHelper<>(markingFunctions, responseObjectFactory);
+                    ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> responseObjectFactory,
+                    BatchWriterPool batchWriterPool) {
+        return new MetadataDescriptionsHelper<>(markingFunctions, responseObjectFactory, batchWriterPool);
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public BatchWriterPool batchWriterPool(@Qualifier("warehouse") AccumuloClient accumuloClient, DataDictionaryProperties dataDictionaryProperties,
+                    ObjectProvider<MeterRegistry> meterRegistry) {
+        DataDictionaryProperties.Writer writerProperties = dataDictionaryProperties.getWriter();
+        BatchWriterConfig config = new BatchWriterConfig().setMaxMemory(writerProperties.getMaxMemory())
+                        .setMaxLatency(writerProperties.getMaxLatency().toMillis(), TimeUnit.MILLISECONDS)
+                        .setMaxWriteThreads(writerProperties.getMaxWriteThreads());
+        BatchWriterPool batchWriterPool = new BatchWriterPool(accumuloClient, config);
+        meterRegistry.ifAvailable(registry -> batchWriterPool.bindTo(registry, "dictionary.writer"));
+        return batchWriterPool;
     }
     
     @Bean
     @ConditionalOnMissingBean
     public DataDictionary datawaveDataDictionary(MarkingFunctions markingFunctions,
                     ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> responseObjectFactory,
-                    MetadataHelperFactory metadataHelperFactory, MetadataDescriptionsHelperFactory<DefaultDescription> metadataDescriptionsHelperFactory) {
-        return new DataDictionaryImpl(markingFunctions, responseObjectFactory, metadataHelperFactory, metadataDescriptionsHelperFactory);
+                    MetadataHelperFactory metadataHelperFactory, MetadataDescriptionsHelperFactory<DefaultDescription> metadataDescriptionsHelperFactory,
+                    DataDictionaryProperties dataDictionaryProperties, DataDictionaryCache<Collection<DefaultMetadataField>> dataDictionaryFieldsCache,
+                    DataDictionaryCache<MetadataFieldSnapshot> dataDictionarySnapshotCache,
+                    DataDictionaryCache<QueryModelAliases> dataDictionaryAliasesCache,
+                    ObjectProvider<MetadataDescriptionStore<DefaultDescription>> metadataDescriptionStore) {
+        DataDictionaryProperties.Cache cacheProperties = dataDictionaryProperties.getCache();
+        // @formatter:off
+        DataDictionaryImpl.Builder builder = new DataDictionaryImpl.Builder(markingFunctions, responseObjectFactory, metadataHelperFactory,
+                        metadataDescriptionsHelperFactory)
+                        .withFieldsCache(dataDictionaryFieldsCache)
+                        .withSnapshotCache(dataDictionarySnapshotCache, cacheProperties.getServiceAuths())
+                        .withAliasesCache(dataDictionaryAliasesCache)
+                        .withRowSummaries(dataDictionaryProperties.isRowSummaries())
+                        .withScanThreads(dataDictionaryProperties.getNumThreads());
+        // @formatter:on
+        if (cacheProperties.isEnabled() && cacheProperties.isDescriptions()) {
+            builder.withDescriptionStore(metadataDescriptionStore.getObject());
+        }
+        return builder.build();
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public MetadataDescriptionStore<DefaultDescription> metadataDescriptionStore(MarkingFunctions markingFunctions,
+                    ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> responseObjectFactory,
+                    DataDictionaryProperties dataDictionaryProperties) {
+        DataDictionaryProperties.Cache cacheProperties = dataDictionaryProperties.getCache();
+        return new MetadataDescriptionStore<>(markingFunctions, responseObjectFactory, cacheProperties.getMaxStaleness(), cacheProperties.getServiceAuths());
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public DataDictionaryCache<Collection<DefaultMetadataField>> dataDictionaryFieldsCache(DataDictionaryProperties dataDictionaryProperties,
+                    ObjectProvider<MeterRegistry> meterRegistry) {
+        DataDictionaryProperties.Cache cacheProperties = dataDictionaryProperties.getCache();
+        DataDictionaryCache<Collection<DefaultMetadataField>> fieldsCache = new DataDictionaryCache<>(cacheProperties,
+                        cacheProperties.getMode() == DataDictionaryProperties.Cache.Mode.AUTHORIZATIONS);
+        meterRegistry.ifAvailable(registry -> fieldsCache.bindTo(registry, "dictionary.data.fields"));
+        return fieldsCache;
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public DataDictionaryCache<MetadataFieldSnapshot> dataDictionarySnapshotCache(DataDictionaryProperties dataDictionaryProperties,
+                    ObjectProvider<MeterRegistry> meterRegistry) {
+        DataDictionaryProperties.Cache cacheProperties = dataDictionaryProperties.getCache();
+        DataDictionaryCache<MetadataFieldSnapshot> snapshotCache = new DataDictionaryCache<>(cacheProperties,
+                        cacheProperties.getMode() == DataDictionaryProperties.Cache.Mode.VISIBILITY);
+        meterRegistry.ifAvailable(registry -> snapshotCache.bindTo(registry, "dictionary.data.snapshots"));
+        return snapshotCache;
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public DataDictionaryCache<QueryModelAliases> dataDictionaryAliasesCache(DataDictionaryProperties dataDictionaryProperties,
+                    ObjectProvider<MeterRegistry> meterRegistry) {
+        DataDictionaryCache<QueryModelAliases> aliasesCache = new DataDictionaryCache<>(dataDictionaryProperties.getCache());
+        meterRegistry.ifAvailable(registry -> aliasesCache.bindTo(registry, "dictionary.data.aliases"));
+        return aliasesCache;
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public EdgeDictionary datawaveEdgeDictionary(MetadataHelperFactory metadataHelperFactory, DataDictionaryCache<EdgeDictionarySnapshot> edgeDictionaryCache,
+                    EdgeDictionaryProperties edgeDictionaryProperties) {
+        return new EdgeDictionaryImpl(metadataHelperFactory, edgeDictionaryCache, edgeDictionaryProperties.getCache().getProbeInterval(),
+                        edgeDictionaryProperties.getNumThreads());
+    }
+    
+    @Bean
+    @ConditionalOnMissingBean
+    public DataDictionaryCache<EdgeDictionarySnapshot> edgeDictionaryCache(EdgeDictionaryProperties edgeDictionaryProperties,
+                    ObjectProvider<MeterRegistry> meterRegistry) {
+        DataDictionaryCache<EdgeDictionarySnapshot> edgeCache = new DataDictionaryCache<>(edgeDictionaryProperties.getCache());
+        meterRegistry.ifAvailable(registry -> edgeCache.bindTo(registry, "dictionary.edge"));
+        return edgeCache;
     }
     
     @Bean
     @ConditionalOnMissingBean
-    public EdgeDictionary datawaveEdgeDictionary(MetadataHelperFactory metadataHelperFactory) {
-        return new EdgeDictionaryImpl(metadataHelperFactory);
+    public ModelCatalog modelCatalog(ModelProperties modelProperties) {
+        ModelProperties.Cache cacheProperties = modelProperties.getCache();
+        return new ModelCatalog(cacheProperties.getMaxAge(), cacheProperties.getServiceAuths());
     }
     
     @Bean
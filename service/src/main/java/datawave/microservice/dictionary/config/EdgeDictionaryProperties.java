@@ -1,7 +1,12 @@
 package datawave.microservice.dictionary.config;
 
+import java.time.Duration;
+
+import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
@@ -19,4 +24,34 @@ public class EdgeDictionaryProperties {
     private String metadataTableName;
     @Positive
     private int numThreads;
+    @Valid
+    private Cache cache = new Cache();
+    
+    /**
+     * Settings for the cache of edge dictionaries, which are cached per metadata table and authorizations and reloaded when the keys of the edge metadata
+     * change.
+     */
+    @Getter
+    @Setter
+    public static class Cache implements CacheProperties {
+        private boolean enabled = true;
+        @PositiveOrZero
+        private long maximumSize = 1000;
+        /**
+         * How often cached edge dictionaries that are still in use are re-read in the background. A zero interval disables background refresh.
+         */
+        @NotNull
+        private Duration refreshInterval = Duration.ofMinutes(5);
+        /**
+         * The maximum age of a cached edge dictionary. A request will block on a fresh read rather than be served a dictionary older than this.
+         */
+        @NotNull
+        private Duration maxStaleness = Duration.ofMinutes(30);
+        /**
+         * How long a cached edge dictionary is served without scanning the keys of the edge metadata to check whether it has changed. A zero interval checks
+         * on every request.
+         */
+        @NotNull
+        private Duration probeInterval = Duration.ofSeconds(30);
+    }
 }
@@ -1,13 +1,18 @@
 package datawave.microservice.dictionary.data;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 
 import datawave.microservice.Connection;
+import datawave.microservice.metadata.FieldNameFilter;
 import datawave.webservice.dictionary.data.DescriptionBase;
 import datawave.webservice.dictionary.data.DictionaryFieldBase;
 import datawave.webservice.metadata.MetadataFieldBase;
@@ -20,12 +25,136 @@ public interface DataDictionary<META extends MetadataFieldBase<META,DESC>,DESC e
     
     Collection<META> getFields(Connection connectionConfig, Collection<String> dataTypeFilters, int numThreads) throws Exception;
     
+    /**
+     * Retrieve the fields for the specified connection whose field names, either as stored in the metadata table or as aliased by the query model, are
+     * accepted by the specified filter. Implementations should push the filter into the scan of the metadata table rather than filter the complete set of
+     * fields.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param dataTypeFilters
+     *            the set of data types to filter on
+     * @param fieldNameFilter
+     *            the filter of field names to retrieve
+     * @param numThreads
+     *            the number of threads to use when scanning the metadata table
+     * @return the fields
+     * @throws Exception
+     *             if there is any problem fetching the fields
+     */
+    default Collection<META> getFields(Connection connectionConfig, Collection<String> dataTypeFilters, FieldNameFilter fieldNameFilter, int numThreads)
+                    throws Exception {
+        Collection<META> fields = getFields(connectionConfig, dataTypeFilters, numThreads);
+        if (fields == null || fieldNameFilter.acceptsAll()) {
+            return fields;
+        }
+        return fields.stream().filter(fieldNameFilter::accepts).collect(Collectors.toList());
+    }
+    
+    /**
+     * Pass each of the fields for the specified connection to the consumer. Implementations that can read the fields incrementally should do so, so that the
+     * entire set of fields need not be held in memory at once.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param dataTypeFilters
+     *            the set of data types to filter on
+     * @param fieldNameFilter
+     *            the filter of field names to retrieve
+     * @param numThreads
+     *            the number of threads to use when scanning the metadata table
+     * @param consumer
+     *            the consumer to pass each field to
+     * @throws Exception
+     *             if there is any problem fetching the fields
+     */
+    default void streamFields(Connection connectionConfig, Collection<String> dataTypeFilters, FieldNameFilter fieldNameFilter, int numThreads,
+                    Consumer<META> consumer) throws Exception {
+        Collection<META> fields = getFields(connectionConfig, dataTypeFilters, fieldNameFilter, numThreads);
+        if (fields != null) {
+            fields.forEach(consumer);
+        }
+    }
+    
+    /**
+     * Retrieve a single page of the fields for the specified connection. Implementations that cannot page through the metadata table return every field in a
+     * single page.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param dataTypeFilters
+     *            the set of data types to filter on
+     * @param fieldNameFilter
+     *            the filter of field names to retrieve
+     * @param numThreads
+     *            the number of threads to use when scanning the metadata table
+     * @param resumeToken
+     *            the resume token of the previous page, or null to retrieve the first page
+     * @param pageSize
+     *            the number of fields to retrieve
+     * @return the page of fields
+     * @throws Exception
+     *             if there is any problem fetching the fields
+     */
+    default DataDictionaryPage<META> getFieldsPage(Connection connectionConfig, Collection<String> dataTypeFilters, FieldNameFilter fieldNameFilter,
+                    int numThreads, String resumeToken, int pageSize) throws Exception {
+        return new DataDictionaryPage<>(getFields(connectionConfig, dataTypeFilters, fieldNameFilter, numThreads), null);
+    }
+    
+    /**
+     * Retrieve the fields for the specified connection that have changed at or after the specified timestamp, or every field if the timestamp is not positive.
+     * Implementations that cannot select changed fields return every field, with the time at which they started reading them as the high-water mark.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param dataTypeFilters
+     *            the set of data types to filter on
+     * @param fieldNameFilter
+     *            the filter of field names to retrieve
+     * @param numThreads
+     *            the number of threads to use when scanning the metadata table
+     * @param since
+     *            the timestamp, in milliseconds since the epoch, from which fields are considered changed
+     * @return the changed fields, along with the high-water mark from which to request the next changes
+     * @throws Exception
+     *             if there is any problem fetching the fields
+     */
+    default DataDictionaryChanges<META> getChanges(Connection connectionConfig, Collection<String> dataTypeFilters, FieldNameFilter fieldNameFilter,
+                    int numThreads, long since) throws Exception {
+        long highWaterMark = System.currentTimeMillis();
+        return new DataDictionaryChanges<>(getFields(connectionConfig, dataTypeFilters, fieldNameFilter, numThreads), highWaterMark);
+    }
+    
     void setDescription(Connection connectionConfig, FIELD description) throws Exception;
     
     void setDescription(Connection connectionConfig, String fieldName, String datatype, DESC description) throws Exception;
     
     void setDescriptions(Connection connectionConfig, String fieldName, String datatype, Set<DESC> descriptions) throws Exception;
     
+    /**
+     * Set the descriptions of each of the specified fields. A field whose descriptions cannot be set does not prevent the descriptions of the remaining fields
+     * from being set. Implementations should write the descriptions of every field together rather than one field at a time.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param descriptions
+     *            the fields and their descriptions
+     * @return the {@literal <fieldName, dataType>} entries whose descriptions could not be set, mapped to the reason
+     * @throws Exception
+     *             if there is any problem writing the descriptions
+     */
+    default Map<Entry<String,String>,Exception> setDescriptions(Connection connectionConfig, Collection<FIELD> descriptions) throws Exception {
+        Map<Entry<String,String>,Exception> failures = new LinkedHashMap<>();
+        for (FIELD description : descriptions) {
+            try {
+                setDescription(connectionConfig, description);
+            } catch (Exception e) {
+                failures.put(Maps.immutableEntry(description.getFieldName(), description.getDatatype()), e);
+            }
+        }
+        return failures;
+    }
+    
     Multimap<Entry<String,String>,DESC> getDescriptions(Connection connectionConfig) throws Exception;
     
     Multimap<Entry<String,String>,DESC> getDescriptions(Connection connectionConfig, String datatype) throws Exception;
@@ -33,4 +162,38 @@ public interface DataDictionary<META extends MetadataFieldBase<META,DESC>,DESC e
     Set<DESC> getDescriptions(Connection connectionConfig, String fieldName, String datatype) throws Exception;
     
     void deleteDescription(Connection connectionConfig, String fieldName, String datatype, DESC description) throws Exception;
+    
+    /**
+     * Load the fields for the specified connection ahead of any request for them, and keep them loaded if this data dictionary caches its fields.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param dataTypeFilters
+     *            the set of data types to filter on
+     * @param numThreads
+     *            the number of threads to use when scanning the metadata table
+     * @throws Exception
+     *             if the fields cannot be loaded
+     */
+    default void prewarmFields(Connection connectionConfig, Collection<String> dataTypeFilters, int numThreads) throws Exception {
+        getFields(connectionConfig, dataTypeFilters, numThreads);
+    }
+    
+    /**
+     * Discard any cached state derived from the specified metadata table. Called when the metadata table is modified outside of this data dictionary.
+     *
+     * @param metadataTable
+     *            the metadata table that was modified
+     */
+    default void invalidateFields(String metadataTable) {}
+    
+    /**
+     * Discard any cached state that had the specified query model applied to it. Called when the model is modified.
+     *
+     * @param modelTable
+     *            the table that contains the model
+     * @param modelName
+     *            the name of the model that was modified
+     */
+    default void invalidateModel(String modelTable, String modelName) {}
 }
@@ -0,0 +1,433 @@
+package datawave.microservice.dictionary.data;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import org.apache.accumulo.core.security.Authorizations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import datawave.microservice.Connection;
+import datawave.microservice.dictionary.config.CacheProperties;
+import datawave.microservice.dictionary.config.DataDictionaryProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * An in-memory cache of data dictionary results. Entries are partitioned by the metadata table, query model, authorizations and data type filters of the
+ * request that produced them, so that a cached result is only ever served to a request that would have seen exactly the same entries had it scanned the
+ * metadata table itself. Entries are evicted by size and age, and may be explicitly invalidated when the metadata or model tables are modified through this
+ * service.
+ *
+ * <p>
+ *
+ * When a refresh interval is configured, entries that are still in use are periodically reloaded in the background. The previous snapshot continues to be
+ * served while its replacement is built, and is swapped out atomically once the reload completes. A request only blocks on a scan when there is no snapshot
+ * for its key, or when the snapshot is older than the configured maximum staleness.
+ *
+ * @param <V>
+ *            the type of the cached results
+ */
+public class DataDictionaryCache<V> implements AutoCloseable {
+    
+    private static final Logger log = LoggerFactory.getLogger(DataDictionaryCache.class);
+    
+    private final boolean enabled;
+    private final long refreshIntervalMillis;
+    private final Cache<CacheKey,Snapshot<V>> cache;
+    private final ScheduledExecutorService refresher;
+    private final Map<CacheKey,Callable<? extends V>> prewarmed = new ConcurrentHashMap<>();
+    private final Set<Load> loads = ConcurrentHashMap.newKeySet();
+    
+    public DataDictionaryCache(CacheProperties properties) {
+        this(properties, true);
+    }
+    
+    /**
+     * Create a cache from the specified properties, which is only enabled if both the properties and the {@code enabled} flag enable it.
+     *
+     * @param properties
+     *            the cache properties
+     * @param enabled
+     *            whether to enable the cache when the properties do
+     */
+    public DataDictionaryCache(CacheProperties properties, boolean enabled) {
+        this.enabled = properties.isEnabled() && enabled;
+        this.refreshIntervalMillis = properties.getRefreshInterval().toMillis();
+        // @formatter:off
+        this.cache = CacheBuilder.newBuilder()
+                        .maximumSize(properties.getMaximumSize())
+                        .expireAfterWrite(properties.getMaxStaleness().toMillis(), TimeUnit.MILLISECONDS)
+                        .recordStats()
+                        .build();
+        // @formatter:on
+        
+        if (this.enabled && refreshIntervalMillis > 0) {
+            refresher = Executors.newSingleThreadScheduledExecutor(
+                            new ThreadFactoryBuilder().setNameFormat("dictionary-cache-refresh-%d").setDaemon(true).build());
+            // check more often than the refresh interval so that no snapshot ages much past it before being reloaded
+            long checkIntervalMillis = Math.max(Duration.ofMillis(100).toMillis(), refreshIntervalMillis / 4);
+            refresher.scheduleWithFixedDelay(this::refreshSnapshots, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            refresher = null;
+        }
+    }
+    
+    /**
+     * Return a cache that never retains any results, and so never starts a background refresh.
+     *
+     * @param <V>
+     *            the type of the results
+     * @return a disabled cache
+     */
+    public static <V> DataDictionaryCache<V> disabled() {
+        DataDictionaryProperties.Cache properties = new DataDictionaryProperties.Cache();
+        properties.setEnabled(false);
+        properties.setMaximumSize(0);
+        properties.setRefreshInterval(Duration.ZERO);
+        return new DataDictionaryCache<>(properties);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Return the cached value for the specified key, calling the loader to compute and cache it if it is not present. Concurrent requests for the same key
+     * will wait on a single load rather than each scanning the metadata table. The loader is retained with the snapshot so that it may be reloaded in the
+     * background.
+     *
+     * <p>
+     *
+     * If the key is invalidated while its value is being loaded, the loaded value may predate the modification that invalidated it. It is returned to the
+     * request that loaded it, which began before the invalidation, but is not kept, and requests that were waiting on the load load the value again.
+     *
+     * @param key
+     *            the cache key
+     * @param loader
+     *            the loader used to compute the value on a cache miss
+     * @return the cached or newly loaded value
+     * @throws Exception
+     *             if the loader fails
+     */
+    public V get(CacheKey key, Callable<? extends V> loader) throws Exception {
+        if (!enabled) {
+            return loader.call();
+        }
+        try {
+            while (true) {
+                Load load = new Load(key);
+                loads.add(load);
+                AtomicBoolean loaded = new AtomicBoolean();
+                Snapshot<V> snapshot;
+                try {
+                    snapshot = cache.get(key, () -> {
+                        loaded.set(true);
+                        return new Snapshot<>(loader, load);
+                    });
+                } finally {
+                    loads.remove(load);
+                }
+                if (snapshot.isInvalidated()) {
+                    cache.asMap().remove(key, snapshot);
+                    if (!loaded.get()) {
+                        continue;
+                    }
+                } else if (!loaded.get()) {
+                    snapshot.requested = true;
+                }
+                return snapshot.value;
+            }
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Return the cached value for the specified key without loading it.
+     *
+     * @param key
+     *            the cache key
+     * @return the cached value, or null if there is none
+     */
+    public V getIfPresent(CacheKey key) {
+        if (!enabled) {
+            return null;
+        }
+        Snapshot<V> snapshot = cache.getIfPresent(key);
+        if (snapshot == null) {
+            return null;
+        } else if (snapshot.isInvalidated()) {
+            cache.asMap().remove(key, snapshot);
+            return null;
+        }
+        snapshot.requested = true;
+        return snapshot.value;
+    }
+    
+    /**
+     * Load the value for the specified key in the background. The key is kept warm for as long as this cache is open: its snapshot is refreshed whether or not
+     * it is requested, and is reloaded in the background if it is invalidated or evicted.
+     *
+     * @param key
+     *            the cache key
+     * @param loader
+     *            the loader used to compute the value
+     */
+    public void prewarm(CacheKey key, Callable<? extends V> loader) {
+        if (!enabled) {
+            return;
+        }
+        prewarmed.put(key, loader);
+        if (refresher != null) {
+            refresher.execute(() -> load(key, loader));
+        } else {
+            load(key, loader);
+        }
+    }
+    
+    // Reload every snapshot that is older than the refresh interval and has either been requested since it was loaded or is pre-warmed. Pre-warmed keys
+    // that are no longer in the cache are loaded again.
+    private void refreshSnapshots() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<CacheKey,Snapshot<V>> entry : cache.asMap().entrySet()) {
+            CacheKey key = entry.getKey();
+            Snapshot<V> snapshot = entry.getValue();
+            if (now - snapshot.loadedMillis < refreshIntervalMillis || !(prewarmed.containsKey(key) || snapshot.requested)) {
+                continue;
+            }
+            try {
+                Snapshot<V> refreshed = new Snapshot<>(snapshot.loader, null);
+                // only swap if the entry was not invalidated or reloaded while we were scanning
+                if (cache.asMap().replace(key, snapshot, refreshed)) {
+                    log.debug("Refreshed data dictionary cache entry {} in {}ms", key, refreshed.loadedMillis - now);
+                }
+            } catch (Exception e) {
+                log.warn("Unable to refresh data dictionary cache entry " + key + ", continuing to serve the previous snapshot", e);
+            }
+        }
+        prewarmed.forEach((key, loader) -> {
+            if (!cache.asMap().containsKey(key)) {
+                load(key, loader);
+            }
+        });
+    }
+    
+    private void load(CacheKey key, Callable<? extends V> loader) {
+        Load load = new Load(key);
+        loads.add(load);
+        try {
+            Snapshot<V> snapshot = new Snapshot<>(loader, load);
+            cache.put(key, snapshot);
+            if (snapshot.isInvalidated()) {
+                cache.asMap().remove(key, snapshot);
+            }
+            log.debug("Loaded data dictionary cache entry {}", key);
+        } catch (Exception e) {
+            log.warn("Unable to load data dictionary cache entry " + key, e);
+        } finally {
+            loads.remove(load);
+        }
+    }
+    
+    /**
+     * Discard the cached result for the specified key.
+     *
+     * @param key
+     *            the cache key
+     */
+    public void invalidate(CacheKey key) {
+        invalidateLoads(key::equals);
+        cache.invalidate(key);
+    }
+    
+    /**
+     * Discard all cached results that were read from the specified metadata table.
+     *
+     * @param metadataTable
+     *            the metadata table
+     */
+    public void invalidateMetadataTable(String metadataTable) {
+        log.debug("Invalidating cached data dictionary entries for metadata table {}", metadataTable);
+        Predicate<CacheKey> predicate = key -> key.getMetadataTable().equals(metadataTable);
+        invalidateLoads(predicate);
+        cache.asMap().keySet().removeIf(predicate);
+    }
+    
+    /**
+     * Discard all cached results that had the specified query model applied to them.
+     *
+     * @param modelTable
+     *            the model table
+     * @param modelName
+     *            the model name
+     */
+    public void invalidateModel(String modelTable, String modelName) {
+        log.debug("Invalidating cached data dictionary entries for model {} in table {}", modelName, modelTable);
+        Predicate<CacheKey> predicate = key -> key.getModelTable().equals(modelTable) && key.getModelName().equals(modelName);
+        invalidateLoads(predicate);
+        cache.asMap().keySet().removeIf(predicate);
+    }
+    
+    /**
+     * Discard all cached results.
+     */
+    public void invalidateAll() {
+        invalidateLoads(key -> true);
+        cache.invalidateAll();
+    }
+    
+    // Mark the loads in progress for the matching keys as invalidated, so that the values they load are not kept. Guava does not cancel a load in progress
+    // when its key is invalidated, and would otherwise keep the value it loads from before the modification.
+    private void invalidateLoads(Predicate<CacheKey> predicate) {
+        for (Load load : loads) {
+            if (predicate.test(load.key)) {
+                load.invalidated = true;
+            }
+        }
+    }
+    
+    public long size() {
+        return cache.size();
+    }
+    
+    public CacheStats stats() {
+        return cache.stats();
+    }
+    
+    /**
+     * Register the size, hit, miss and eviction metrics of this cache with the specified registry.
+     *
+     * @param registry
+     *            the meter registry
+     * @param cacheName
+     *            the name to tag the cache metrics with
+     */
+    public void bindTo(MeterRegistry registry, String cacheName) {
+        GuavaCacheMetrics.monitor(registry, cache, cacheName);
+    }
+    
+    @Override
+    public void close() {
+        prewarmed.clear();
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+    
+    /**
+     * An immutable, loaded value along with the loader that produced it.
+     */
+    private static class Snapshot<V> {
+        private final V value;
+        private final Callable<? extends V> loader;
+        private final Load load;
+        private final long loadedMillis;
+        // whether the snapshot has been served to a request other than the one that loaded it
+        private volatile boolean requested;
+        
+        private Snapshot(Callable<? extends V> loader, Load load) throws Exception {
+            this.value = loader.call();
+            this.loader = loader;
+            this.load = load;
+            this.loadedMillis = System.currentTimeMillis();
+        }
+        
+        // whether the key was invalidated while this snapshot was being loaded
+        private boolean isInvalidated() {
+            return load != null && load.invalidated;
+        }
+    }
+    
+    /**
+     * A load in progress, which is marked if its key is invalidated before the load completes.
+     */
+    private static class Load {
+        private final CacheKey key;
+        private volatile boolean invalidated;
+        
+        private Load(CacheKey key) {
+            this.key = key;
+        }
+    }
+    
+    /**
+     * The key for a cached data dictionary result. Authorizations and data type filters are normalized so that requests which differ only in the ordering of
+     * those values share an entry.
+     */
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static class CacheKey {
+        private final String metadataTable;
+        private final String modelTable;
+        private final String modelName;
+        private final Set<Authorizations> auths;
+        private final Set<String> dataTypeFilters;
+        
+        public CacheKey(String metadataTable, String modelTable, String modelName, Set<Authorizations> auths, Collection<String> dataTypeFilters) {
+            this.metadataTable = String.valueOf(metadataTable);
+            this.modelTable = String.valueOf(modelTable);
+            this.modelName = String.valueOf(modelName);
+            this.auths = auths == null ? ImmutableSet.of() : ImmutableSet.copyOf(auths);
+            this.dataTypeFilters = dataTypeFilters == null ? ImmutableSortedSet.of() : ImmutableSortedSet.copyOf(dataTypeFilters);
+        }
+        
+        /**
+         * Return the key for results that depend only on the metadata table.
+         *
+         * @param metadataTable
+         *            the metadata table
+         * @return the cache key
+         */
+        public static CacheKey of(String metadataTable) {
+            return new CacheKey(metadataTable, null, null, null, null);
+        }
+        
+        /**
+         * Return the key for results that depend only on the metadata table and authorizations.
+         *
+         * @param metadataTable
+         *            the metadata table
+         * @param auths
+         *            the authorizations
+         * @return the cache key
+         */
+        public static CacheKey of(String metadataTable, Set<Authorizations> auths) {
+            return new CacheKey(metadataTable, null, null, auths, null);
+        }
+        
+        public static CacheKey of(Connection connectionConfig, Collection<String> dataTypeFilters) {
+            return new CacheKey(connectionConfig.getMetadataTable(), connectionConfig.getModelTable(), connectionConfig.getModelName(),
+                            connectionConfig.getAuths(), dataTypeFilters);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package datawave.microservice.dictionary.data;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.accumulo.core.security.Authorizations;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import datawave.microservice.AccumuloConnectionService;
+import datawave.microservice.Connection;
+import datawave.microservice.dictionary.config.DataDictionaryProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the configured metadata tables into the data dictionary cache once the service is ready, so that the first requests for them do not block on a full
+ * scan of the metadata table.
+ */
+@Slf4j
+@Component
+public class DataDictionaryCacheWarmer {
+    
+    private final DataDictionaryProperties dataDictionaryProperties;
+    private final DataDictionary<?,?,?> dataDictionary;
+    private final AccumuloConnectionService accumuloConnectionService;
+    
+    public DataDictionaryCacheWarmer(DataDictionaryProperties dataDictionaryProperties, DataDictionary<?,?,?> dataDictionary,
+                    AccumuloConnectionService accumuloConnectionService) {
+        this.dataDictionaryProperties = dataDictionaryProperties;
+        this.dataDictionary = dataDictionary;
+        this.accumuloConnectionService = accumuloConnectionService;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        DataDictionaryProperties.Cache cacheProperties = dataDictionaryProperties.getCache();
+        if (!cacheProperties.isEnabled() || cacheProperties.getPrewarmTables().isEmpty()) {
+            return;
+        }
+        
+        Set<Authorizations> auths = cacheProperties.getPrewarmAuths().stream().map(a -> new Authorizations(a.split(","))).collect(Collectors.toSet());
+        for (String metadataTable : cacheProperties.getPrewarmTables()) {
+            Connection connection = accumuloConnectionService.getConnection();
+            connection.setMetadataTable(metadataTable);
+            connection.setModelTable(dataDictionaryProperties.getModelTableName());
+            connection.setModelName(dataDictionaryProperties.getModelName());
+            connection.setAuths(auths);
+            try {
+                dataDictionary.prewarmFields(connection, Collections.emptyList(), dataDictionaryProperties.getNumThreads());
+            } catch (Exception e) {
+                log.warn("Unable to pre-warm the data dictionary for metadata table " + metadataTable, e);
+            }
+        }
+    }
+}
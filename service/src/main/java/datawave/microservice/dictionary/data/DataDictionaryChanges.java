@@ -0,0 +1,34 @@
+package datawave.microservice.dictionary.data;
+
+import java.util.Collection;
+
+/**
+ * The data dictionary fields that changed since a point in time, along with the high-water mark from which to request the next changes.
+ *
+ * @param <META>
+ *            the type of the metadata fields
+ */
+public class DataDictionaryChanges<META> {
+    
+    private final Collection<META> fields;
+    private final long highWaterMark;
+    
+    public DataDictionaryChanges(Collection<META> fields, long highWaterMark) {
+        this.fields = fields;
+        this.highWaterMark = highWaterMark;
+    }
+    
+    public Collection<META> getFields() {
+        return fields;
+    }
+    
+    /**
+     * Return the timestamp to pass back to retrieve the fields that change after these changes. Fields that changed at exactly this timestamp may be retrieved
+     * again.
+     *
+     * @return the high-water mark, in milliseconds since the epoch
+     */
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+}
@@ -1,25 +1,42 @@
 package datawave.microservice.dictionary.data;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
+import org.apache.accumulo.core.client.AccumuloClient;
 import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.commons.lang.StringUtils;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.SetMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import datawave.marking.MarkingFunctions;
 import datawave.microservice.Connection;
 import datawave.microservice.dictionary.config.ResponseObjectFactory;
 import datawave.microservice.metadata.DefaultMetadataFieldScanner;
+import datawave.microservice.metadata.FieldNameFilter;
+import datawave.microservice.metadata.MetadataDescriptionStore;
 import datawave.microservice.metadata.MetadataDescriptionsHelper;
 import datawave.microservice.metadata.MetadataDescriptionsHelperFactory;
+import datawave.microservice.metadata.MetadataFieldSnapshot;
 import datawave.query.model.QueryModel;
 import datawave.query.util.MetadataEntry;
 import datawave.query.util.MetadataHelper;
@@ -30,21 +47,41 @@ import datawave.webservice.dictionary.data.DefaultDictionaryField;
 import datawave.webservice.dictionary.data.DefaultFields;
 import datawave.webservice.metadata.DefaultMetadataField;
 
-public class DataDictionaryImpl implements DataDictionary<DefaultMetadataField,DefaultDescription,DefaultDictionaryField> {
+public class DataDictionaryImpl implements DataDictionary<DefaultMetadataField,DefaultDescription,DefaultDictionaryField>,
+                AutoCloseable {
     
     private final MarkingFunctions markingFunctions;
     private final ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> responseObjectFactory;
     private final MetadataHelperFactory metadataHelperFactory;
     private final MetadataDescriptionsHelperFactory<DefaultDescription> metadataDescriptionsHelperFactory;
+    private final DataDictionaryCache<Collection<DefaultMetadataField>> fieldsCache;
+    private final DataDictionaryCache<MetadataFieldSnapshot> snapshotCache;
+    private final DataDictionaryCache<QueryModelAliases> aliasesCache;
+    private final String serviceAuths;
+    private final boolean rowSummaries;
+    private final MetadataDescriptionStore<DefaultDescription> descriptionStore;
+    private final ExecutorService scanExecutor;
     private Map<String,String> normalizationMap = Maps.newHashMap();
     
     public DataDictionaryImpl(MarkingFunctions markingFunctions,
                     ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> responseObjectFactory,
                     MetadataHelperFactory metadataHelperFactory, MetadataDescriptionsHelperFactory<DefaultDescription> metadataDescriptionsHelperFactory) {
-        this.markingFunctions = markingFunctions;
-        this.responseObjectFactory = responseObjectFactory;
-        this.metadataHelperFactory = metadataHelperFactory;
-        this.metadataDescriptionsHelperFactory = metadataDescriptionsHelperFactory;
+        this(new Builder(markingFunctions, responseObjectFactory, metadataHelperFactory, metadataDescriptionsHelperFactory));
+    }
+    
+    private DataDictionaryImpl(Builder builder) {
+        this.markingFunctions = builder.markingFunctions;
+        this.responseObjectFactory = builder.responseObjectFactory;
+        this.metadataHelperFactory = builder.metadataHelperFactory;
+        this.metadataDescriptionsHelperFactory = builder.metadataDescriptionsHelperFactory;
+        this.fieldsCache = builder.fieldsCache != null ? builder.fieldsCache : DataDictionaryCache.disabled();
+        this.snapshotCache = builder.snapshotCache != null ? builder.snapshotCache : DataDictionaryCache.disabled();
+        this.aliasesCache = builder.aliasesCache != null ? builder.aliasesCache : DataDictionaryCache.disabled();
+        this.serviceAuths = builder.serviceAuths;
+        this.rowSummaries = builder.rowSummaries;
+        this.descriptionStore = builder.descriptionStore;
+        this.scanExecutor = builder.scanThreads > 1 ? Executors.newFixedThreadPool(builder.scanThreads,
+                        new ThreadFactoryBuilder().setNameFormat("metadata-scan-%d").setDaemon(true).build()) : null;
     }
     
     @Override
@@ -55,6 +92,24 @@ public class DataDictionaryImpl implements DataDictionary<DefaultMetadataField,D
     @Override
     public void setNormalizationMap(Map<String,String> normalizationMap) {
         this.normalizationMap = normalizationMap;
+        // cached fields were typed using the previous normalization map
+        fieldsCache.invalidateAll();
+        snapshotCache.invalidateAll();
+    }
+    
+    public boolean isRowSummaries() {
+        return rowSummaries;
+    }
+    
+    public MetadataDescriptionStore<DefaultDescription> getDescriptionStore() {
+        return descriptionStore;
+    }
+    
+    @Override
+    public void close() {
+        if (scanExecutor != null) {
+            scanExecutor.shutdownNow();
+        }
     }
     
     /**
@@ -65,6 +120,13 @@ public class DataDictionaryImpl implements DataDictionary<DefaultMetadataField,D
      * If no data types are specified, then all metadata fields are returned. Otherwise, only metadata fields with one of the specified data types will be
      * returned.
      *
+     * <p>
+     *
+     * Results are cached per metadata table, query model, authorizations and data type filters until they expire or are invalidated by a modification made
+     * through this data dictionary. Cached results are immutable, and may be refreshed in the background while the previous results continue to be served.
+     * Since they are shared between requests, the internal field name of each field without an alias is set to its field name when it is loaded, rather than
+     * by each request.
+     *
      * @param connectionConfig
      *            the connection configuration to use when connecting to accumulo
      * @param dataTypeFilters
@@ -75,10 +137,195 @@ public class DataDictionaryImpl implements DataDictionary<DefaultMetadataField,D
      */
     @Override
     public Collection<DefaultMetadataField> getFields(Connection connectionConfig, Collection<String> dataTypeFilters, int numThreads) throws Exception {
+        if (snapshotCache.isEnabled()) {
+            MetadataFieldSnapshot snapshot = snapshotCache.get(DataDictionaryCache.CacheKey.of(connectionConfig.getMetadataTable()),
+                            () -> scanSnapshot(connectionConfig, numThreads));
+            return snapshot.getFields(connectionConfig.getAuths(), getAliases(connectionConfig), dataTypeFilters);
+        }
+        DataDictionaryCache.CacheKey key = DataDictionaryCache.CacheKey.of(connectionConfig, dataTypeFilters);
+        return fieldsCache.get(key, () -> scanFields(connectionConfig, dataTypeFilters, numThreads));
+    }
+    
+    /**
+     * Retrieve the metadata fields from the specified metadata table whose field names are accepted by the specified filter.
+     *
+     * <p>
+     *
+     * If the fields are already cached, the cached fields are filtered. Otherwise, only the rows accepted by the filter are scanned, and the result is not
+     * cached.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param dataTypeFilters
+     *            the set of data types to filter on
+     * @param fieldNameFilter
+     *            the filter of field names to retrieve
+     * @param numThreads
+     *            the number of threads to use when scanning the metadata table
+     * @return a collection of metadata fields
+     */
+    @Override
+    public Collection<DefaultMetadataField> getFields(Connection connectionConfig, Collection<String> dataTypeFilters, FieldNameFilter fieldNameFilter,
+                    int numThreads) throws Exception {
+        if (fieldNameFilter.acceptsAll()) {
+            return getFields(connectionConfig, dataTypeFilters, numThreads);
+        }
+        List<DefaultMetadataField> fields = new ArrayList<>();
+        streamFields(connectionConfig, dataTypeFilters, fieldNameFilter, numThreads, fields::add);
+        return fields;
+    }
+    
+    /**
+     * Pass each of the metadata fields from the specified metadata table to the consumer as soon as it has been read.
+     *
+     * <p>
+     *
+     * Fields are served from the cache when they are already cached. Otherwise, the metadata table is scanned and each field is passed to the consumer as soon
+     * as its row has been transformed, without populating the cache, so that the entire set of fields is never held in memory at once.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param dataTypeFilters
+     *            the set of data types to filter on
+     * @param fieldNameFilter
+     *            the filter of field names to retrieve
+     * @param numThreads
+     *            the number of threads to use when scanning the metadata table
+     * @param consumer
+     *            the consumer to pass each field to
+     */
+    @Override
+    public void streamFields(Connection connectionConfig, Collection<String> dataTypeFilters, FieldNameFilter fieldNameFilter, int numThreads,
+                    Consumer<DefaultMetadataField> consumer) throws Exception {
+        if (snapshotCache.isEnabled()) {
+            MetadataFieldSnapshot snapshot = snapshotCache.get(DataDictionaryCache.CacheKey.of(connectionConfig.getMetadataTable()),
+                            () -> scanSnapshot(connectionConfig, numThreads));
+            Map<String,String> aliases = getAliases(connectionConfig);
+            snapshot.forEachField(connectionConfig.getAuths(), aliases, dataTypeFilters, fieldNameFilter.withAliases(aliases), consumer);
+            return;
+        }
+        Collection<DefaultMetadataField> cached = fieldsCache.getIfPresent(DataDictionaryCache.CacheKey.of(connectionConfig, dataTypeFilters));
+        if (cached != null) {
+            cached.stream().filter(fieldNameFilter::accepts).forEach(consumer);
+            return;
+        }
+        Map<String,String> aliases = getAliases(connectionConfig);
+        DefaultMetadataFieldScanner scanner = createScanner(connectionConfig, numThreads, fieldNameFilter.withAliases(aliases));
+        scanner.streamFields(aliases, dataTypeFilters, consumer);
+    }
+    
+    /**
+     * Retrieve a single page of metadata fields from the specified metadata table, in field name order. Only the rows of the requested page are scanned, and
+     * pages are never served from the cache. The resume token encodes the last field name of the page, and the next page starts at the field name after it.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param dataTypeFilters
+     *            the set of data types to filter on
+     * @param fieldNameFilter
+     *            the filter of field names to retrieve
+     * @param numThreads
+     *            the number of threads to use when scanning the metadata table
+     * @param resumeToken
+     *            the resume token of the previous page, or null to retrieve the first page
+     * @param pageSize
+     *            the number of fields to retrieve
+     * @return the page of fields
+     */
+    @Override
+    public DataDictionaryPage<DefaultMetadataField> getFieldsPage(Connection connectionConfig, Collection<String> dataTypeFilters,
+                    FieldNameFilter fieldNameFilter, int numThreads, String resumeToken, int pageSize) throws Exception {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size " + pageSize);
+        }
+        String startAfterRow = null;
+        if (StringUtils.isNotBlank(resumeToken)) {
+            try {
+                startAfterRow = new String(Base64.getUrlDecoder().decode(resumeToken), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid resume token " + resumeToken, e);
+            }
+        }
+        
+        Map<String,String> aliases = getAliases(connectionConfig);
+        DefaultMetadataFieldScanner scanner = createScanner(connectionConfig, numThreads, fieldNameFilter.withAliases(aliases));
+        List<DefaultMetadataField> fields = new ArrayList<>();
+        String lastRow = scanner.streamFieldsPage(aliases, dataTypeFilters, startAfterRow, pageSize, fields::add);
+        String nextToken = lastRow == null ? null : Base64.getUrlEncoder().withoutPadding().encodeToString(lastRow.getBytes(StandardCharsets.UTF_8));
+        return new DataDictionaryPage<>(fields, nextToken);
+    }
+    
+    /**
+     * Retrieve the metadata fields from the specified metadata table with an entry written at or after the specified timestamp, or every field if the
+     * timestamp is not positive. Changes are always scanned from the metadata table, and never served from the cache, so that they are current.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param dataTypeFilters
+     *            the set of data types to filter on
+     * @param fieldNameFilter
+     *            the filter of field names to retrieve
+     * @param numThreads
+     *            the number of threads to use when scanning the metadata table
+     * @param since
+     *            the timestamp, in milliseconds since the epoch, from which fields are considered changed
+     * @return the changed fields, along with the high-water mark from which to request the next changes
+     */
+    @Override
+    public DataDictionaryChanges<DefaultMetadataField> getChanges(Connection connectionConfig, Collection<String> dataTypeFilters,
+                    FieldNameFilter fieldNameFilter, int numThreads, long since) throws Exception {
+        Map<String,String> aliases = getAliases(connectionConfig);
+        DefaultMetadataFieldScanner scanner = createScanner(connectionConfig, numThreads, fieldNameFilter.withAliases(aliases));
+        List<DefaultMetadataField> fields = new ArrayList<>();
+        long highWaterMark = scanner.streamChanges(aliases, dataTypeFilters, since, fields::add);
+        return new DataDictionaryChanges<>(fields, highWaterMark);
+    }
+    
+    @Override
+    public void prewarmFields(Connection connectionConfig, Collection<String> dataTypeFilters, int numThreads) {
+        if (snapshotCache.isEnabled()) {
+            snapshotCache.prewarm(DataDictionaryCache.CacheKey.of(connectionConfig.getMetadataTable()), () -> scanSnapshot(connectionConfig, numThreads));
+            return;
+        }
+        DataDictionaryCache.CacheKey key = DataDictionaryCache.CacheKey.of(connectionConfig, dataTypeFilters);
+        fieldsCache.prewarm(key, () -> scanFields(connectionConfig, dataTypeFilters, numThreads));
+    }
+    
+    // Scan the metadata table for the metadata fields, bypassing the cache.
+    private Collection<DefaultMetadataField> scanFields(Connection connectionConfig, Collection<String> dataTypeFilters, int numThreads) throws Exception {
         Map<String,String> aliases = getAliases(connectionConfig);
+        DefaultMetadataFieldScanner scanner = createScanner(connectionConfig, numThreads, FieldNameFilter.all());
+        Collection<DefaultMetadataField> fields = scanner.getFields(aliases, dataTypeFilters);
+        // The fields are shared by every request served from the cache, so they must be complete before they are cached.
+        for (DefaultMetadataField field : fields) {
+            if (StringUtils.isEmpty(field.getInternalFieldName())) {
+                field.setInternalFieldName(field.getFieldName());
+            }
+        }
+        return Collections.unmodifiableCollection(fields);
+    }
+    
+    // Create a scanner of the metadata fields accepted by the specified filter, which must already be resolved against the aliases of the query model.
+    private DefaultMetadataFieldScanner createScanner(Connection connectionConfig, int numThreads, FieldNameFilter fieldNameFilter) {
         DefaultMetadataFieldScanner scanner = new DefaultMetadataFieldScanner(markingFunctions, responseObjectFactory, normalizationMap, connectionConfig,
+                        numThreads, fieldNameFilter);
+        scanner.setRowSummaries(rowSummaries);
+        scanner.setExecutor(scanExecutor);
+        return scanner;
+    }
+    
+    // Scan a snapshot of the entire metadata table with the service authorizations, bypassing the cache.
+    private MetadataFieldSnapshot scanSnapshot(Connection connectionConfig, int numThreads) throws Exception {
+        AccumuloClient client = connectionConfig.getAccumuloClient();
+        Authorizations auths = StringUtils.isBlank(serviceAuths) ? client.securityOperations().getUserAuthorizations(client.whoami())
+                        : new Authorizations(StringUtils.split(serviceAuths, ','));
+        Connection snapshotConfig = new Connection();
+        snapshotConfig.setAccumuloClient(client);
+        snapshotConfig.setMetadataTable(connectionConfig.getMetadataTable());
+        snapshotConfig.setAuths(Collections.singleton(auths));
+        DefaultMetadataFieldScanner scanner = new DefaultMetadataFieldScanner(markingFunctions, responseObjectFactory, normalizationMap, snapshotConfig,
                         numThreads);
-        return scanner.getFields(aliases, dataTypeFilters);
+        return scanner.getSnapshot();
     }
     
     /**
@@ -146,7 +393,75 @@ public class DataDictionaryImpl implements DataDictionary<DefaultMetadataField,D
         // TODO The query model is effectively busted because it doesn't uniquely reference field+datatype
         MetadataEntry mentry = new MetadataEntry(fieldName, datatype);
         MetadataDescriptionsHelper<DefaultDescription> helper = getInitializedDescriptionsHelper(connectionConfig);
-        helper.setDescriptions(mentry, descriptions);
+        try {
+            helper.setDescriptions(mentry, descriptions);
+            if (descriptionStore != null) {
+                descriptionStore.putDescriptions(connectionConfig.getMetadataTable(), mentry, descriptions);
+            }
+        } catch (Exception e) {
+            // some descriptions may have been written even though the write failed
+            invalidateDescriptions(connectionConfig.getMetadataTable());
+            throw e;
+        } finally {
+            invalidateFields(connectionConfig.getMetadataTable());
+        }
+    }
+    
+    /**
+     * Set the descriptions of each of the specified fields in the metadata table.
+     *
+     * <p>
+     *
+     * The query model is read once for the entire upload, and if an alias exists for a field name, that alias will be used when adding its descriptions. The
+     * descriptions are written through a single batch writer, with one mutation per field name. A field with a blank field name or data type, or whose
+     * markings cannot be translated to a column visibility, is not written and is returned as a failure, while the remaining fields are still written.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param fields
+     *            the fields and their descriptions
+     * @return the {@literal <fieldName, dataType>} entries whose descriptions could not be set, mapped to the reason
+     */
+    @Override
+    public Map<Entry<String,String>,Exception> setDescriptions(Connection connectionConfig, Collection<DefaultDictionaryField> fields) throws Exception {
+        QueryModelAliases aliases = getQueryModelAliases(connectionConfig);
+        Map<Entry<String,String>,Exception> failures = new LinkedHashMap<>();
+        // the requested field name of each entry, so that failures are reported as requested rather than aliased
+        Map<MetadataEntry,String> requested = new HashMap<>();
+        SetMultimap<MetadataEntry,DefaultDescription> descriptions = LinkedHashMultimap.create();
+        for (DefaultDictionaryField field : fields) {
+            if (StringUtils.isBlank(field.getFieldName()) || StringUtils.isBlank(field.getDatatype())) {
+                failures.put(Maps.immutableEntry(field.getFieldName(), field.getDatatype()),
+                                new IllegalArgumentException("A field name and data type are required to set descriptions"));
+                continue;
+            }
+            String alias = aliases.getFieldName(field.getFieldName());
+            MetadataEntry mentry = new MetadataEntry(alias != null ? alias : field.getFieldName(), field.getDatatype());
+            requested.putIfAbsent(mentry, field.getFieldName());
+            if (field.getDescriptions() != null) {
+                descriptions.putAll(mentry, field.getDescriptions());
+            }
+        }
+        
+        MetadataDescriptionsHelper<DefaultDescription> helper = getInitializedDescriptionsHelper(connectionConfig);
+        try {
+            Map<MetadataEntry,MarkingFunctions.Exception> rejected = helper.writeDescriptions(descriptions);
+            rejected.forEach((mentry, e) -> failures.put(Maps.immutableEntry(requested.get(mentry), mentry.getDatatype()), e));
+            if (descriptionStore != null) {
+                for (MetadataEntry mentry : descriptions.keySet()) {
+                    if (!rejected.containsKey(mentry)) {
+                        descriptionStore.putDescriptions(connectionConfig.getMetadataTable(), mentry, descriptions.get(mentry));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // some descriptions may have been written even though the write failed
+            invalidateDescriptions(connectionConfig.getMetadataTable());
+            throw e;
+        } finally {
+            invalidateFields(connectionConfig.getMetadataTable());
+        }
+        return failures;
     }
     
     /**
@@ -162,6 +477,9 @@ public class DataDictionaryImpl implements DataDictionary<DefaultMetadataField,D
      */
     @Override
     public Multimap<Entry<String,String>,DefaultDescription> getDescriptions(Connection connectionConfig) throws Exception {
+        if (descriptionStore != null) {
+            return transformKeys(descriptionStore.getDescriptions(connectionConfig, null), connectionConfig);
+        }
         MetadataDescriptionsHelper<DefaultDescription> descriptionsHelper = getInitializedDescriptionsHelper(connectionConfig);
         Multimap<MetadataEntry,DefaultDescription> descriptions = descriptionsHelper.getDescriptions((Set<String>) null);
         return transformKeys(descriptions, connectionConfig);
@@ -182,6 +500,9 @@ public class DataDictionaryImpl implements DataDictionary<DefaultMetadataField,D
      */
     @Override
     public Multimap<Entry<String,String>,DefaultDescription> getDescriptions(Connection connectionConfig, String datatype) throws Exception {
+        if (descriptionStore != null) {
+            return transformKeys(descriptionStore.getDescriptions(connectionConfig, Collections.singleton(datatype)), connectionConfig);
+        }
         MetadataDescriptionsHelper<DefaultDescription> helper = getInitializedDescriptionsHelper(connectionConfig);
         Multimap<MetadataEntry,DefaultDescription> descriptions = helper.getDescriptions(datatype);
         return transformKeys(descriptions, connectionConfig);
@@ -205,8 +526,14 @@ public class DataDictionaryImpl implements DataDictionary<DefaultMetadataField,D
     @Override
     public Set<DefaultDescription> getDescriptions(Connection connectionConfig, String fieldName, String datatype) throws Exception {
         String alias = getAlias(fieldName, connectionConfig);
+        if (alias != null) {
+            fieldName = alias;
+        }
+        if (descriptionStore != null) {
+            return descriptionStore.getDescriptions(connectionConfig, fieldName, datatype);
+        }
         MetadataDescriptionsHelper<DefaultDescription> helper = getInitializedDescriptionsHelper(connectionConfig);
-        return alias == null ? helper.getDescriptions(fieldName, datatype) : helper.getDescriptions(alias, datatype);
+        return helper.getDescriptions(fieldName, datatype);
     }
     
     /**
@@ -232,13 +559,43 @@ public class DataDictionaryImpl implements DataDictionary<DefaultMetadataField,D
             fieldName = alias;
         }
         MetadataDescriptionsHelper<DefaultDescription> descriptionsHelper = getInitializedDescriptionsHelper(connectionConfig);
-        descriptionsHelper.removeDescription(new MetadataEntry(fieldName, datatype), description);
+        MetadataEntry mentry = new MetadataEntry(fieldName, datatype);
+        try {
+            descriptionsHelper.removeDescription(mentry, description);
+            if (descriptionStore != null) {
+                descriptionStore.removeDescription(connectionConfig.getMetadataTable(), mentry, description);
+            }
+        } catch (Exception e) {
+            invalidateDescriptions(connectionConfig.getMetadataTable());
+            throw e;
+        } finally {
+            invalidateFields(connectionConfig.getMetadataTable());
+        }
+    }
+    
+    @Override
+    public void invalidateFields(String metadataTable) {
+        fieldsCache.invalidateMetadataTable(metadataTable);
+        snapshotCache.invalidateMetadataTable(metadataTable);
+    }
+    
+    // Discard the stored descriptions of the specified metadata table, if descriptions are stored.
+    private void invalidateDescriptions(String metadataTable) {
+        if (descriptionStore != null) {
+            descriptionStore.invalidate(metadataTable);
+        }
+    }
+    
+    @Override
+    public void invalidateModel(String modelTable, String modelName) {
+        fieldsCache.invalidateModel(modelTable, modelName);
+        aliasesCache.invalidateModel(modelTable, modelName);
     }
     
     // Transform the MetadataEntry key of the specified map into <fieldName,dataType> entries.
     // If an alias exists for a field name, that alias will be returned instead of the field name.
     private Multimap<Entry<String,String>,DefaultDescription> transformKeys(Multimap<MetadataEntry,DefaultDescription> descriptions,
-                    Connection connectionConfig) throws ExecutionException, TableNotFoundException {
+                    Connection connectionConfig) throws Exception {
         Map<String,String> aliases = getAliases(connectionConfig);
         Multimap<Entry<String,String>,DefaultDescription> transformedDescriptions = HashMultimap.create();
         for (Entry<MetadataEntry,DefaultDescription> entry : descriptions.entries()) {
@@ -262,17 +619,136 @@ public class DataDictionaryImpl implements DataDictionary<DefaultMetadataField,D
     }
     
     // Return the alias map for the query model in the specified connection config.
-    private Map<String,String> getAliases(Connection connectionConfig) throws ExecutionException, TableNotFoundException {
+    private Map<String,String> getAliases(Connection connectionConfig) throws Exception {
+        return getQueryModelAliases(connectionConfig).getAliases();
+    }
+    
+    // Retrieve the field name that the specified alias maps to in the query model in the specified connection config.
+    private String getAlias(String fieldName, Connection connectionConfig) throws Exception {
+        return getQueryModelAliases(connectionConfig).getFieldName(fieldName);
+    }
+    
+    // Return the aliases of the query model in the specified connection config, which are cached per model and set of authorizations until the model is
+    // modified through this data dictionary.
+    private QueryModelAliases getQueryModelAliases(Connection connectionConfig) throws Exception {
+        return aliasesCache.get(DataDictionaryCache.CacheKey.of(connectionConfig, null), () -> loadQueryModelAliases(connectionConfig));
+    }
+    
+    // Read the aliases of the query model in the specified connection config from the model table, bypassing the cache.
+    private QueryModelAliases loadQueryModelAliases(Connection connectionConfig) throws ExecutionException, TableNotFoundException {
         MetadataHelper helper = metadataHelperFactory.createMetadataHelper(connectionConfig.getAccumuloClient(), connectionConfig.getMetadataTable(),
                         connectionConfig.getAuths());
         QueryModel model = helper.getQueryModel(connectionConfig.getModelTable(), connectionConfig.getModelName());
-        return model != null ? model.getReverseQueryMapping() : Collections.emptyMap();
+        return QueryModelAliases.of(model);
     }
     
-    // Retrieve the alias for the specified field name from the alias map for the specified field name.
-    private String getAlias(String fieldName, Connection connectionConfig) throws ExecutionException, TableNotFoundException {
-        Map<String,String> map = getAliases(connectionConfig);
-        Map<String,String> reversedMap = map.entrySet().stream().collect(Collectors.toMap(Entry::getValue, Entry::getKey));
-        return reversedMap.get(fieldName);
+    /**
+     * Builds a data dictionary. Caches that are not set are disabled, and descriptions are scanned from the metadata table unless a description store is set.
+     */
+    public static class Builder {
+        
+        private final MarkingFunctions markingFunctions;
+        private final ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> responseObjectFactory;
+        private final MetadataHelperFactory metadataHelperFactory;
+        private final MetadataDescriptionsHelperFactory<DefaultDescription> metadataDescriptionsHelperFactory;
+        private DataDictionaryCache<Collection<DefaultMetadataField>> fieldsCache;
+        private DataDictionaryCache<MetadataFieldSnapshot> snapshotCache;
+        private DataDictionaryCache<QueryModelAliases> aliasesCache;
+        private String serviceAuths;
+        private boolean rowSummaries;
+        private MetadataDescriptionStore<DefaultDescription> descriptionStore;
+        private int scanThreads;
+        
+        public Builder(MarkingFunctions markingFunctions,
+                        ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> responseObjectFactory,
+                        MetadataHelperFactory metadataHelperFactory, MetadataDescriptionsHelperFactory<DefaultDescription> metadataDescriptionsHelperFactory) {
+            this.markingFunctions = markingFunctions;
+            this.responseObjectFactory = responseObjectFactory;
+            this.metadataHelperFactory = metadataHelperFactory;
+            this.metadataDescriptionsHelperFactory = metadataDescriptionsHelperFactory;
+        }
+        
+        /**
+         * Cache fields separately for each set of authorizations.
+         *
+         * @param fieldsCache
+         *            the cache of fields per set of authorizations
+         * @return this builder
+         */
+        public Builder withFieldsCache(DataDictionaryCache<Collection<DefaultMetadataField>> fieldsCache) {
+            this.fieldsCache = fieldsCache;
+            return this;
+        }
+        
+        /**
+         * Cache a single snapshot of each metadata table, scanned with the service authorizations and filtered by column visibility for each request. When
+         * enabled, the snapshot cache takes the place of the fields cache.
+         *
+         * @param snapshotCache
+         *            the cache of metadata table snapshots
+         * @param serviceAuths
+         *            the comma-delimited authorizations to scan snapshots with, or null to use the authorizations of the accumulo user
+         * @return this builder
+         */
+        public Builder withSnapshotCache(DataDictionaryCache<MetadataFieldSnapshot> snapshotCache, String serviceAuths) {
+            this.snapshotCache = snapshotCache;
+            this.serviceAuths = serviceAuths;
+            return this;
+        }
+        
+        /**
+         * Cache the query model aliases per model and set of authorizations.
+         *
+         * @param aliasesCache
+         *            the cache of query model aliases
+         * @return this builder
+         */
+        public Builder withAliasesCache(DataDictionaryCache<QueryModelAliases> aliasesCache) {
+            this.aliasesCache = aliasesCache;
+            return this;
+        }
+        
+        /**
+         * Set whether metadata rows are aggregated into summaries on the tablet servers when fields are scanned. This requires the
+         * {@link datawave.microservice.metadata.MetadataRowSummaryIterator} to be on the classpath of the tablet servers.
+         *
+         * @param rowSummaries
+         *            true to aggregate rows on the tablet servers
+         * @return this builder
+         */
+        public Builder withRowSummaries(boolean rowSummaries) {
+            this.rowSummaries = rowSummaries;
+            return this;
+        }
+        
+        /**
+         * Serve descriptions from the specified store. Descriptions set or deleted through the data dictionary are applied to the store once they have been
+         * written to the metadata table.
+         *
+         * @param descriptionStore
+         *            the description store, or null to scan the metadata table for descriptions on every request
+         * @return this builder
+         */
+        public Builder withDescriptionStore(MetadataDescriptionStore<DefaultDescription> descriptionStore) {
+            this.descriptionStore = descriptionStore;
+            return this;
+        }
+        
+        /**
+         * Scan the partitions of the metadata table in parallel on a pool of the specified number of threads, which is shared by every request and shut
+         * down when the data dictionary is closed. Each request keeps at most its requested number of threads worth of partitions in flight.
+         *
+         * @param scanThreads
+         *            the number of threads to scan partitions on, or less than 2 to scan each request on its own thread
+         * @return this builder
+         */
+        public Builder withScanThreads(int scanThreads) {
+            this.scanThreads = scanThreads;
+            return this;
+        }
+        
+        public DataDictionaryImpl build() {
+            return new DataDictionaryImpl(this);
+        }
     }
 }
@@ -0,0 +1,33 @@
+package datawave.microservice.dictionary.data;
+
+import java.util.Collection;
+
+/**
+ * A single page of data dictionary fields, along with the token with which to resume at the next page.
+ *
+ * @param <META>
+ *            the type of the metadata fields
+ */
+public class DataDictionaryPage<META> {
+    
+    private final Collection<META> fields;
+    private final String resumeToken;
+    
+    public DataDictionaryPage(Collection<META> fields, String resumeToken) {
+        this.fields = fields;
+        this.resumeToken = resumeToken;
+    }
+    
+    public Collection<META> getFields() {
+        return fields;
+    }
+    
+    /**
+     * Return the opaque token to pass back to resume after this page.
+     *
+     * @return the resume token, or null if this is the last page
+     */
+    public String getResumeToken() {
+        return resumeToken;
+    }
+}
@@ -0,0 +1,56 @@
+package datawave.microservice.dictionary.data;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import datawave.query.model.QueryModel;
+
+/**
+ * The field name aliases of a query model, in both directions. Instances are immutable, so that they may be cached and shared between requests.
+ */
+public class QueryModelAliases {
+    
+    private static final QueryModelAliases EMPTY = new QueryModelAliases(Collections.emptyMap());
+    
+    private final Map<String,String> aliases;
+    private final Map<String,String> fieldNames;
+    
+    private QueryModelAliases(Map<String,String> aliases) {
+        Map<String,String> fieldNames = new HashMap<>();
+        aliases.forEach((fieldName, alias) -> fieldNames.putIfAbsent(alias, fieldName));
+        this.aliases = Collections.unmodifiableMap(new HashMap<>(aliases));
+        this.fieldNames = Collections.unmodifiableMap(fieldNames);
+    }
+    
+    /**
+     * Return the aliases of the specified query model.
+     *
+     * @param model
+     *            the query model, or null if there is no query model
+     * @return the aliases
+     */
+    public static QueryModelAliases of(QueryModel model) {
+        return model == null ? EMPTY : new QueryModelAliases(model.getReverseQueryMapping());
+    }
+    
+    /**
+     * Return the map of field names to aliases, which is the reverse query mapping of the query model.
+     *
+     * @return the unmodifiable map of field names to aliases
+     */
+    public Map<String,String> getAliases() {
+        return aliases;
+    }
+    
+    /**
+     * Return the field name that the specified alias maps to.
+     *
+     * @param alias
+     *            the alias
+     * @return the field name, or null if the alias is not in the query model
+     */
+    public String getFieldName(String alias) {
+        return fieldNames.get(alias);
+    }
+}
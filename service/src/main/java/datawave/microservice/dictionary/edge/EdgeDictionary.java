@@ -1,6 +1,7 @@
 package datawave.microservice.dictionary.edge;
 
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.apache.accumulo.core.client.AccumuloClient;
 import org.apache.accumulo.core.security.Authorizations;
@@ -12,4 +13,81 @@ public interface EdgeDictionary<EDGE extends EdgeDictionaryBase<EDGE,META>,META
     char COL_SEPARATOR = '/';
     
     EDGE getEdgeDictionary(String metadataTableName, AccumuloClient accumuloClient, Set<Authorizations> auths, int numThreads) throws Exception;
+    
+    /**
+     * Return the edge dictionary entries of the specified metadata table that are accepted by the specified filter. A filter that accepts all edge metadata
+     * returns the same entries as {@link #getEdgeDictionary(String, AccumuloClient, Set, int)}.
+     *
+     * @param metadataTableName
+     *            the metadata table
+     * @param accumuloClient
+     *            the client to scan with
+     * @param auths
+     *            the authorizations to scan with
+     * @param numThreads
+     *            the maximum number of threads to use
+     * @param filter
+     *            the filter of the edge metadata to return
+     * @return the edge dictionary
+     * @throws Exception
+     *             if there is any problem retrieving the edge dictionary
+     */
+    EDGE getEdgeDictionary(String metadataTableName, AccumuloClient accumuloClient, Set<Authorizations> auths, int numThreads, EdgeMetadataFilter filter)
+                    throws Exception;
+    
+    /**
+     * Pass each edge dictionary entry of the specified metadata table that is accepted by the specified filter to the consumer, in edge metadata key order.
+     * Implementations that can read the metadata table directly pass each entry on as soon as it has been decoded, so that the entire edge dictionary need not
+     * be held in memory at once.
+     *
+     * @param metadataTableName
+     *            the metadata table
+     * @param accumuloClient
+     *            the client to scan with
+     * @param auths
+     *            the authorizations to scan with
+     * @param numThreads
+     *            the maximum number of threads to use
+     * @param filter
+     *            the filter of the edge metadata to return
+     * @param consumer
+     *            the consumer to pass each entry to
+     * @throws Exception
+     *             if there is any problem retrieving the edge dictionary
+     */
+    @SuppressWarnings("unchecked")
+    default void streamEdgeDictionary(String metadataTableName, AccumuloClient accumuloClient, Set<Authorizations> auths, int numThreads,
+                    EdgeMetadataFilter filter, Consumer<META> consumer) throws Exception {
+        EDGE edgeDictionary = getEdgeDictionary(metadataTableName, accumuloClient, auths, numThreads, filter);
+        if (edgeDictionary != null && edgeDictionary.getMetadataList() != null) {
+            edgeDictionary.getMetadataList().forEach(metadata -> consumer.accept((META) metadata));
+        }
+    }
+    
+    /**
+     * Return a single page of the edge dictionary entries of the specified metadata table that are accepted by the specified filter. Implementations that
+     * cannot page through the metadata table return every entry in a single page.
+     *
+     * @param metadataTableName
+     *            the metadata table
+     * @param accumuloClient
+     *            the client to scan with
+     * @param auths
+     *            the authorizations to scan with
+     * @param numThreads
+     *            the maximum number of threads to use
+     * @param filter
+     *            the filter of the edge metadata to return
+     * @param resumeToken
+     *            the resume token of the previous page, or null to retrieve the first page
+     * @param pageSize
+     *            the number of entries to retrieve
+     * @return the page of the edge dictionary
+     * @throws Exception
+     *             if there is any problem retrieving the edge dictionary
+     */
+    default EdgeDictionaryPage<EDGE> getEdgeDictionaryPage(String metadataTableName, AccumuloClient accumuloClient, Set<Authorizations> auths,
+                    int numThreads, EdgeMetadataFilter filter, String resumeToken, int pageSize) throws Exception {
+        return new EdgeDictionaryPage<>(getEdgeDictionary(metadataTableName, accumuloClient, auths, numThreads, filter), null);
+    }
 }
@@ -1,122 +1,417 @@
 package datawave.microservice.dictionary.edge;
 
-import java.util.Collection;
-import java.util.LinkedList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.BatchScanner;
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.ScannerBase;
+import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.PartialKey;
+import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.hadoop.io.Text;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Strings;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.InvalidProtocolBufferException;
 
+import datawave.data.ColumnFamilyConstants;
 import datawave.metadata.protobuf.EdgeMetadata;
 import datawave.metadata.protobuf.EdgeMetadata.MetadataValue;
+import datawave.microservice.dictionary.data.DataDictionaryCache;
+import datawave.microservice.dictionary.edge.EdgeDictionarySnapshot.Fingerprint;
 import datawave.query.util.MetadataHelper;
 import datawave.query.util.MetadataHelperFactory;
+import datawave.security.util.ScannerHelper;
 import datawave.util.StringUtils;
 import datawave.webservice.dictionary.edge.DefaultEdgeDictionary;
 import datawave.webservice.dictionary.edge.DefaultMetadata;
 import datawave.webservice.dictionary.edge.EventField;
 
-public class EdgeDictionaryImpl implements EdgeDictionary<DefaultEdgeDictionary,DefaultMetadata> {
+public class EdgeDictionaryImpl implements EdgeDictionary<DefaultEdgeDictionary,DefaultMetadata>, AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(EdgeDictionaryImpl.class);
     
+    // the fewest rows worth decoding on a thread of their own
+    static final int MIN_ROWS_PER_THREAD = 1000;
+    
+    private static final char RESUME_TOKEN_SEPARATOR = '.';
+    // the most entries of a page to allocate room for up front, since the page size is chosen by the client
+    private static final int MAX_INITIAL_PAGE_CAPACITY = 1000;
+    
+    private static final Comparator<Entry<Key,Value>> ROW_ORDER = Entry.<Key,Value> comparingByKey().thenComparing(Entry::getValue, Value::compareTo);
+    
     private final MetadataHelperFactory metadataHelperFactory;
+    private final DataDictionaryCache<EdgeDictionarySnapshot> edgeCache;
+    private final long probeIntervalMillis;
+    private final ExecutorService decodeExecutor;
     
     public EdgeDictionaryImpl(MetadataHelperFactory metadataHelperFactory) {
+        this(metadataHelperFactory, null, Duration.ZERO, 1);
+    }
+    
+    /**
+     * Create an edge dictionary that decodes large edge dictionaries on a pool of threads shared by every request, which is shut down when the edge dictionary
+     * is closed.
+     *
+     * @param metadataHelperFactory
+     *            the metadata helper factory
+     * @param edgeCache
+     *            the cache of edge dictionaries, or null to read the edge dictionary on every request
+     * @param probeInterval
+     *            how long a cached edge dictionary is served without checking the edge metadata for changes, or zero to check on every request
+     * @param decodeThreads
+     *            the number of threads to decode edge metadata on, or less than 2 to decode each request on its own thread
+     */
+    public EdgeDictionaryImpl(MetadataHelperFactory metadataHelperFactory, DataDictionaryCache<EdgeDictionarySnapshot> edgeCache, Duration probeInterval,
+                    int decodeThreads) {
         this.metadataHelperFactory = metadataHelperFactory;
+        this.edgeCache = edgeCache != null ? edgeCache : DataDictionaryCache.disabled();
+        this.probeIntervalMillis = probeInterval.toMillis();
+        this.decodeExecutor = decodeThreads > 1 ? Executors.newFixedThreadPool(decodeThreads,
+                        new ThreadFactoryBuilder().setNameFormat("edge-metadata-decode-%d").setDaemon(true).build()) : null;
+    }
+    
+    @Override
+    public void close() {
+        if (decodeExecutor != null) {
+            decodeExecutor.shutdownNow();
+        }
     }
     
+    /**
+     * Return the edge dictionary of the specified metadata table. When the cache is enabled, the dictionary is served from memory for as long as the
+     * fingerprint of the edge column family visible with the same authorizations is unchanged, so that only the keys of the edge metadata are read to check
+     * it rather than every value being read and decoded. The fingerprint is checked at most once per probe interval, and a cached dictionary is served
+     * without reading the metadata table at all in between.
+     */
     @Override
     public DefaultEdgeDictionary getEdgeDictionary(String metadataTableName, AccumuloClient accumuloClient, Set<Authorizations> auths, int numThreads)
                     throws Exception {
+        if (!edgeCache.isEnabled()) {
+            return loadEdgeDictionary(metadataTableName, accumuloClient, auths, numThreads);
+        }
         
-        MetadataHelper metadataHelper = this.metadataHelperFactory.createMetadataHelper(accumuloClient, metadataTableName, auths);
+        DataDictionaryCache.CacheKey key = DataDictionaryCache.CacheKey.of(metadataTableName, auths);
+        AtomicBoolean loaded = new AtomicBoolean();
+        Callable<EdgeDictionarySnapshot> loader = () -> {
+            loaded.set(true);
+            // Probe before the read, so that a change made during the read is detected by the next probe.
+            Fingerprint fingerprint = Fingerprint.probe(accumuloClient, metadataTableName, auths);
+            return new EdgeDictionarySnapshot(loadEdgeDictionary(metadataTableName, accumuloClient, auths, numThreads), fingerprint);
+        };
+        EdgeDictionarySnapshot snapshot = edgeCache.get(key, loader);
+        if (loaded.get() || System.currentTimeMillis() - snapshot.getProbedMillis() < probeIntervalMillis) {
+            return snapshot.getDictionary();
+        }
         
-        // Convert them into a response object
+        Fingerprint current = Fingerprint.probe(accumuloClient, metadataTableName, auths);
+        if (snapshot.getFingerprint().equals(current)) {
+            snapshot.setProbedMillis(current.getProbedMillis());
+            return snapshot.getDictionary();
+        }
+        log.debug("Edge metadata in {} has changed since it was cached, reloading", metadataTableName);
+        edgeCache.invalidate(key);
+        return edgeCache.get(key, loader).getDictionary();
+    }
+    
+    /**
+     * Return the edge dictionary entries accepted by the specified filter. A filtered dictionary is not cached, and is read with a batch scanner restricted to
+     * the ranges and columns of the filter, so that only the matching edge metadata is read from the tablet servers.
+     */
+    @Override
+    public DefaultEdgeDictionary getEdgeDictionary(String metadataTableName, AccumuloClient accumuloClient, Set<Authorizations> auths, int numThreads,
+                    EdgeMetadataFilter filter) throws Exception {
+        if (filter.acceptsAll()) {
+            return getEdgeDictionary(metadataTableName, accumuloClient, auths, numThreads);
+        }
+        return transformResults(scanEdges(metadataTableName, accumuloClient, auths, numThreads, filter), numThreads);
+    }
+    
+    /**
+     * Pass each edge dictionary entry accepted by the specified filter to the consumer as soon as it has been decoded. The edge metadata is read in key order
+     * with a scanner restricted to the ranges and columns of the filter, and is never held in memory as a whole. Unfiltered entries are served from the cache
+     * when it is enabled, since the cached dictionary is already in memory.
+     */
+    @Override
+    public void streamEdgeDictionary(String metadataTableName, AccumuloClient accumuloClient, Set<Authorizations> auths, int numThreads,
+                    EdgeMetadataFilter filter, Consumer<DefaultMetadata> consumer) throws Exception {
+        if (filter.acceptsAll() && edgeCache.isEnabled()) {
+            EdgeDictionary.super.streamEdgeDictionary(metadataTableName, accumuloClient, auths, numThreads, filter, consumer);
+            return;
+        }
+        streamEdges(metadataTableName, accumuloClient, auths, filter, new Range(), Integer.MAX_VALUE, consumer);
+    }
+    
+    /**
+     * Return a single page of the edge dictionary entries accepted by the specified filter, in key order. Only the edge metadata of the requested page is read,
+     * and pages are never served from the cache. The resume token encodes the row, column qualifier and column visibility of the last entry of the page, and
+     * the next page starts at the key after it, so that entries which differ only in their visibility are not skipped.
+     */
+    @Override
+    public EdgeDictionaryPage<DefaultEdgeDictionary> getEdgeDictionaryPage(String metadataTableName, AccumuloClient accumuloClient, Set<Authorizations> auths,
+                    int numThreads, EdgeMetadataFilter filter, String resumeToken, int pageSize) throws Exception {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size " + pageSize);
+        }
+        Range remaining = new Range();
+        if (!Strings.isNullOrEmpty(resumeToken)) {
+            remaining = new Range(decodeResumeToken(resumeToken).followingKey(PartialKey.ROW_COLFAM_COLQUAL_COLVIS), true, null, false);
+        }
         
-        // Convert them into the DataDictionary response object
-        return transformResults(metadataHelper.getEdges());
+        List<DefaultMetadata> metadata = new ArrayList<>(Math.min(pageSize, MAX_INITIAL_PAGE_CAPACITY));
+        Key lastKey = streamEdges(metadataTableName, accumuloClient, auths, filter, remaining, pageSize, metadata::add);
+        return new EdgeDictionaryPage<>(new DefaultEdgeDictionary(metadata), lastKey == null ? null : encodeResumeToken(lastKey));
     }
     
-    // consume the iterator, parse key/value pairs into Metadata stuff
-    private DefaultEdgeDictionary transformResults(SetMultimap<Key,Value> edgeMetadataRows) {
+    /**
+     * Scan the edge metadata accepted by the filter within the remaining range in key order, and pass each decoded entry to the consumer until the limit is
+     * reached.
+     *
+     * @return the key of the last entry passed to the consumer if the limit was reached and there may be more entries after it, or null otherwise
+     */
+    private Key streamEdges(String metadataTableName, AccumuloClient accumuloClient, Set<Authorizations> auths, EdgeMetadataFilter filter, Range remaining,
+                    int limit, Consumer<DefaultMetadata> consumer) throws TableNotFoundException {
+        log.debug("Streaming edge metadata in {} with {}", metadataTableName, filter);
         final Text row = new Text(), cf = new Text(), cq = new Text();
+        try (Scanner scanner = ScannerHelper.createScanner(accumuloClient, metadataTableName, auths)) {
+            configure(scanner, filter);
+            // The ranges of the filter are sorted, so scanning them in turn returns the entries in key order.
+            Iterator<Range> ranges = filter.getRanges().iterator();
+            int transformed = 0;
+            while (ranges.hasNext()) {
+                Range range = remaining.clip(ranges.next(), true);
+                if (range == null) {
+                    continue;
+                }
+                scanner.setRange(range);
+                Iterator<Entry<Key,Value>> iterator = scanner.iterator();
+                while (iterator.hasNext()) {
+                    Entry<Key,Value> entry = iterator.next();
+                    DefaultMetadata meta = transformRow(entry.getKey(), entry.getValue(), row, cf, cq);
+                    if (meta == null) {
+                        continue;
+                    }
+                    consumer.accept(meta);
+                    if (++transformed >= limit) {
+                        return iterator.hasNext() || ranges.hasNext() ? entry.getKey() : null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static String encodeResumeToken(Key key) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(key.getRowData().toArray()) + RESUME_TOKEN_SEPARATOR + encoder.encodeToString(key.getColumnQualifierData().toArray())
+                        + RESUME_TOKEN_SEPARATOR + encoder.encodeToString(key.getColumnVisibilityData().toArray());
+    }
+    
+    private static Key decodeResumeToken(String resumeToken) {
+        int separator = resumeToken.indexOf(RESUME_TOKEN_SEPARATOR);
+        int visibilitySeparator = resumeToken.indexOf(RESUME_TOKEN_SEPARATOR, separator + 1);
+        if (separator < 0 || visibilitySeparator < 0) {
+            throw new IllegalArgumentException("Invalid resume token " + resumeToken);
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] row = decoder.decode(resumeToken.substring(0, separator));
+            byte[] attribute1Source = decoder.decode(resumeToken.substring(separator + 1, visibilitySeparator));
+            byte[] visibility = decoder.decode(resumeToken.substring(visibilitySeparator + 1));
+            return new Key(row, ColumnFamilyConstants.COLF_EDGE.copyBytes(), attribute1Source, visibility, Long.MAX_VALUE);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid resume token " + resumeToken, e);
+        }
+    }
+    
+    private SetMultimap<Key,Value> scanEdges(String metadataTableName, AccumuloClient accumuloClient, Set<Authorizations> auths, int numThreads,
+                    EdgeMetadataFilter filter) throws TableNotFoundException {
+        log.debug("Scanning edge metadata in {} with {}", metadataTableName, filter);
+        SetMultimap<Key,Value> edgeMetadataRows = HashMultimap.create();
+        try (BatchScanner scanner = ScannerHelper.createBatchScanner(accumuloClient, metadataTableName, auths, numThreads)) {
+            scanner.setRanges(filter.getRanges());
+            configure(scanner, filter);
+            for (Entry<Key,Value> entry : scanner) {
+                edgeMetadataRows.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return edgeMetadataRows;
+    }
+    
+    private static void configure(ScannerBase scanner, EdgeMetadataFilter filter) {
+        if (filter.getAttribute1Sources().isEmpty()) {
+            scanner.fetchColumnFamily(ColumnFamilyConstants.COLF_EDGE);
+        } else {
+            for (String attribute1Source : filter.getAttribute1Sources()) {
+                scanner.fetchColumn(ColumnFamilyConstants.COLF_EDGE, new Text(attribute1Source));
+            }
+        }
+        IteratorSetting setting = filter.getIteratorSetting();
+        if (setting != null) {
+            scanner.addScanIterator(setting);
+        }
+    }
+    
+    private DefaultEdgeDictionary loadEdgeDictionary(String metadataTableName, AccumuloClient accumuloClient, Set<Authorizations> auths, int numThreads)
+                    throws Exception {
+        MetadataHelper metadataHelper = this.metadataHelperFactory.createMetadataHelper(accumuloClient, metadataTableName, auths);
         
-        Collection<DefaultMetadata> metadata = new LinkedList<>();
-        // Each Entry is the entire row
-        for (Entry<Key,Value> edgeMetadataRow : edgeMetadataRows.entries()) {
-            DefaultMetadata meta = new DefaultMetadata();
-            String startDate = null; // Earliest date of collection
-            
+        // Convert them into the DataDictionary response object
+        return transformResults(metadataHelper.getEdges(), numThreads);
+    }
+    
+    @VisibleForTesting
+    DefaultEdgeDictionary transformResults(SetMultimap<Key,Value> edgeMetadataRows) {
+        return transformResults(edgeMetadataRows, 1);
+    }
+    
+    /**
+     * Transform the edge metadata rows into the edge dictionary. The rows are sorted by key so that the dictionary is always in the same order, and are
+     * decoded in up to {@code numThreads} contiguous partitions of at least {@value #MIN_ROWS_PER_THREAD} rows each on the shared decode executor, which are
+     * assembled in order. Without a decode executor, the rows are decoded on the calling thread.
+     *
+     * @param edgeMetadataRows
+     *            the edge metadata rows
+     * @param numThreads
+     *            the maximum number of threads to decode the rows with
+     * @return the edge dictionary
+     */
+    @VisibleForTesting
+    DefaultEdgeDictionary transformResults(SetMultimap<Key,Value> edgeMetadataRows, int numThreads) {
+        List<Entry<Key,Value>> entries = new ArrayList<>(edgeMetadataRows.entries());
+        for (Entry<Key,Value> edgeMetadataRow : entries) {
             // Handle batch scanner bug
             if (edgeMetadataRow.getKey() == null && edgeMetadataRow.getValue() == null)
                 return null;
             if (null == edgeMetadataRow.getKey() || null == edgeMetadataRow.getValue()) {
                 throw new IllegalArgumentException("Null key or value. Key:" + edgeMetadataRow.getKey() + ", Value: " + edgeMetadataRow.getValue());
             }
-            
-            Key key = edgeMetadataRow.getKey();
-            Value value = edgeMetadataRow.getValue();
-            
-            // Parse row/cf/cq for
-            // TODO create meta key / value helper classes
-            key.getRow(row);
-            key.getColumnFamily(cf);
-            key.getColumnQualifier(cq);
-            
-            String[] pieces = StringUtils.split(row.toString(), COL_SEPARATOR);
-            if (pieces.length != 2) {
-                throw new IllegalArgumentException("Invalid Edge Metadata Key:" + edgeMetadataRow.getKey());
+        }
+        entries.sort(ROW_ORDER);
+        
+        int partitions = decodeExecutor == null ? 1 : Math.max(1, Math.min(numThreads, entries.size() / MIN_ROWS_PER_THREAD));
+        if (partitions == 1) {
+            return new DefaultEdgeDictionary(transformRows(entries));
+        }
+        
+        int partitionSize = (entries.size() + partitions - 1) / partitions;
+        List<Future<List<DefaultMetadata>>> futures = new ArrayList<>(partitions);
+        try {
+            for (int start = 0; start < entries.size(); start += partitionSize) {
+                List<Entry<Key,Value>> partition = entries.subList(start, Math.min(start + partitionSize, entries.size()));
+                futures.add(decodeExecutor.submit(() -> transformRows(partition)));
+            }
+            List<DefaultMetadata> metadata = new ArrayList<>(entries.size());
+            for (Future<List<DefaultMetadata>> future : futures) {
+                metadata.addAll(future.get());
+            }
+            return new DefaultEdgeDictionary(metadata);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while decoding edge metadata", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Unable to decode edge metadata", cause);
+        } finally {
+            // Stop decoding any partitions that are still in flight when the transformation fails.
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    // parse key/value pairs into Metadata stuff
+    private List<DefaultMetadata> transformRows(List<Entry<Key,Value>> edgeMetadataRows) {
+        final Text row = new Text(), cf = new Text(), cq = new Text();
+        
+        List<DefaultMetadata> metadata = new ArrayList<>(edgeMetadataRows.size());
+        // Each Entry is the entire row
+        for (Entry<Key,Value> edgeMetadataRow : edgeMetadataRows) {
+            DefaultMetadata meta = transformRow(edgeMetadataRow.getKey(), edgeMetadataRow.getValue(), row, cf, cq);
+            if (meta != null) {
+                metadata.add(meta);
+            }
+        }
+        return metadata;
+    }
+    
+    // parse a single key/value pair, reusing the Text buffers, or return null if the value is not valid edge metadata
+    private static DefaultMetadata transformRow(Key key, Value value, Text row, Text cf, Text cq) {
+        DefaultMetadata meta = new DefaultMetadata();
+        String startDate = null; // Earliest date of collection
+        
+        // Parse row/cf/cq for
+        // TODO create meta key / value helper classes
+        key.getRow(row);
+        key.getColumnFamily(cf);
+        key.getColumnQualifier(cq);
+        
+        String[] pieces = StringUtils.split(row.toString(), COL_SEPARATOR);
+        if (pieces.length != 2) {
+            throw new IllegalArgumentException("Invalid Edge Metadata Key:" + key);
+        }
+        meta.setEdgeType(pieces[0]);
+        meta.setEdgeRelationship(pieces[1]);
+        meta.setEdgeAttribute1Source(cq.toString());
+        
+        // Parse the Value
+        MetadataValue metadataVal;
+        try {
+            metadataVal = EdgeMetadata.MetadataValue.parseFrom(value.get());
+        } catch (InvalidProtocolBufferException e) {
+            log.error("Found invalid Edge Metadata Value bytes.");
+            return null;
+        }
+        List<EventField> eFields = new ArrayList<>(metadataVal.getMetadataCount());
+        for (MetadataValue.Metadata metaval : metadataVal.getMetadataList()) {
+            EventField eField = new EventField();
+            eField.setSourceField(metaval.getSource());
+            eField.setSinkField(metaval.getSink());
+            if (metaval.hasEnrichment()) {
+                eField.setEnrichmentField(metaval.getEnrichment());
+                eField.setEnrichmentIndex(metaval.getEnrichmentIndex());
             }
-            meta.setEdgeType(pieces[0]);
-            meta.setEdgeRelationship(pieces[1]);
-            meta.setEdgeAttribute1Source(cq.toString());
             
-            // Parse the Value
-            MetadataValue metadataVal;
-            try {
-                metadataVal = EdgeMetadata.MetadataValue.parseFrom(value.get());
-            } catch (InvalidProtocolBufferException e) {
-                log.error("Found invalid Edge Metadata Value bytes.");
-                continue;
+            if (metaval.hasJexlPrecondition()) {
+                eField.setJexlPrecondition(metaval.getJexlPrecondition());
             }
-            List<EventField> eFields = new LinkedList<>();
-            for (MetadataValue.Metadata metaval : metadataVal.getMetadataList()) {
-                EventField eField = new EventField();
-                eField.setSourceField(metaval.getSource());
-                eField.setSinkField(metaval.getSink());
-                if (metaval.hasEnrichment()) {
-                    eField.setEnrichmentField(metaval.getEnrichment());
-                    eField.setEnrichmentIndex(metaval.getEnrichmentIndex());
-                }
-                
-                if (metaval.hasJexlPrecondition()) {
-                    eField.setJexlPrecondition(metaval.getJexlPrecondition());
-                }
-                eFields.add(eField);
-                
-                if (metaval.hasDate()) {
-                    if (startDate == null) {
-                        startDate = metaval.getDate();
-                    } else if (startDate.compareTo(metaval.getDate()) > 0) {
-                        startDate = metaval.getDate();
-                    }
+            eFields.add(eField);
+            
+            if (metaval.hasDate()) {
+                if (startDate == null) {
+                    startDate = metaval.getDate();
+                } else if (startDate.compareTo(metaval.getDate()) > 0) {
+                    startDate = metaval.getDate();
                 }
             }
-            
-            meta.setStartDate(startDate);
-            meta.setEventFields(eFields);
-            metadata.add(meta);
         }
-        return new DefaultEdgeDictionary(metadata);
+        
+        meta.setStartDate(startDate);
+        meta.setEventFields(eFields);
+        return meta;
     }
 }
@@ -0,0 +1,31 @@
+package datawave.microservice.dictionary.edge;
+
+/**
+ * A single page of an edge dictionary, along with the token with which to resume at the next page.
+ *
+ * @param <EDGE>
+ *            the type of the edge dictionary
+ */
+public class EdgeDictionaryPage<EDGE> {
+    
+    private final EDGE dictionary;
+    private final String resumeToken;
+    
+    public EdgeDictionaryPage(EDGE dictionary, String resumeToken) {
+        this.dictionary = dictionary;
+        this.resumeToken = resumeToken;
+    }
+    
+    public EDGE getDictionary() {
+        return dictionary;
+    }
+    
+    /**
+     * Return the opaque token to pass back to resume after this page.
+     *
+     * @return the resume token, or null if this is the last page
+     */
+    public String getResumeToken() {
+        return resumeToken;
+    }
+}
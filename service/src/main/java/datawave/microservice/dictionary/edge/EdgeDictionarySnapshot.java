@@ -0,0 +1,119 @@
+package datawave.microservice.dictionary.edge;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedKeyIterator;
+import org.apache.accumulo.core.security.Authorizations;
+
+import datawave.data.ColumnFamilyConstants;
+import datawave.security.util.ScannerHelper;
+import datawave.webservice.dictionary.edge.DefaultEdgeDictionary;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * An edge dictionary along with a fingerprint of the edge metadata it was built from, so that a cached dictionary can be checked against the metadata table
+ * without reading and decoding every edge metadata value again.
+ */
+public class EdgeDictionarySnapshot {
+    
+    private final DefaultEdgeDictionary dictionary;
+    private final Fingerprint fingerprint;
+    // when the edge metadata was last found to match the fingerprint
+    private volatile long probedMillis;
+    
+    public EdgeDictionarySnapshot(DefaultEdgeDictionary dictionary, Fingerprint fingerprint) {
+        this.dictionary = dictionary;
+        this.fingerprint = fingerprint;
+        this.probedMillis = fingerprint.getProbedMillis();
+    }
+    
+    public DefaultEdgeDictionary getDictionary() {
+        return dictionary;
+    }
+    
+    public Fingerprint getFingerprint() {
+        return fingerprint;
+    }
+    
+    public long getProbedMillis() {
+        return probedMillis;
+    }
+    
+    /**
+     * Record that the edge metadata was found to match the fingerprint of this snapshot at the specified time.
+     *
+     * @param probedMillis
+     *            the time of the probe, in milliseconds since the epoch
+     */
+    public void setProbedMillis(long probedMillis) {
+        this.probedMillis = Math.max(this.probedMillis, probedMillis);
+    }
+    
+    /**
+     * The number, latest timestamp and combined hash of the keys in the edge column family that are visible with a set of authorizations. Any edge metadata
+     * entry that is added, removed or rewritten changes the fingerprint. The time of the probe is not part of the fingerprint.
+     */
+    @EqualsAndHashCode
+    @ToString
+    public static final class Fingerprint {
+        private static final int KEYS_ONLY_PRIORITY = 30;
+        
+        private final long count;
+        private final long maxTimestamp;
+        private final long hash;
+        @EqualsAndHashCode.Exclude
+        private final long probedMillis;
+        
+        private Fingerprint(long count, long maxTimestamp, long hash, long probedMillis) {
+            this.count = count;
+            this.maxTimestamp = maxTimestamp;
+            this.hash = hash;
+            this.probedMillis = probedMillis;
+        }
+        
+        public long getProbedMillis() {
+            return probedMillis;
+        }
+        
+        /**
+         * Compute the fingerprint of the edge column family of a metadata table. Only the keys are returned by the tablet servers, which are much smaller than
+         * the encoded edge metadata values, and nothing is decoded.
+         *
+         * @param accumuloClient
+         *            the client to scan with
+         * @param metadataTableName
+         *            the metadata table
+         * @param auths
+         *            the authorizations to scan with
+         * @return the fingerprint
+         * @throws TableNotFoundException
+         *             if the metadata table does not exist
+         */
+        public static Fingerprint probe(AccumuloClient accumuloClient, String metadataTableName, Set<Authorizations> auths) throws TableNotFoundException {
+            long probedMillis = System.currentTimeMillis();
+            long count = 0;
+            long maxTimestamp = Long.MIN_VALUE;
+            long hash = 0;
+            try (Scanner scanner = ScannerHelper.createScanner(accumuloClient, metadataTableName, auths)) {
+                scanner.fetchColumnFamily(ColumnFamilyConstants.COLF_EDGE);
+                scanner.addScanIterator(new IteratorSetting(KEYS_ONLY_PRIORITY, "keysOnly", SortedKeyIterator.class));
+                for (Map.Entry<Key,Value> entry : scanner) {
+                    Key key = entry.getKey();
+                    count++;
+                    maxTimestamp = Math.max(maxTimestamp, key.getTimestamp());
+                    // keys are returned in sorted order, so an order-dependent hash is stable
+                    hash = 31 * hash + key.hashCode();
+                }
+            }
+            return new Fingerprint(count, maxTimestamp, hash, probedMillis);
+        }
+    }
+}
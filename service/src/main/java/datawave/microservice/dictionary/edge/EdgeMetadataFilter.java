@@ -0,0 +1,143 @@
+package datawave.microservice.dictionary.edge;
+
+import static datawave.microservice.dictionary.edge.EdgeDictionary.COL_SEPARATOR;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.iterators.user.RegExFilter;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Restricts a scan of the edge metadata to specific edge types, edge relationships and attribute1 sources. Edge metadata rows are
+ * {@code edgeType/edgeRelationship}, so exact edge types combined with edge relationship prefixes are turned into scan ranges, and attribute1 sources, which
+ * are the column qualifiers of the edge column family, are fetched as columns. Edge relationship prefixes without an edge type are evaluated by a
+ * {@link RegExFilter} on the tablet servers. When several criteria are given, an entry must match all of them.
+ */
+public class EdgeMetadataFilter {
+    
+    private static final EdgeMetadataFilter ALL = new EdgeMetadataFilter(Collections.emptySortedSet(), Collections.emptySortedSet(),
+                    Collections.emptySortedSet());
+    
+    private static final int REGEX_FILTER_PRIORITY = 19;
+    
+    private final SortedSet<String> edgeTypes;
+    private final SortedSet<String> edgeRelationships;
+    private final SortedSet<String> attribute1Sources;
+    
+    private EdgeMetadataFilter(SortedSet<String> edgeTypes, SortedSet<String> edgeRelationships, SortedSet<String> attribute1Sources) {
+        this.edgeTypes = edgeTypes;
+        this.edgeRelationships = edgeRelationships;
+        this.attribute1Sources = attribute1Sources;
+    }
+    
+    /**
+     * Return a filter that accepts all edge metadata.
+     *
+     * @return the filter
+     */
+    public static EdgeMetadataFilter all() {
+        return ALL;
+    }
+    
+    /**
+     * Create a filter from the specified criteria, any of which may be null or empty. Blank values are ignored.
+     *
+     * @param edgeTypes
+     *            the edge types to accept
+     * @param edgeRelationships
+     *            the prefixes of the edge relationships to accept
+     * @param attribute1Sources
+     *            the attribute1 sources to accept
+     * @return the filter
+     */
+    public static EdgeMetadataFilter of(Collection<String> edgeTypes, Collection<String> edgeRelationships, Collection<String> attribute1Sources) {
+        SortedSet<String> types = normalize(edgeTypes);
+        SortedSet<String> relationships = normalize(edgeRelationships);
+        SortedSet<String> sources = normalize(attribute1Sources);
+        if (types.isEmpty() && relationships.isEmpty() && sources.isEmpty()) {
+            return ALL;
+        }
+        return new EdgeMetadataFilter(types, relationships, sources);
+    }
+    
+    private static SortedSet<String> normalize(Collection<String> values) {
+        SortedSet<String> normalized = new TreeSet<>();
+        if (values != null) {
+            for (String value : values) {
+                if (StringUtils.isNotBlank(value)) {
+                    normalized.add(value.trim());
+                }
+            }
+        }
+        return normalized;
+    }
+    
+    /**
+     * Return whether this filter accepts all edge metadata.
+     *
+     * @return true if this filter accepts all edge metadata
+     */
+    public boolean acceptsAll() {
+        return edgeTypes.isEmpty() && edgeRelationships.isEmpty() && attribute1Sources.isEmpty();
+    }
+    
+    /**
+     * Return the sorted, non-overlapping ranges that cover every row this filter may accept.
+     *
+     * @return the ranges
+     */
+    public List<Range> getRanges() {
+        if (edgeTypes.isEmpty()) {
+            return Collections.singletonList(new Range());
+        }
+        List<Range> ranges = new ArrayList<>(edgeTypes.size() * Math.max(1, edgeRelationships.size()));
+        for (String edgeType : edgeTypes) {
+            if (edgeRelationships.isEmpty()) {
+                ranges.add(Range.prefix(edgeType + COL_SEPARATOR));
+            } else {
+                for (String edgeRelationship : edgeRelationships) {
+                    ranges.add(Range.prefix(edgeType + COL_SEPARATOR + edgeRelationship));
+                }
+            }
+        }
+        return Range.mergeOverlapping(ranges);
+    }
+    
+    /**
+     * Return the attribute1 sources to fetch as column qualifiers of the edge column family.
+     *
+     * @return the attribute1 sources, or an empty set to fetch the entire edge column family
+     */
+    public SortedSet<String> getAttribute1Sources() {
+        return Collections.unmodifiableSortedSet(attribute1Sources);
+    }
+    
+    /**
+     * Return the iterator that matches edge relationship prefixes on the tablet servers when no edge types are given to build ranges from.
+     *
+     * @return the iterator setting, or null if the ranges already restrict the edge relationships
+     */
+    public IteratorSetting getIteratorSetting() {
+        if (!edgeTypes.isEmpty() || edgeRelationships.isEmpty()) {
+            return null;
+        }
+        String relationships = edgeRelationships.stream().map(Pattern::quote).collect(Collectors.joining("|"));
+        IteratorSetting setting = new IteratorSetting(REGEX_FILTER_PRIORITY, "edgeRelationshipFilter", RegExFilter.class);
+        RegExFilter.setRegexs(setting, "[^" + COL_SEPARATOR + "]*" + COL_SEPARATOR + "(?:" + relationships + ").*", null, null, null, false);
+        return setting;
+    }
+    
+    @Override
+    public String toString() {
+        return "EdgeMetadataFilter{edgeTypes=" + edgeTypes + ", edgeRelationships=" + edgeRelationships + ", attribute1Sources=" + attribute1Sources + "}";
+    }
+}
@@ -6,28 +6,51 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.ScannerBase;
 import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
 import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.PartialKey;
 import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.user.RegExFilter;
+import org.apache.accumulo.core.iterators.user.TimestampFilter;
 import org.apache.accumulo.core.iterators.user.WholeRowIterator;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.io.Text;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.Maps;
+import com.google.common.annotations.VisibleForTesting;
 
 import datawave.data.ColumnFamilyConstants;
 import datawave.marking.MarkingFunctions;
@@ -43,46 +66,474 @@ import datawave.webservice.metadata.DefaultMetadataField;
 public class DefaultMetadataFieldScanner {
     
     private static final Logger log = LoggerFactory.getLogger(DefaultMetadataFieldScanner.class);
-    private static final String TIMESTAMP_FORMAT = "yyyyMMddHHmmss";
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    // Filter keys after the field name filter, and before they are grouped into rows by the WholeRowIterator at priority 21.
+    private static final int DATA_TYPE_FILTER_PRIORITY = 20;
+    // Filter changed entries before the field name filter at priority 19.
+    private static final int TIMESTAMP_FILTER_PRIORITY = 18;
+    // Split the table into more partitions than threads, so that a single large partition does not leave the other threads idle.
+    private static final int PARTITIONS_PER_THREAD = 4;
     
     private final MarkingFunctions markingFunctions;
     private final ResponseObjectFactory<DefaultDescription,?,DefaultMetadataField,?,?> responseObjectFactory;
     private final Map<String,String> normalizationMap;
     private final Connection connectionConfig;
     private final int numThreads;
+    private final FieldNameFilter fieldNameFilter;
+    private boolean rowSummaries;
+    private ExecutorService executor;
     
     public DefaultMetadataFieldScanner(MarkingFunctions markingFunctions,
                     ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> responseObjectFactory,
                     Map<String,String> normalizationMap, Connection connectionConfig, int numThreads) {
+        this(markingFunctions, responseObjectFactory, normalizationMap, connectionConfig, numThreads, FieldNameFilter.all());
+    }
+    
+    /**
+     * Create a scanner that only reads the rows of the field names accepted by the specified filter. The filter is applied to the scan ranges and on the
+     * tablet servers, so rows that are not accepted are never transferred. Snapshots are always of the entire metadata table.
+     *
+     * @param markingFunctions
+     *            the marking functions
+     * @param responseObjectFactory
+     *            the response object factory
+     * @param normalizationMap
+     *            the map of data types to normalized type names
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param numThreads
+     *            the number of threads to use when scanning the metadata table
+     * @param fieldNameFilter
+     *            the filter of field names to scan
+     */
+    public DefaultMetadataFieldScanner(MarkingFunctions markingFunctions,
+                    ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> responseObjectFactory,
+                    Map<String,String> normalizationMap, Connection connectionConfig, int numThreads, FieldNameFilter fieldNameFilter) {
         this.markingFunctions = markingFunctions;
         this.responseObjectFactory = responseObjectFactory;
         this.normalizationMap = normalizationMap;
         this.connectionConfig = connectionConfig;
         this.numThreads = numThreads;
+        this.fieldNameFilter = fieldNameFilter;
+    }
+    
+    public boolean isRowSummaries() {
+        return rowSummaries;
+    }
+    
+    /**
+     * Set whether metadata rows are aggregated on the tablet servers by the {@link MetadataRowSummaryIterator}, rather than returned in full by the
+     * {@link WholeRowIterator} and aggregated here. Row summaries transfer and decode far less per row, but require the iterator to be on the classpath of the
+     * tablet servers. Snapshots always use the {@link WholeRowIterator}, since they must retain the column visibility of every entry.
+     *
+     * @param rowSummaries
+     *            true to aggregate rows on the tablet servers
+     */
+    public void setRowSummaries(boolean rowSummaries) {
+        this.rowSummaries = rowSummaries;
+    }
+    
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+    
+    /**
+     * Set the executor to scan partitions of the metadata table on. The executor is not shut down by this scanner, so that it may be shared across requests.
+     *
+     * @param executor
+     *            the executor, or null to scan the metadata table on the calling thread
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
     }
     
     public Collection<DefaultMetadataField> getFields(Map<String,String> aliases, Collection<String> datatypeFilters) throws TableNotFoundException {
-        BatchScanner scanner = createScanner();
-        Transformer transformer = new Transformer(scanner.iterator(), aliases, datatypeFilters);
-        Collection<DefaultMetadataField> fields = transformer.transform();
-        scanner.close();
+        Collection<DefaultMetadataField> fields = new LinkedList<>();
+        // TODO - return an empty collection instead to avoid NPE?
+        return streamFields(aliases, datatypeFilters, fields::add) ? fields : null;
+    }
+    
+    /**
+     * Scan the metadata table and pass each {@link DefaultMetadataField} to the specified consumer as soon as the row it was read from has been transformed.
+     * Only the fields of the current row are held in memory, regardless of the size of the metadata table.
+     *
+     * <p>
+     *
+     * If this scanner has an executor and more than one thread, and the metadata table has more than one tablet, the table is instead partitioned along its
+     * tablet boundaries, and each partition is scanned and transformed on the executor. The fields of each partition are then passed to the consumer on the
+     * calling thread, in row order, so only the fields of the partitions in flight are held in memory.
+     *
+     * @param aliases
+     *            the map of field names to aliases from the query model
+     * @param datatypeFilters
+     *            the data types to return, or an empty collection to return all data types
+     * @param consumer
+     *            the consumer to pass each field to
+     * @return false if the scan was cut short by a null entry, or true otherwise
+     * @throws TableNotFoundException
+     *             if the metadata table is not found
+     */
+    public boolean streamFields(Map<String,String> aliases, Collection<String> datatypeFilters, Consumer<DefaultMetadataField> consumer)
+                    throws TableNotFoundException {
+        List<Range> ranges = fieldNameFilter.getRanges();
+        if (ranges.isEmpty()) {
+            return true;
+        }
+        List<List<Range>> partitions = executor != null && numThreads > 1 ? partition(ranges) : Collections.emptyList();
+        if (partitions.size() > 1) {
+            return streamPartitions(partitions, aliases, datatypeFilters, consumer);
+        }
+        BatchScanner scanner = createScanner(fieldNameFilter, datatypeFilters, rowSummaries);
+        scanner.setRanges(ranges);
+        try {
+            return transform(scanner.iterator(), aliases, datatypeFilters, consumer);
+        } finally {
+            scanner.close();
+        }
+    }
+    
+    /**
+     * Split the specified ranges along the tablet boundaries of the metadata table. Since a tablet never splits a row, each row falls entirely within a single
+     * partition, and the partitions can be scanned and transformed independently.
+     *
+     * @param ranges
+     *            the sorted ranges to split
+     * @return the ranges of each partition in row order, or an empty list if the tablet boundaries can not be determined
+     * @throws TableNotFoundException
+     *             if the metadata table is not found
+     */
+    private List<List<Range>> partition(List<Range> ranges) throws TableNotFoundException {
+        Collection<Text> splits;
+        try {
+            splits = connectionConfig.getAccumuloClient().tableOperations().listSplits(connectionConfig.getMetadataTable(),
+                            numThreads * PARTITIONS_PER_THREAD);
+        } catch (AccumuloException | AccumuloSecurityException e) {
+            log.debug("Unable to list the splits of {}, scanning it as a single partition", connectionConfig.getMetadataTable(), e);
+            return Collections.emptyList();
+        }
+        // The last tablet extends to the end of the table.
+        List<Text> endRows = new ArrayList<>(splits);
+        endRows.add(null);
+        List<List<Range>> partitions = new ArrayList<>(endRows.size());
+        Text prevSplit = null;
+        for (Text split : endRows) {
+            Range tablet = new Range(prevSplit, false, split, true);
+            List<Range> partition = new ArrayList<>();
+            for (Range range : ranges) {
+                Range clipped = tablet.clip(range, true);
+                if (clipped != null) {
+                    partition.add(clipped);
+                }
+            }
+            if (!partition.isEmpty()) {
+                partitions.add(partition);
+            }
+            prevSplit = split;
+        }
+        return partitions;
+    }
+    
+    /**
+     * Scan and transform the partitions on the executor, and pass the fields of each partition to the consumer in row order as the partitions complete. At
+     * most {@code numThreads} partitions are in flight at once, and the next partition is only submitted once the fields of the oldest one are taken, so the
+     * fields of completed partitions never accumulate ahead of the consumer.
+     *
+     * @param partitions
+     *            the ranges of each partition
+     * @param aliases
+     *            the map of field names to aliases from the query model
+     * @param datatypeFilters
+     *            the data types to return, or an empty collection to return all data types
+     * @param consumer
+     *            the consumer to pass each field to
+     * @return true
+     * @throws TableNotFoundException
+     *             if the metadata table is not found
+     */
+    private boolean streamPartitions(List<List<Range>> partitions, Map<String,String> aliases, Collection<String> datatypeFilters,
+                    Consumer<DefaultMetadataField> consumer) throws TableNotFoundException {
+        Iterator<List<Range>> remaining = partitions.iterator();
+        Deque<Future<List<DefaultMetadataField>>> inFlight = new ArrayDeque<>(numThreads);
+        try {
+            while (inFlight.size() < numThreads && remaining.hasNext()) {
+                inFlight.add(submitPartition(remaining.next(), aliases, datatypeFilters));
+            }
+            while (!inFlight.isEmpty()) {
+                List<DefaultMetadataField> fields = inFlight.remove().get();
+                if (remaining.hasNext()) {
+                    inFlight.add(submitPartition(remaining.next(), aliases, datatypeFilters));
+                }
+                fields.forEach(consumer);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scanning " + connectionConfig.getMetadataTable(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TableNotFoundException) {
+                throw (TableNotFoundException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Unable to scan " + connectionConfig.getMetadataTable(), cause);
+        } finally {
+            // Stop the scans of any partitions that are still in flight when the stream fails.
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+    
+    // Submit the scan of a single partition to the executor.
+    private Future<List<DefaultMetadataField>> submitPartition(List<Range> partition, Map<String,String> aliases, Collection<String> datatypeFilters) {
+        return executor.submit(() -> scanPartition(partition, aliases, datatypeFilters));
+    }
+    
+    // Scan the ranges of a single partition in turn, and return the transformed fields.
+    private List<DefaultMetadataField> scanPartition(List<Range> partition, Map<String,String> aliases, Collection<String> datatypeFilters)
+                    throws TableNotFoundException {
+        List<DefaultMetadataField> fields = new ArrayList<>();
+        Scanner scanner = configure(ScannerHelper.createScanner(connectionConfig.getAccumuloClient(), connectionConfig.getMetadataTable(),
+                        connectionConfig.getAuths()), fieldNameFilter, datatypeFilters, rowSummaries);
+        try {
+            for (Range range : partition) {
+                scanner.setRange(range);
+                transform(scanner.iterator(), aliases, datatypeFilters, fields::add);
+            }
+        } finally {
+            scanner.close();
+        }
         return fields;
     }
     
     /**
-     * Create and return a scanner that will aggregate metadata entries by their row.
+     * Scan the metadata table in row order, starting after the specified row, and pass each {@link DefaultMetadataField} to the specified consumer until at
+     * least {@code pageSize} fields have been passed. Rows are never split across pages, so the last page may hold more than {@code pageSize} fields if the
+     * last row holds several data types. Only the rows of the requested page are read from the metadata table.
+     *
+     * @param aliases
+     *            the map of field names to aliases from the query model
+     * @param datatypeFilters
+     *            the data types to return, or an empty collection to return all data types
+     * @param startAfterRow
+     *            the last row of the previous page, or null to start at the first row
+     * @param pageSize
+     *            the minimum number of fields to return unless the end of the table is reached
+     * @param consumer
+     *            the consumer to pass each field to
+     * @return the last row of the page if there may be more rows after it, or null if the end of the table was reached
+     * @throws TableNotFoundException
+     *             if the metadata table is not found
+     */
+    public String streamFieldsPage(Map<String,String> aliases, Collection<String> datatypeFilters, String startAfterRow, int pageSize,
+                    Consumer<DefaultMetadataField> consumer) throws TableNotFoundException {
+        Range remaining = startAfterRow == null ? new Range() : new Range(new Key(startAfterRow).followingKey(PartialKey.ROW), true, null, false);
+        Scanner scanner = configure(ScannerHelper.createScanner(connectionConfig.getAccumuloClient(), connectionConfig.getMetadataTable(),
+                        connectionConfig.getAuths()), fieldNameFilter, datatypeFilters, rowSummaries);
+        try {
+            // The ranges of the field name filter are sorted, so scanning them in turn returns rows in order.
+            Iterator<Range> ranges = fieldNameFilter.getRanges().iterator();
+            long transformed = 0;
+            String lastRow = null;
+            while (ranges.hasNext()) {
+                Range range = remaining.clip(ranges.next(), true);
+                if (range == null) {
+                    continue;
+                }
+                scanner.setRange(range);
+                Iterator<Map.Entry<Key,Value>> iterator = scanner.iterator();
+                Transformer transformer = new Transformer(iterator, aliases, datatypeFilters, consumer);
+                if (!transformer.transform(pageSize - transformed)) {
+                    return null;
+                }
+                transformed += transformer.transformed;
+                lastRow = transformer.lastRow == null ? lastRow : transformer.lastRow;
+                if (transformed >= pageSize) {
+                    return iterator.hasNext() || ranges.hasNext() ? lastRow : null;
+                }
+            }
+            return null;
+        } finally {
+            scanner.close();
+        }
+    }
+    
+    /**
+     * Pass each {@link DefaultMetadataField} whose field name and data type have an entry written at or after the specified timestamp to the specified
+     * consumer. The metadata table is first scanned for the entries written since the timestamp alone, which a {@link TimestampFilter} selects on the tablet
+     * servers, and then only the rows of those entries are read in full, so that the fields are complete. If the timestamp is not positive, every field is
+     * scanned in a single pass instead.
+     *
+     * <p>
+     *
+     * The returned high-water mark is the latest timestamp of the changed entries, but never later than the time this scan started, since entries may still
+     * be written to the ranges that have already been scanned. The bound is inclusive, so that entries written in the same millisecond after this scan are
+     * reported by the next one, and a field may be reported by consecutive scans. Changes are detected by entry timestamps alone: deleted entries, and fields
+     * that are now hidden, are not reported, and neither are entries written with a timestamp before the high-water mark.
+     *
+     * @param aliases
+     *            the map of field names to aliases from the query model
+     * @param datatypeFilters
+     *            the data types to return, or an empty collection to return all data types
+     * @param since
+     *            the timestamp, in milliseconds since the epoch, from which entries are considered changed
+     * @param consumer
+     *            the consumer to pass each changed field to
+     * @return the high-water mark from which to scan for the next changes, which is never earlier than {@code since}
+     * @throws TableNotFoundException
+     *             if the metadata table is not found
+     */
+    public long streamChanges(Map<String,String> aliases, Collection<String> datatypeFilters, long since, Consumer<DefaultMetadataField> consumer)
+                    throws TableNotFoundException {
+        long scanStart = System.currentTimeMillis();
+        if (since <= 0) {
+            // every field has changed, so there is no need to find the changed rows first
+            streamFields(aliases, datatypeFilters, consumer);
+            return scanStart;
+        }
+        List<Range> ranges = fieldNameFilter.getRanges();
+        if (ranges.isEmpty()) {
+            return since;
+        }
+        
+        // The changed data types of each changed row.
+        Map<String,Set<String>> changes = new TreeMap<>();
+        long latest = since;
+        BatchScanner changeScanner = configureEntries(ScannerHelper.createBatchScanner(connectionConfig.getAccumuloClient(),
+                        connectionConfig.getMetadataTable(), connectionConfig.getAuths(), numThreads), fieldNameFilter, datatypeFilters);
+        IteratorSetting timestampIterator = new IteratorSetting(TIMESTAMP_FILTER_PRIORITY, "timestampFilter", TimestampFilter.class);
+        TimestampFilter.setStart(timestampIterator, since, true);
+        changeScanner.addScanIterator(timestampIterator);
+        changeScanner.setRanges(ranges);
+        try {
+            for (Map.Entry<Key,Value> entry : changeScanner) {
+                // Handles a batch scanner bug where an entry with a null key and value may be in the iterator.
+                if (entry.getKey() == null && entry.getValue() == null) {
+                    break;
+                }
+                Key key = entry.getKey();
+                latest = Math.max(latest, key.getTimestamp());
+                ByteSequence columnQualifier = key.getColumnQualifierData();
+                int nullPos = indexOfNull(columnQualifier);
+                String dataType = (nullPos < 0 ? columnQualifier : columnQualifier.subSequence(0, nullPos)).toString();
+                changes.computeIfAbsent(key.getRow().toString(), row -> new HashSet<>()).add(dataType);
+            }
+        } finally {
+            changeScanner.close();
+        }
+        long highWaterMark = Math.max(since, Math.min(latest, scanStart));
+        if (changes.isEmpty()) {
+            return highWaterMark;
+        }
+        
+        // Read the changed rows in full, and drop the data types of each row that did not change.
+        BatchScanner rowScanner = createScanner(FieldNameFilter.all(), datatypeFilters, rowSummaries);
+        rowScanner.setRanges(changes.keySet().stream().map(Range::exact).collect(Collectors.toList()));
+        try {
+            transform(rowScanner.iterator(), aliases, datatypeFilters, field -> {
+                String internalFieldName = field.getInternalFieldName();
+                Set<String> dataTypes = changes.get(StringUtils.isEmpty(internalFieldName) ? field.getFieldName() : internalFieldName);
+                if (dataTypes != null && dataTypes.contains(field.getDataType())) {
+                    consumer.accept(field);
+                }
+            });
+        } finally {
+            rowScanner.close();
+        }
+        return highWaterMark;
+    }
+    
+    /**
+     * Scan the metadata table into a {@link MetadataFieldSnapshot}, from which the fields visible to any subset of the authorizations of this scanner can be
+     * assembled.
+     *
+     * @return the snapshot
+     * @throws TableNotFoundException
+     *             if the metadata table is not found
+     */
+    public MetadataFieldSnapshot getSnapshot() throws TableNotFoundException {
+        MetadataFieldSnapshot.Builder builder = new MetadataFieldSnapshot.Builder(markingFunctions, responseObjectFactory, normalizationMap);
+        BatchScanner scanner = createScanner(FieldNameFilter.all(), Collections.emptySet(), false);
+        scanner.setRanges(Collections.singletonList(new Range()));
+        try {
+            for (Map.Entry<Key,Value> entry : scanner) {
+                // Handles a batch scanner bug where an entry with a null key and value may be in the iterator.
+                if (entry.getKey() == null && entry.getValue() == null) {
+                    break;
+                }
+                try {
+                    builder.addRow(WholeRowIterator.decodeRow(entry.getKey(), entry.getValue()));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Unable to decode row " + entry.getKey());
+                } catch (MarkingFunctions.Exception e) {
+                    throw new IllegalStateException("Unable to decode visibility " + entry.getKey(), e);
+                }
+            }
+        } finally {
+            scanner.close();
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Create and return a scanner that will aggregate metadata entries by their row. The ranges of the scanner must be set by the caller.
      * 
+     * @param filter
+     *            the filter of field names to scan
+     * @param datatypeFilters
+     *            the data types to scan, or an empty collection to scan all data types
+     * @param summarizeRows
+     *            true to aggregate rows with the {@link MetadataRowSummaryIterator}, or false to use the {@link WholeRowIterator}
      * @return the scanner
      * @throws TableNotFoundException
      *             if the metadata table is not found
      */
-    private BatchScanner createScanner() throws TableNotFoundException {
+    private BatchScanner createScanner(FieldNameFilter filter, Collection<String> datatypeFilters, boolean summarizeRows) throws TableNotFoundException {
         BatchScanner scanner = ScannerHelper.createBatchScanner(connectionConfig.getAccumuloClient(), connectionConfig.getMetadataTable(),
                         connectionConfig.getAuths(), numThreads);
+        return configure(scanner, filter, datatypeFilters, summarizeRows);
+    }
+    
+    /**
+     * Configure the specified scanner to aggregate metadata entries by their row, and to fetch only the column families of metadata fields.
+     *
+     * @param scanner
+     *            the scanner to configure
+     * @param filter
+     *            the filter of field names to scan
+     * @param datatypeFilters
+     *            the data types to scan, or an empty collection to scan all data types
+     * @param summarizeRows
+     *            true to aggregate rows with the {@link MetadataRowSummaryIterator}, or false to use the {@link WholeRowIterator}
+     * @return the scanner
+     */
+    private <T extends ScannerBase> T configure(T scanner, FieldNameFilter filter, Collection<String> datatypeFilters, boolean summarizeRows) {
         // Ensure rows for the same field are grouped into a single iterator entry.
-        scanner.addScanIterator(new IteratorSetting(21, WholeRowIterator.class));
-        // Do not limit the scanner based on ranges.
-        scanner.setRanges(Collections.singletonList(new Range()));
+        scanner.addScanIterator(new IteratorSetting(21, summarizeRows ? MetadataRowSummaryIterator.class : WholeRowIterator.class));
+        return configureEntries(scanner, filter, datatypeFilters);
+    }
+    
+    /**
+     * Configure the specified scanner to return only the entries of the specified field names and data types, and only the column families of metadata
+     * fields, without aggregating them by their row.
+     *
+     * @param scanner
+     *            the scanner to configure
+     * @param filter
+     *            the filter of field names to scan
+     * @param datatypeFilters
+     *            the data types to scan, or an empty collection to scan all data types
+     * @return the scanner
+     */
+    private <T extends ScannerBase> T configureEntries(T scanner, FieldNameFilter filter, Collection<String> datatypeFilters) {
+        // Drop the entries of field names that do not match on the tablet servers, before they are grouped into rows.
+        IteratorSetting fieldNameIterator = filter.getIteratorSetting();
+        if (fieldNameIterator != null) {
+            scanner.addScanIterator(fieldNameIterator);
+        }
+        // Likewise drop the entries of data types that were not requested.
+        if (!datatypeFilters.isEmpty()) {
+            scanner.addScanIterator(createDataTypeIterator(datatypeFilters));
+        }
         scanner.fetchColumnFamily(ColumnFamilyConstants.COLF_E);
         scanner.fetchColumnFamily(ColumnFamilyConstants.COLF_I);
         scanner.fetchColumnFamily(ColumnFamilyConstants.COLF_RI);
@@ -93,57 +544,141 @@ public class DefaultMetadataFieldScanner {
         return scanner;
     }
     
+    /**
+     * Create an iterator that drops every entry whose column qualifier does not start with one of the specified data types. Hidden entries are always kept,
+     * since a hidden entry of any data type hides the entire row.
+     *
+     * @param datatypeFilters
+     *            the data types to keep
+     * @return the iterator setting
+     */
+    static IteratorSetting createDataTypeIterator(Collection<String> datatypeFilters) {
+        // The column qualifier is either the data type, or the data type followed by a null byte and further detail such as the type class.
+        String dataTypes = datatypeFilters.stream().map(Pattern::quote).collect(Collectors.joining("|"));
+        IteratorSetting setting = new IteratorSetting(DATA_TYPE_FILTER_PRIORITY, "dataTypeFilter", RegExFilter.class);
+        RegExFilter.setRegexs(setting, null, ColumnFamilyConstants.COLF_H.toString(), "(?s)(?:" + dataTypes + ")(?:\\x00.*)?", null, true);
+        return setting;
+    }
+    
+    // A field of the row being transformed, along with the raw data type it was created for.
+    private static class RowField {
+        
+        private final ByteSequence dataType; // The data type as it appears in the column qualifiers of the row.
+        private final DefaultMetadataField field; // The transformed field, or null if the data type was filtered out.
+        private long lastUpdated = Long.MIN_VALUE; // The last updated timestamp, which is only formatted once the row is complete.
+        
+        private RowField(ByteSequence dataType, DefaultMetadataField field) {
+            this.dataType = dataType;
+            this.field = field;
+        }
+    }
+    
+    /**
+     * Transform the rows returned by a scan configured by this scanner into {@link DefaultMetadataField}, and pass them to the specified consumer. The rows
+     * must have been aggregated by the {@link MetadataRowSummaryIterator} if row summaries are enabled, or by the {@link WholeRowIterator} otherwise.
+     *
+     * @param iterator
+     *            the rows to transform
+     * @param aliases
+     *            the map of field names to aliases from the query model
+     * @param datatypeFilters
+     *            the data types to return, or an empty collection to return all data types
+     * @param consumer
+     *            the consumer to pass each field to
+     * @return false if a null entry was encountered, or true otherwise
+     */
+    @VisibleForTesting
+    boolean transform(Iterator<Map.Entry<Key,Value>> iterator, Map<String,String> aliases, Collection<String> datatypeFilters,
+                    Consumer<DefaultMetadataField> consumer) {
+        return new Transformer(iterator, aliases, datatypeFilters, consumer).transform();
+    }
+    
     private class Transformer {
         
         private final Iterator<Map.Entry<Key,Value>> iterator;
         private final Map<String,String> aliases;
         private final Collection<String> dataTypeFilters;
         private final boolean acceptAllDataTypes;
+        private final Consumer<DefaultMetadataField> consumer;
+        
+        private final List<RowField> fields = new ArrayList<>(); // The fields of the current row, one per data type.
+        private final Map<ByteSequence,String> normalizedTypes = new HashMap<>(); // Normalized types by type class, kept across rows.
         
-        private final Map<String,Map<String,DefaultMetadataField>> fields; // Map of field names to data types to transformed fields.
-        private final Text currRow = new Text(); // Used to copy the current row into.
-        private final Text currColumnFamily = new Text(); // Used to copy the current column family into.
+        private String lastRow; // The row of the last entry transformed.
+        private long transformed; // The number of fields passed to the consumer.
         
+        private String currFieldName; // The field name of the current row, or its alias from the query model.
+        private String currInternalFieldName; // The field name of the current row if it has an alias, or null otherwise.
         private Key currKey;
         private Value currValue;
-        private String currColumnQualifier;
-        private DefaultMetadataField currField;
+        private ByteSequence currColumnQualifier;
+        private int currNullPos; // The position of the null byte in the current column qualifier, or -1 if there is none.
+        private RowField currField;
         
-        private Transformer(Iterator<Map.Entry<Key,Value>> iterator, Map<String,String> aliases, Collection<String> dataTypeFilters) {
+        private Transformer(Iterator<Map.Entry<Key,Value>> iterator, Map<String,String> aliases, Collection<String> dataTypeFilters,
+                        Consumer<DefaultMetadataField> consumer) {
             this.iterator = iterator;
             this.aliases = aliases;
             this.dataTypeFilters = dataTypeFilters;
             this.acceptAllDataTypes = dataTypeFilters.isEmpty();
-            fields = new HashMap<>();
+            this.consumer = consumer;
         }
         
         /**
-         * Transform the iterator entries into {@link DefaultMetadataField} and return them.
+         * Transform the iterator entries into {@link DefaultMetadataField} and pass them to the consumer, one row at a time.
          * 
-         * @return the transformed fields
+         * @return false if a null entry was encountered, or true otherwise
+         */
+        private boolean transform() {
+            return transform(Long.MAX_VALUE);
+        }
+        
+        /**
+         * Transform the iterator entries into {@link DefaultMetadataField} and pass them to the consumer, one row at a time, until at least the specified
+         * number of fields have been passed.
+         *
+         * @param limit
+         *            the number of fields after which to stop at the end of the current row
+         * @return false if a null entry was encountered, or true otherwise
          */
-        private Collection<DefaultMetadataField> transform() {
-            while (iterator.hasNext()) {
+        private boolean transform(long limit) {
+            while (transformed < limit && iterator.hasNext()) {
                 Map.Entry<Key,Value> entry = iterator.next();
                 try {
                     // Handles a batch scanner bug where an entry with a null key and value may be in the iterator.
                     if (entry.getKey() == null && entry.getValue() == null)
-                        // TODO - return an empty collection instead to avoid NPE?
-                        return null;
+                        return false;
                     // Check if either the key or value are null, and throw an exception if so.
                     if (null == entry.getKey() || null == entry.getValue()) {
                         throw new IllegalArgumentException("Null key or value. Key:" + entry.getKey() + ", Value: " + entry.getValue());
                     }
-                    transformEntry(entry);
+                    String row = entry.getKey().getRow().toString();
+                    setFieldNameAndAlias(row);
+                    currField = null;
+                    if (rowSummaries) {
+                        transformSummaries(entry);
+                    } else {
+                        transformEntry(entry);
+                    }
+                    // Each entry holds an entire row, so the fields for the row are complete.
+                    for (RowField rowField : fields) {
+                        if (rowField.field != null) {
+                            if (rowField.lastUpdated != Long.MIN_VALUE) {
+                                rowField.field.setLastUpdated(formatTimestamp(rowField.lastUpdated));
+                            }
+                            consumer.accept(rowField.field);
+                            transformed++;
+                        }
+                    }
+                    fields.clear();
+                    lastRow = row;
                 } catch (IOException e) {
                     throw new IllegalStateException("Unable to decode row " + entry.getKey());
                 } catch (MarkingFunctions.Exception e) {
                     throw new IllegalStateException("Unable to decode visibility " + entry.getKey(), e);
                 }
             }
-            // @formatter::off
-            return fields.values().stream().map(Map::values).flatMap(Collection::stream).collect(Collectors.toCollection(LinkedList::new));
-            // @formatter::on
+            return true;
         }
         
         private void transformEntry(Map.Entry<Key,Value> currEntry) throws IOException, MarkingFunctions.Exception {
@@ -156,66 +691,83 @@ public class DefaultMetadataFieldScanner {
                 // previously transformed entries for this row are not in the final results.
                 if (isColumnFamly(ColumnFamilyConstants.COLF_H)) {
                     currField = null;
-                    fields.remove(currRow.toString());
+                    fields.clear();
                     break;
                 }
                 
-                // Verify that the row should not be filtered out due to its datatype.
-                String dataType = getDataType();
-                if (hasAllowedDataType(dataType)) {
-                    
-                    // Set the current transformed field that will be modified from here on.
-                    setCurrentField(dataType);
-                    
-                    // If this an event field, then this is not an indexed field. Use the field name and timestamp of this entry.
-                    if (isColumnFamly(ColumnFamilyConstants.COLF_E)) {
-                        currField.setIndexOnly(false);
-                        setFieldNameAndAlias();
-                        setLastUpdated();
-                        // Check if this is a forward-indexed field.
-                    } else if (isColumnFamly(ColumnFamilyConstants.COLF_I)) {
-                        currField.setForwardIndexed(true);
-                        // Check if this is a reversed-indexed field
-                    } else if (isColumnFamly(ColumnFamilyConstants.COLF_RI)) {
-                        currField.setReverseIndexed(true);
-                        // If this is an description entry, extract the description and add it to the transformed field.
-                    } else if (isColumnFamly(ColumnFamilyConstants.COLF_DESC)) {
-                        setDescriptions();
-                        // If this is a type entry, add it to the field.
-                    } else if (isColumnFamly(ColumnFamilyConstants.COLF_T)) {
-                        setType();
-                        // Check if the field is tokenized.
-                    } else if (isColumnFamly(ColumnFamilyConstants.COLF_TF)) {
-                        currField.setTokenized(true);
-                    } else {
-                        log.warn("Unknown entry with key={}, value={}", currKey, currValue);
+                // Set the current transformed field that will be modified from here on, and skip the entry if its data type is filtered out.
+                setCurrentField();
+                DefaultMetadataField field = currField.field;
+                if (field == null) {
+                    continue;
+                }
+                
+                // If this an event field, then this is not an indexed field. Use the timestamp of this entry.
+                if (isColumnFamly(ColumnFamilyConstants.COLF_E)) {
+                    field.setIndexOnly(false);
+                    setLastUpdated();
+                    // Check if this is a forward-indexed field.
+                } else if (isColumnFamly(ColumnFamilyConstants.COLF_I)) {
+                    field.setForwardIndexed(true);
+                    // Check if this is a reversed-indexed field
+                } else if (isColumnFamly(ColumnFamilyConstants.COLF_RI)) {
+                    field.setReverseIndexed(true);
+                    // If this is an description entry, extract the description and add it to the transformed field.
+                } else if (isColumnFamly(ColumnFamilyConstants.COLF_DESC)) {
+                    addDescription(currValue.toString(), currKey.getColumnVisibilityParsed());
+                    // If this is a type entry, add it to the field.
+                } else if (isColumnFamly(ColumnFamilyConstants.COLF_T)) {
+                    setType();
+                    // Check if the field is tokenized.
+                } else if (isColumnFamly(ColumnFamilyConstants.COLF_TF)) {
+                    field.setTokenized(true);
+                } else {
+                    log.warn("Unknown entry with key={}, value={}", currKey, currValue);
+                }
+                
+                // Determine the lastUpdated value for index-only fields without including timestamps from description rows.
+                if (field.isIndexOnly() && !isColumnFamly(ColumnFamilyConstants.COLF_DESC)) {
+                    setLastUpdated();
+                }
+            }
+        }
+        
+        // Transform the data type summaries of a row aggregated by the MetadataRowSummaryIterator. Hidden rows have already been dropped.
+        private void transformSummaries(Map.Entry<Key,Value> currEntry) throws IOException, MarkingFunctions.Exception {
+            for (MetadataRowSummaryIterator.Summary summary : MetadataRowSummaryIterator.decodeRow(currEntry.getValue())) {
+                if (hasAllowedDataType(summary.getDataType())) {
+                    // Each data type is only summarized once, so its field is never looked up by the raw data type.
+                    currField = new RowField(null, createField(summary.getDataType()));
+                    fields.add(currField);
+                    DefaultMetadataField field = currField.field;
+                    field.setIndexOnly(summary.isIndexOnly());
+                    field.setForwardIndexed(summary.isForwardIndexed());
+                    field.setReverseIndexed(summary.isReverseIndexed());
+                    field.setTokenized(summary.isTokenized());
+                    for (String type : summary.getTypes()) {
+                        field.addType(normalizeType(type));
                     }
-                    
-                    // If the field name is null, this is potentially an index-only field which has no event ("e") entry.
-                    // Use the field name of this entry. These values will be replaced if an event entry is encountered later on.
-                    if (currField.getFieldName() == null) {
-                        setFieldNameAndAlias();
+                    for (MetadataRowSummaryIterator.Description description : summary.getDescriptions()) {
+                        addDescription(description.getText(), new ColumnVisibility(description.getVisibility()));
                     }
-                    // Determine the lastUpdated value for index-only fields without including timestamps from description rows.
-                    if (currField.isIndexOnly() && !isColumnFamly(ColumnFamilyConstants.COLF_DESC)) {
-                        setLastUpdated();
+                    if (summary.hasLastUpdated()) {
+                        currField.lastUpdated = summary.getLastUpdated();
                     }
                 }
             }
         }
         
-        // Set the current variables from the specified entry.
+        // Set the current variables from the specified entry. The column qualifier is referenced rather than copied.
         private void setCurrentVars(Map.Entry<Key,Value> entry) {
             currKey = entry.getKey();
             currValue = entry.getValue();
-            currKey.getRow(currRow);
-            currKey.getColumnFamily(currColumnFamily);
-            currColumnQualifier = currKey.getColumnQualifier().toString();
+            currColumnQualifier = currKey.getColumnQualifierData();
+            currNullPos = indexOfNull(currColumnQualifier);
         }
         
         // Return true if the current column family is equal to the specified text, or false otherwise.
         private boolean isColumnFamly(Text columnFamily) {
-            return columnFamily.equals(currColumnFamily);
+            return currKey.compareColumnFamily(columnFamily) == 0;
         }
         
         // Return true if all data types are allowed or if the given data type is in the set of data type filters, or false otherwise.
@@ -223,68 +775,95 @@ public class DefaultMetadataFieldScanner {
             return acceptAllDataTypes || dataTypeFilters.contains(dataType);
         }
         
-        // Return the data type from the current column qualifier.
-        private String getDataType() {
-            int nullPos = currColumnQualifier.indexOf('\0');
-            return (nullPos < 0) ? currColumnQualifier : currColumnQualifier.substring(0, nullPos);
+        // Set the current {@link RowField} for the data type of the current column qualifier. Rows hold few data types, so the fields of the row are searched
+        // by comparing raw bytes, and a data type is only decoded into a string the first time it is seen in the row.
+        private void setCurrentField() {
+            ByteSequence dataType = currNullPos < 0 ? currColumnQualifier : currColumnQualifier.subSequence(0, currNullPos);
+            if (currField != null && dataType.equals(currField.dataType)) {
+                return;
+            }
+            for (RowField rowField : fields) {
+                if (dataType.equals(rowField.dataType)) {
+                    currField = rowField;
+                    return;
+                }
+            }
+            
+            String dataTypeName = dataType.toString();
+            currField = new RowField(new ArrayByteSequence(dataType.toArray()), hasAllowedDataType(dataTypeName) ? createField(dataTypeName) : null);
+            fields.add(currField);
         }
         
-        // Set the current {@link DefaultMetadataField}. If a field already exists for the given field name and data type combination, it will be reused,
-        // otherwise a new {@link DefaultMetadataField} will be created.
-        private void setCurrentField(final String dataType) {
-            Map<String,DefaultMetadataField> dataTypes = fields.computeIfAbsent(currRow.toString(), k -> Maps.newHashMap());
-            currField = dataTypes.get(dataType);
-            
-            // If a field does not yet exist for the field name and data type, create a new one that
-            // defaults to index-only, which shall be cleared if we see an event entry.
-            if (currField == null) {
-                currField = new DefaultMetadataField();
-                currField.setIndexOnly(true);
-                currField.setDataType(dataType);
-                dataTypes.put(dataType, currField);
+        // Create a new {@link DefaultMetadataField} for the current row and the given data type. It defaults to index-only, which shall be cleared if we see
+        // an event entry.
+        private DefaultMetadataField createField(String dataType) {
+            DefaultMetadataField field = new DefaultMetadataField();
+            field.setIndexOnly(true);
+            field.setDataType(dataType);
+            field.setFieldName(currFieldName);
+            if (currInternalFieldName != null) {
+                field.setInternalFieldName(currInternalFieldName);
             }
+            return field;
         }
         
-        // Set the field name for the current {@link DefaultMetadataField}. If an alias exists for the field name, the alias will be used as the primary field
-        // name while the original field name is relegated to the internal field name.
-        private void setFieldNameAndAlias() {
-            String fieldName = currKey.getRow().toString();
-            if (aliases.containsKey(fieldName)) {
-                currField.setFieldName(aliases.get(fieldName));
-                currField.setInternalFieldName(fieldName);
+        // Set the field name for the fields of the current row. If an alias exists for the field name, the alias will be used as the primary field name while
+        // the original field name is relegated to the internal field name.
+        private void setFieldNameAndAlias(String fieldName) {
+            String alias = aliases.get(fieldName);
+            if (alias != null) {
+                currFieldName = alias;
+                currInternalFieldName = fieldName;
             } else {
-                currField.setFieldName(fieldName);
+                currFieldName = fieldName;
+                currInternalFieldName = null;
             }
         }
         
-        // Extract the description from the current value and add it to the current {@link DefaultMetadataField}.
-        private void setDescriptions() throws MarkingFunctions.Exception {
+        // Add a description with the given text and visibility to the current {@link DefaultMetadataField}.
+        private void addDescription(String text, ColumnVisibility visibility) throws MarkingFunctions.Exception {
             DefaultDescription description = responseObjectFactory.getDescription();
-            description.setDescription(currValue.toString());
-            description.setMarkings(markingFunctions.translateFromColumnVisibility(currKey.getColumnVisibilityParsed()));
-            currField.getDescriptions().add(description);
+            description.setDescription(text);
+            description.setMarkings(markingFunctions.translateFromColumnVisibility(visibility));
+            currField.field.getDescriptions().add(description);
         }
         
-        // Set the normalized type for the current {@link DefaultMetadataField}. If no normalized version can be found for the type, the type will default to
-        // "Unknown".
+        // Add the normalized type from the current column qualifier to the current {@link DefaultMetadataField}. Normalized types are cached by the raw type
+        // class, so that the type class is only decoded into a string the first time it is seen.
         private void setType() {
-            int nullPos = currColumnQualifier.indexOf('\0');
-            String type = currColumnQualifier.substring(nullPos + 1);
+            ByteSequence type = currColumnQualifier.subSequence(currNullPos + 1, currColumnQualifier.length());
+            String normalizedType = normalizedTypes.get(type);
+            if (normalizedType == null) {
+                normalizedType = normalizeType(type.toString());
+                normalizedTypes.put(new ArrayByteSequence(type.toArray()), normalizedType);
+            }
+            currField.field.addType(normalizedType);
+        }
+        
+        // Return the normalized version of the specified type. If no normalized version can be found for the type, the type will default to "Unknown".
+        private String normalizeType(String type) {
             String normalizedType = normalizationMap.get(type);
-            currField.addType(normalizedType != null ? normalizedType : "Unknown");
+            return normalizedType != null ? normalizedType : "Unknown";
         }
         
-        // Set the last updated date for the current {@link DefaultMetadataField} based on the timestamp of the current entry.
+        // Set the last updated timestamp for the current {@link RowField} to the timestamp of the current entry, if it is later.
         private void setLastUpdated() {
-            String formattedCurrentKeyTimeStamp = Instant.ofEpochMilli(currKey.getTimestamp()).atZone(ZoneId.systemDefault()).toLocalDateTime()
-                            .format(DateTimeFormatter.ofPattern(TIMESTAMP_FORMAT));
-            if (currField.getLastUpdated() != null) {
-                if (Long.parseLong(currField.getLastUpdated()) < Long.parseLong(formattedCurrentKeyTimeStamp)) {
-                    currField.setLastUpdated(formattedCurrentKeyTimeStamp);
-                }
-            } else {
-                currField.setLastUpdated(formattedCurrentKeyTimeStamp);
+            currField.lastUpdated = Math.max(currField.lastUpdated, currKey.getTimestamp());
+        }
+    }
+    
+    // Return the position of the first null byte in the specified sequence, or -1 if there is none.
+    private static int indexOfNull(ByteSequence bytes) {
+        for (int i = 0; i < bytes.length(); i++) {
+            if (bytes.byteAt(i) == 0) {
+                return i;
             }
         }
+        return -1;
+    }
+    
+    // Format the specified timestamp in the local time zone.
+    private static String formatTimestamp(long timestamp) {
+        return Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault()).toLocalDateTime().format(TIMESTAMP_FORMATTER);
     }
 }
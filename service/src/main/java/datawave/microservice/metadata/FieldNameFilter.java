@@ -0,0 +1,202 @@
+package datawave.microservice.metadata;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.iterators.user.RegExFilter;
+import org.apache.commons.lang.StringUtils;
+
+import datawave.webservice.metadata.MetadataFieldBase;
+
+/**
+ * Restricts a scan of the metadata table to the rows of specific field names. A field is accepted if either the name it is stored under in the metadata table
+ * or its alias from the query model matches. Exact field names and a prefix are turned into scan ranges, so that only the matching rows are read from the
+ * tablet servers, and a regular expression is evaluated by a {@link RegExFilter} on the tablet servers. When several criteria are given, a name must match all
+ * of them. Since rows are stored under their original names, a filter is resolved against the aliases of the query model with {@link #withAliases(Map)}
+ * before it is used to scan.
+ */
+public class FieldNameFilter {
+    
+    private static final FieldNameFilter ALL = new FieldNameFilter(Collections.emptySortedSet(), null, null, Collections.emptySortedSet());
+    
+    // Filter keys before they are grouped into rows by the WholeRowIterator at priority 21.
+    private static final int REGEX_FILTER_PRIORITY = 19;
+    
+    private final SortedSet<String> fieldNames;
+    private final String prefix;
+    private final Pattern pattern;
+    // the names of the rows whose alias is accepted, although the names they are stored under are not
+    private final SortedSet<String> aliasedFieldNames;
+    
+    private FieldNameFilter(SortedSet<String> fieldNames, String prefix, Pattern pattern, SortedSet<String> aliasedFieldNames) {
+        this.fieldNames = fieldNames;
+        this.prefix = prefix;
+        this.pattern = pattern;
+        this.aliasedFieldNames = aliasedFieldNames;
+    }
+    
+    /**
+     * Return a filter that accepts every field name.
+     *
+     * @return the filter
+     */
+    public static FieldNameFilter all() {
+        return ALL;
+    }
+    
+    /**
+     * Create a filter from the specified criteria, any of which may be blank. Field names and the prefix are upper-cased, as field names are in the metadata
+     * table, and the regular expression is matched without regard to case.
+     *
+     * @param fieldNames
+     *            the field names to accept
+     * @param prefix
+     *            the prefix of the field names to accept
+     * @param regex
+     *            the regular expression that the entire field name must match
+     * @return the filter
+     * @throws IllegalArgumentException
+     *             if the regular expression is invalid
+     */
+    public static FieldNameFilter of(Collection<String> fieldNames, String prefix, String regex) {
+        SortedSet<String> names = new TreeSet<>();
+        if (fieldNames != null) {
+            for (String fieldName : fieldNames) {
+                if (StringUtils.isNotBlank(fieldName)) {
+                    names.add(fieldName.trim().toUpperCase());
+                }
+            }
+        }
+        String upperPrefix = StringUtils.isBlank(prefix) ? null : prefix.trim().toUpperCase();
+        // The flag is inlined rather than passed to compile, so that the RegExFilter on the tablet servers matches the same names.
+        Pattern pattern = StringUtils.isBlank(regex) ? null : Pattern.compile("(?i:" + regex + ")");
+        if (names.isEmpty() && upperPrefix == null && pattern == null) {
+            return ALL;
+        }
+        return new FieldNameFilter(names, upperPrefix, pattern, Collections.emptySortedSet());
+    }
+    
+    /**
+     * Return this filter resolved against the aliases of a query model, so that it also accepts the rows of the field names whose alias is accepted.
+     *
+     * @param aliases
+     *            the map of field names to aliases from the query model
+     * @return the resolved filter, which is this filter if no alias is accepted
+     */
+    public FieldNameFilter withAliases(Map<String,String> aliases) {
+        if (acceptsAll() || aliases.isEmpty()) {
+            return this;
+        }
+        SortedSet<String> aliasedNames = new TreeSet<>(aliasedFieldNames);
+        aliases.forEach((fieldName, alias) -> {
+            if (!matches(fieldName) && matches(alias.toUpperCase())) {
+                aliasedNames.add(fieldName);
+            }
+        });
+        if (aliasedNames.equals(aliasedFieldNames)) {
+            return this;
+        }
+        return new FieldNameFilter(fieldNames, prefix, pattern, aliasedNames);
+    }
+    
+    /**
+     * Return whether this filter accepts every field name.
+     *
+     * @return true if this filter accepts every field name
+     */
+    public boolean acceptsAll() {
+        return fieldNames.isEmpty() && prefix == null && pattern == null;
+    }
+    
+    /**
+     * Return whether the specified field name, as stored in the metadata table, is accepted by this filter. Aliases are only taken into account if this filter
+     * was resolved against them with {@link #withAliases(Map)}.
+     *
+     * @param fieldName
+     *            the field name
+     * @return true if the field name is accepted
+     */
+    public boolean accepts(String fieldName) {
+        return matches(fieldName) || aliasedFieldNames.contains(fieldName);
+    }
+    
+    /**
+     * Return whether the specified field is accepted by this filter. The field is accepted if either the name it is stored under in the metadata table, which
+     * is its internal field name if an alias from the query model was applied to it, or its alias is accepted.
+     *
+     * @param field
+     *            the field
+     * @return true if the field is accepted
+     */
+    public boolean accepts(MetadataFieldBase<?,?> field) {
+        String internalFieldName = field.getInternalFieldName();
+        if (StringUtils.isEmpty(internalFieldName) || internalFieldName.equals(field.getFieldName())) {
+            return accepts(field.getFieldName());
+        }
+        return accepts(internalFieldName) || matches(field.getFieldName().toUpperCase());
+    }
+    
+    // Return whether the specified name matches all of the criteria of this filter.
+    private boolean matches(String name) {
+        return (fieldNames.isEmpty() || fieldNames.contains(name)) && (prefix == null || name.startsWith(prefix))
+                        && (pattern == null || pattern.matcher(name).matches());
+    }
+    
+    /**
+     * Return the sorted, non-overlapping ranges that cover every row this filter may accept.
+     *
+     * @return the ranges
+     */
+    public List<Range> getRanges() {
+        List<Range> ranges = new ArrayList<>(fieldNames.size() + aliasedFieldNames.size() + 1);
+        if (!fieldNames.isEmpty()) {
+            for (String fieldName : fieldNames) {
+                if (prefix == null || fieldName.startsWith(prefix)) {
+                    ranges.add(Range.exact(fieldName));
+                }
+            }
+        } else if (prefix != null) {
+            ranges.add(Range.prefix(prefix));
+        } else {
+            ranges.add(new Range());
+        }
+        if (aliasedFieldNames.isEmpty()) {
+            return ranges;
+        }
+        for (String fieldName : aliasedFieldNames) {
+            ranges.add(Range.exact(fieldName));
+        }
+        return Range.mergeOverlapping(ranges);
+    }
+    
+    /**
+     * Return the iterator that applies the regular expression of this filter on the tablet servers.
+     *
+     * @return the iterator setting, or null if this filter has no regular expression
+     */
+    public IteratorSetting getIteratorSetting() {
+        if (pattern == null) {
+            return null;
+        }
+        StringBuilder regex = new StringBuilder(pattern.pattern());
+        for (String fieldName : aliasedFieldNames) {
+            regex.append('|').append(Pattern.quote(fieldName));
+        }
+        IteratorSetting setting = new IteratorSetting(REGEX_FILTER_PRIORITY, "fieldNameFilter", RegExFilter.class);
+        RegExFilter.setRegexs(setting, regex.toString(), null, null, null, false);
+        return setting;
+    }
+    
+    @Override
+    public String toString() {
+        return "FieldNameFilter{fieldNames=" + fieldNames + ", prefix=" + prefix + ", pattern=" + pattern + ", aliasedFieldNames=" + aliasedFieldNames + "}";
+    }
+}
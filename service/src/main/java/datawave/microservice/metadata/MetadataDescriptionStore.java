@@ -0,0 +1,286 @@
+package datawave.microservice.metadata;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+
+import datawave.data.ColumnFamilyConstants;
+import datawave.marking.MarkingFunctions;
+import datawave.microservice.Connection;
+import datawave.microservice.dictionary.config.ResponseObjectFactory;
+import datawave.query.util.MetadataEntry;
+import datawave.security.util.ScannerHelper;
+import datawave.webservice.dictionary.data.DescriptionBase;
+
+/**
+ * A long-lived, in-memory store of the descriptions in each metadata table. The descriptions of a metadata table are scanned once with the service
+ * authorizations and held with their column visibilities, so that the descriptions visible to any set of authorizations can be served without scanning the
+ * metadata table again. Descriptions set or removed through the data dictionary are applied to the store in place, and each metadata table is scanned again
+ * once its descriptions are older than the configured maximum age, to pick up any descriptions written by other means.
+ *
+ * @param <DESC>
+ *            the type of the descriptions
+ */
+public class MetadataDescriptionStore<DESC extends DescriptionBase<DESC>> {
+    
+    private static final Logger log = LoggerFactory.getLogger(MetadataDescriptionStore.class);
+    
+    private final MarkingFunctions markingFunctions;
+    private final ResponseObjectFactory<DESC,?,?,?,?> responseObjectFactory;
+    private final long maxAgeMillis;
+    private final String serviceAuths;
+    private final Map<String,TableDescriptions> tables = new ConcurrentHashMap<>();
+    
+    /**
+     * Create a description store.
+     *
+     * @param markingFunctions
+     *            the marking functions
+     * @param responseObjectFactory
+     *            the response object factory
+     * @param maxAge
+     *            the maximum age of the descriptions of a metadata table before it is scanned again
+     * @param serviceAuths
+     *            the comma-delimited authorizations to scan descriptions with, or null to use the authorizations of the accumulo user
+     */
+    public MetadataDescriptionStore(MarkingFunctions markingFunctions, ResponseObjectFactory<DESC,?,?,?,?> responseObjectFactory, Duration maxAge,
+                    String serviceAuths) {
+        this.markingFunctions = markingFunctions;
+        this.responseObjectFactory = responseObjectFactory;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.serviceAuths = serviceAuths;
+    }
+    
+    /**
+     * Retrieve the descriptions with one of the specified data types that are visible to the authorizations of the specified connection.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param datatypes
+     *            the data types to retrieve, or null or an empty set to retrieve all data types
+     * @return the visible descriptions
+     */
+    public SetMultimap<MetadataEntry,DESC> getDescriptions(Connection connectionConfig, Set<String> datatypes)
+                    throws TableNotFoundException, AccumuloException, AccumuloSecurityException, MarkingFunctions.Exception {
+        Map<MetadataEntry,Map<ColumnVisibility,StoredDescription>> entries = getTable(connectionConfig.getMetadataTable())
+                        .getEntries(connectionConfig.getAccumuloClient());
+        VisibilityFilter filter = new VisibilityFilter(connectionConfig.getAuths());
+        SetMultimap<MetadataEntry,DESC> descriptions = HashMultimap.create();
+        for (Map.Entry<MetadataEntry,Map<ColumnVisibility,StoredDescription>> entry : entries.entrySet()) {
+            if (datatypes == null || datatypes.isEmpty() || datatypes.contains(entry.getKey().getDatatype())) {
+                addVisibleDescriptions(entry.getValue(), filter, descriptions.get(entry.getKey()));
+            }
+        }
+        return descriptions;
+    }
+    
+    /**
+     * Retrieve the descriptions of the specified field name and data type that are visible to the authorizations of the specified connection.
+     *
+     * @param connectionConfig
+     *            the connection configuration to use when connecting to accumulo
+     * @param fieldName
+     *            the field name
+     * @param datatype
+     *            the data type
+     * @return the visible descriptions
+     */
+    public Set<DESC> getDescriptions(Connection connectionConfig, String fieldName, String datatype)
+                    throws TableNotFoundException, AccumuloException, AccumuloSecurityException, MarkingFunctions.Exception {
+        Map<MetadataEntry,Map<ColumnVisibility,StoredDescription>> entries = getTable(connectionConfig.getMetadataTable())
+                        .getEntries(connectionConfig.getAccumuloClient());
+        Map<ColumnVisibility,StoredDescription> stored = entries.get(new MetadataEntry(fieldName, datatype));
+        if (stored == null) {
+            return Collections.emptySet();
+        }
+        Set<DESC> descriptions = new HashSet<>();
+        addVisibleDescriptions(stored, new VisibilityFilter(connectionConfig.getAuths()), descriptions);
+        return descriptions;
+    }
+    
+    /**
+     * Apply descriptions that have been written to the specified metadata table. Each description replaces any stored description of the same entry with
+     * the same column visibility, as it does in the metadata table.
+     *
+     * @param metadataTable
+     *            the metadata table
+     * @param entry
+     *            the field name and data type of the descriptions
+     * @param descs
+     *            the descriptions
+     * @throws MarkingFunctions.Exception
+     *             if the markings of a description cannot be translated to a column visibility
+     */
+    public void putDescriptions(String metadataTable, MetadataEntry entry, Set<? extends DescriptionBase> descs) throws MarkingFunctions.Exception {
+        TableDescriptions table = tables.get(metadataTable);
+        if (table == null) {
+            return;
+        }
+        Map<ColumnVisibility,StoredDescription> updates = new LinkedHashMap<>();
+        for (DescriptionBase desc : descs) {
+            StoredDescription stored = createDescription(markingFunctions.translateToColumnVisibility(desc.getMarkings()), desc.getDescription());
+            updates.put(stored.visibility, stored);
+        }
+        table.update(entry, updates, null);
+    }
+    
+    /**
+     * Apply the removal of a description from the specified metadata table. The stored description of the entry with the same column visibility is removed.
+     *
+     * @param metadataTable
+     *            the metadata table
+     * @param entry
+     *            the field name and data type of the description
+     * @param desc
+     *            the description
+     * @throws MarkingFunctions.Exception
+     *             if the markings of the description cannot be translated to a column visibility
+     */
+    public void removeDescription(String metadataTable, MetadataEntry entry, DescriptionBase desc) throws MarkingFunctions.Exception {
+        TableDescriptions table = tables.get(metadataTable);
+        if (table == null) {
+            return;
+        }
+        table.update(entry, Collections.emptyMap(), markingFunctions.translateToColumnVisibility(desc.getMarkings()));
+    }
+    
+    /**
+     * Discard the stored descriptions of the specified metadata table, so that they are scanned again on the next request.
+     *
+     * @param metadataTable
+     *            the metadata table
+     */
+    public void invalidate(String metadataTable) {
+        log.debug("Invalidating stored descriptions for metadata table {}", metadataTable);
+        tables.remove(metadataTable);
+    }
+    
+    private TableDescriptions getTable(String metadataTable) {
+        return tables.computeIfAbsent(metadataTable, TableDescriptions::new);
+    }
+    
+    private void addVisibleDescriptions(Map<ColumnVisibility,StoredDescription> stored, VisibilityFilter filter, Set<DESC> descriptions) {
+        for (StoredDescription description : stored.values()) {
+            if (filter.isVisible(description.visibility)) {
+                DESC desc = responseObjectFactory.getDescription();
+                desc.setDescription(description.text);
+                desc.setMarkings(new HashMap<>(description.markings));
+                descriptions.add(desc);
+            }
+        }
+    }
+    
+    private StoredDescription createDescription(ColumnVisibility visibility, String text) throws MarkingFunctions.Exception {
+        return new StoredDescription(visibility, Collections.unmodifiableMap(markingFunctions.translateFromColumnVisibility(visibility)), text);
+    }
+    
+    // Scan every description in the specified metadata table with the service authorizations.
+    private Map<MetadataEntry,Map<ColumnVisibility,StoredDescription>> scan(AccumuloClient client, String metadataTable)
+                    throws TableNotFoundException, AccumuloException, AccumuloSecurityException, MarkingFunctions.Exception {
+        Authorizations auths = StringUtils.isBlank(serviceAuths) ? client.securityOperations().getUserAuthorizations(client.whoami())
+                        : new Authorizations(StringUtils.split(serviceAuths, ','));
+        long start = System.currentTimeMillis();
+        Map<MetadataEntry,Map<ColumnVisibility,StoredDescription>> entries = new ConcurrentHashMap<>();
+        // column visibilities and their markings are shared across entries, so that each distinct visibility is only translated once
+        Map<ColumnVisibility,Map<String,String>> markings = new HashMap<>();
+        Scanner scanner = ScannerHelper.createScanner(client, metadataTable, Collections.singleton(auths));
+        try {
+            scanner.fetchColumnFamily(ColumnFamilyConstants.COLF_DESC);
+            for (Map.Entry<Key,Value> entry : scanner) {
+                ColumnVisibility visibility = entry.getKey().getColumnVisibilityParsed();
+                Map<String,String> descMarkings = markings.get(visibility);
+                if (descMarkings == null) {
+                    descMarkings = Collections.unmodifiableMap(markingFunctions.translateFromColumnVisibility(visibility));
+                    markings.put(visibility, descMarkings);
+                }
+                entries.computeIfAbsent(new MetadataEntry(entry.getKey()), k -> new LinkedHashMap<>()).put(visibility,
+                                new StoredDescription(visibility, descMarkings, entry.getValue().toString()));
+            }
+        } finally {
+            scanner.close();
+        }
+        entries.replaceAll((entry, stored) -> Collections.unmodifiableMap(stored));
+        log.debug("Loaded descriptions of {} entries from metadata table {} in {}ms", entries.size(), metadataTable, System.currentTimeMillis() - start);
+        return entries;
+    }
+    
+    // The descriptions of a single metadata table. Entries are scanned lazily and replaced once expired. Each entry maps to an immutable map that is replaced
+    // whenever the entry is modified, so that readers never observe a partial update. Scans and updates are serialized so that an update is never lost to a
+    // concurrent scan that started before it was written.
+    private class TableDescriptions {
+        private final String metadataTable;
+        private volatile Map<MetadataEntry,Map<ColumnVisibility,StoredDescription>> entries;
+        private volatile long loadedMillis;
+        
+        private TableDescriptions(String metadataTable) {
+            this.metadataTable = metadataTable;
+        }
+        
+        private Map<MetadataEntry,Map<ColumnVisibility,StoredDescription>> getEntries(AccumuloClient client)
+                        throws TableNotFoundException, AccumuloException, AccumuloSecurityException, MarkingFunctions.Exception {
+            if (isExpired()) {
+                synchronized (this) {
+                    if (isExpired()) {
+                        entries = scan(client, metadataTable);
+                        loadedMillis = System.currentTimeMillis();
+                    }
+                }
+            }
+            return entries;
+        }
+        
+        private boolean isExpired() {
+            return entries == null || System.currentTimeMillis() - loadedMillis > maxAgeMillis;
+        }
+        
+        // Replace the descriptions of the entry with the specified visibilities, and remove the description with the specified visibility.
+        private synchronized void update(MetadataEntry entry, Map<ColumnVisibility,StoredDescription> updates, ColumnVisibility removed) {
+            if (entries == null) {
+                // nothing has been scanned yet, so the next scan will see the update
+                return;
+            }
+            entries.compute(entry, (k, stored) -> {
+                Map<ColumnVisibility,StoredDescription> updated = stored == null ? new LinkedHashMap<>() : new LinkedHashMap<>(stored);
+                updated.putAll(updates);
+                if (removed != null) {
+                    updated.remove(removed);
+                }
+                return updated.isEmpty() ? null : Collections.unmodifiableMap(updated);
+            });
+        }
+    }
+    
+    // A description along with its column visibility and the markings translated from it.
+    private static class StoredDescription {
+        private final ColumnVisibility visibility;
+        private final Map<String,String> markings;
+        private final String text;
+        
+        private StoredDescription(ColumnVisibility visibility, Map<String,String> markings, String text) {
+            this.visibility = visibility;
+            this.markings = markings;
+            this.text = text;
+        }
+    }
+}
@@ -2,12 +2,18 @@ package datawave.microservice.metadata;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.accumulo.core.client.AccumuloClient;
 import org.apache.accumulo.core.client.BatchWriter;
@@ -29,11 +35,13 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.SetMultimap;
 
 import datawave.data.ColumnFamilyConstants;
 import datawave.marking.MarkingFunctions;
+import datawave.microservice.BatchWriterPool;
 import datawave.microservice.dictionary.config.ResponseObjectFactory;
 import datawave.query.util.MetadataEntry;
 import datawave.security.util.ScannerHelper;
@@ -50,14 +58,32 @@ public class MetadataDescriptionsHelper<DESC extends DescriptionBase<DESC>> {
     
     private final MarkingFunctions markingFunctions;
     private final ResponseObjectFactory<DESC,?,?,?,?> responseObjectFactory;
+    private final BatchWriterPool batchWriterPool;
     
     private String metadataTableName;
     private AccumuloClient accumuloClient;
     private Set<Authorizations> fullUserAuths;
     
     public MetadataDescriptionsHelper(MarkingFunctions markingFunctions, ResponseObjectFactory<DESC,?,?,?,?> responseObjectFactory) {
+        this(markingFunctions, responseObjectFactory, null);
+    }
+    
+    /**
+     * Create a helper that writes through the shared writers of a {@link BatchWriterPool}, which must write to the tables of the same client that the helper
+     * is initialized with.
+     *
+     * @param markingFunctions
+     *            the marking functions used to translate description markings to column visibilities
+     * @param responseObjectFactory
+     *            the factory of the descriptions returned
+     * @param batchWriterPool
+     *            the pool of writers to write with, or null to create a writer for each write
+     */
+    public MetadataDescriptionsHelper(MarkingFunctions markingFunctions, ResponseObjectFactory<DESC,?,?,?,?> responseObjectFactory,
+                    BatchWriterPool batchWriterPool) {
         this.markingFunctions = markingFunctions;
         this.responseObjectFactory = responseObjectFactory;
+        this.batchWriterPool = batchWriterPool;
     }
     
     public void initialize(AccumuloClient accumuloClient, String metadataTableName, Set<Authorizations> fullUserAuths) {
@@ -66,22 +92,19 @@ public class MetadataDescriptionsHelper<DESC extends DescriptionBase<DESC>> {
         this.fullUserAuths = fullUserAuths;
     }
     
+    /**
+     * Retrieve the descriptions of every field with one of the specified data types. The data types are fetched as column qualifiers of the desc column
+     * family, so that descriptions of other data types are filtered out on the tablet servers.
+     *
+     * @param ingestTypeFilter
+     *            the data types to retrieve, or null or an empty set to retrieve all data types
+     * @return the descriptions
+     * @throws TableNotFoundException
+     *             if the configured metadataTableName does not exist
+     */
     public SetMultimap<MetadataEntry,DESC> getDescriptions(Set<String> ingestTypeFilter) throws TableNotFoundException, MarkingFunctions.Exception {
-        
-        SetMultimap<MetadataEntry,DESC> descriptions = loadDescriptions();
-        
         SetMultimap<MetadataEntry,DESC> descs = HashMultimap.create();
-        
-        if (ingestTypeFilter == null || ingestTypeFilter.isEmpty()) {
-            descs.putAll(descriptions);
-        } else {
-            for (MetadataEntry entry : descriptions.keySet()) {
-                if (ingestTypeFilter.contains(entry.getDatatype())) {
-                    descs.putAll(entry, descriptions.get(entry));
-                }
-            }
-        }
-        
+        loadDescriptions(new Range(), ingestTypeFilter, descs);
         return descs;
     }
     
@@ -103,14 +126,22 @@ public class MetadataDescriptionsHelper<DESC extends DescriptionBase<DESC>> {
         return getDescriptions(Collections.singleton(datatype));
     }
     
+    /**
+     * Retrieve the descriptions of the specified field and data type. Only the desc column of the data type in the row of the field is scanned.
+     *
+     * @param fieldname
+     *            the field name
+     * @param datatype
+     *            the data type
+     * @return the descriptions
+     * @throws TableNotFoundException
+     *             if the configured metadataTableName does not exist
+     */
     public Set<DESC> getDescriptions(String fieldname, String datatype) throws TableNotFoundException, MarkingFunctions.Exception {
-        SetMultimap<MetadataEntry,DESC> descriptions = getDescriptions(datatype);
-        MetadataEntry desired = new MetadataEntry(fieldname, datatype);
-        if (descriptions.containsKey(desired)) {
-            return descriptions.get(desired);
-        }
-        
-        return Collections.emptySet();
+        SetMultimap<MetadataEntry,DESC> descriptions = HashMultimap.create();
+        loadDescriptions(Range.exact(new Text(fieldname), ColumnFamilyConstants.COLF_DESC, new Text(datatype)), Collections.singleton(datatype),
+                        descriptions);
+        return descriptions.get(new MetadataEntry(fieldname, datatype));
     }
     
     public void setDescription(MetadataEntry entry, DescriptionBase desc)
@@ -120,27 +151,59 @@ public class MetadataDescriptionsHelper<DESC extends DescriptionBase<DESC>> {
     
     public void setDescriptions(MetadataEntry entry, Set<? extends DescriptionBase> descs)
                     throws TableNotFoundException, MutationsRejectedException, MarkingFunctions.Exception {
-        BatchWriter bw = null;
-        try {
-            BatchWriterConfig bwConfig = new BatchWriterConfig().setMaxMemory(10000L).setMaxLatency(100L, TimeUnit.MILLISECONDS).setMaxWriteThreads(1);
-            bw = accumuloClient.createBatchWriter(metadataTableName, bwConfig);
-            Mutation m = new Mutation(entry.getFieldName());
-            for (DescriptionBase desc : descs) {
-                m.put(ColumnFamilyConstants.COLF_DESC, new Text(entry.getDatatype()), markingFunctions.translateToColumnVisibility(desc.getMarkings()),
-                                new Value(desc.getDescription().getBytes(UTF_8)));
-            }
-            bw.addMutation(m);
-        } finally {
-            if (null != bw) {
-                bw.close();
-            }
+        Mutation m = new Mutation(entry.getFieldName());
+        for (DescriptionBase desc : descs) {
+            m.put(ColumnFamilyConstants.COLF_DESC, new Text(entry.getDatatype()), markingFunctions.translateToColumnVisibility(desc.getMarkings()),
+                            new Value(desc.getDescription().getBytes(UTF_8)));
         }
+        write(Collections.singletonList(m));
         
         if (log.isTraceEnabled()) {
             log.trace("Invalidating base table cache and metadata cache to add " + entry.getFieldName());
         }
     }
     
+    /**
+     * Write the specified descriptions in a single batch, with one mutation per field name. An entry whose descriptions cannot be translated to
+     * column visibilities is not written, and is returned along with the reason rather than failing the remaining entries.
+     *
+     * @param descriptions
+     *            the descriptions to write, by field name and data type
+     * @return the entries that were not written, mapped to the reason
+     * @throws TableNotFoundException
+     *             if the configured metadataTableName does not exist
+     * @throws MutationsRejectedException
+     *             if writing the mutations to Accumulo fails
+     */
+    public Map<MetadataEntry,MarkingFunctions.Exception> writeDescriptions(Multimap<MetadataEntry,? extends DescriptionBase> descriptions)
+                    throws TableNotFoundException, MutationsRejectedException {
+        Map<MetadataEntry,MarkingFunctions.Exception> failures = new LinkedHashMap<>();
+        // mutations are sorted by row so that the batch writer receives them in the order of the tablets they belong to
+        SortedMap<String,Mutation> mutations = new TreeMap<>();
+        for (Map.Entry<MetadataEntry,? extends Collection<? extends DescriptionBase>> entry : descriptions.asMap().entrySet()) {
+            MetadataEntry mentry = entry.getKey();
+            List<ColumnVisibility> visibilities = new ArrayList<>(entry.getValue().size());
+            try {
+                for (DescriptionBase desc : entry.getValue()) {
+                    visibilities.add(markingFunctions.translateToColumnVisibility(desc.getMarkings()));
+                }
+            } catch (MarkingFunctions.Exception e) {
+                failures.put(mentry, e);
+                continue;
+            }
+            Mutation m = mutations.computeIfAbsent(mentry.getFieldName(), Mutation::new);
+            Text datatype = new Text(mentry.getDatatype());
+            Iterator<ColumnVisibility> visibility = visibilities.iterator();
+            for (DescriptionBase desc : entry.getValue()) {
+                m.put(ColumnFamilyConstants.COLF_DESC, datatype, visibility.next(), new Value(desc.getDescription().getBytes(UTF_8)));
+            }
+        }
+        
+        write(mutations.values());
+        log.debug("Wrote descriptions of {} entries in {} rows to {}", descriptions.keySet().size() - failures.size(), mutations.size(), metadataTableName);
+        return failures;
+    }
+    
     /**
      * Remove model descriptions
      * 
@@ -155,18 +218,9 @@ public class MetadataDescriptionsHelper<DESC extends DescriptionBase<DESC>> {
      */
     public void removeDescription(MetadataEntry entry, DescriptionBase desc)
                     throws TableNotFoundException, MutationsRejectedException, MarkingFunctions.Exception {
-        BatchWriter bw = null;
-        try {
-            BatchWriterConfig bwConfig = new BatchWriterConfig().setMaxMemory(10000L).setMaxLatency(100L, TimeUnit.MILLISECONDS).setMaxWriteThreads(1);
-            bw = accumuloClient.createBatchWriter(metadataTableName, bwConfig);
-            Mutation m = new Mutation(entry.getFieldName());
-            m.putDelete(ColumnFamilyConstants.COLF_DESC, new Text(entry.getDatatype()), this.markingFunctions.translateToColumnVisibility(desc.getMarkings()));
-            bw.addMutation(m);
-        } finally {
-            if (null != bw) {
-                bw.close();
-            }
-        }
+        Mutation m = new Mutation(entry.getFieldName());
+        m.putDelete(ColumnFamilyConstants.COLF_DESC, new Text(entry.getDatatype()), this.markingFunctions.translateToColumnVisibility(desc.getMarkings()));
+        write(Collections.singletonList(m));
         
         if (log.isTraceEnabled()) {
             log.trace("Invalidating base table cache and metadata cache to add " + entry.getFieldName());
@@ -174,29 +228,55 @@ public class MetadataDescriptionsHelper<DESC extends DescriptionBase<DESC>> {
         
     }
     
+    // Write the mutations to the metadata table through the shared writer if there is one, and wait for them to be flushed
+    private void write(Collection<Mutation> mutations) throws TableNotFoundException, MutationsRejectedException {
+        if (mutations.isEmpty()) {
+            return;
+        }
+        if (batchWriterPool != null) {
+            batchWriterPool.write(metadataTableName, mutations);
+        } else {
+            try (BatchWriter bw = accumuloClient.createBatchWriter(metadataTableName, new BatchWriterConfig())) {
+                bw.addMutations(mutations);
+            }
+        }
+    }
+    
     protected SetMultimap<MetadataEntry,DESC> loadDescriptions() throws TableNotFoundException, MarkingFunctions.Exception {
+        SetMultimap<MetadataEntry,DESC> descriptions = HashMultimap.create();
+        loadDescriptions(new Range(), null, descriptions);
+        return Multimaps.unmodifiableSetMultimap(descriptions);
+    }
+    
+    // Scan the descriptions within the specified range into the specified multimap. If data types are specified, only their desc columns are fetched.
+    private void loadDescriptions(Range range, Set<String> datatypes, SetMultimap<MetadataEntry,DESC> descriptions)
+                    throws TableNotFoundException, MarkingFunctions.Exception {
         if (log.isTraceEnabled())
-            log.trace("loadDescriptions from table: " + metadataTableName);
+            log.trace("loadDescriptions from table: " + metadataTableName + " in range " + range + " for data types " + datatypes);
         // unlike other entries, the desc colf entries have many auths set. We'll use the fullUserAuths in the scanner instead
         // of the minimal set in this.auths
         Scanner scanner = ScannerHelper.createScanner(accumuloClient, metadataTableName, fullUserAuths);
-        
-        SetMultimap<MetadataEntry,DESC> descriptions = HashMultimap.create();
-        
-        scanner.setRange(new Range());
-        scanner.fetchColumnFamily(ColumnFamilyConstants.COLF_DESC);
-        for (Entry<Key,Value> entry : scanner) {
-            MetadataEntry mentry = new MetadataEntry(entry.getKey());
-            log.trace("{}", entry.getKey());
-            DESC desc = this.responseObjectFactory.getDescription();
-            desc.setDescription(entry.getValue().toString());
-            desc.setMarkings(getMarkings(entry.getKey()));
-            
-            descriptions.put(mentry, desc);
+        try {
+            scanner.setRange(range);
+            if (datatypes == null || datatypes.isEmpty()) {
+                scanner.fetchColumnFamily(ColumnFamilyConstants.COLF_DESC);
+            } else {
+                for (String datatype : datatypes) {
+                    scanner.fetchColumn(ColumnFamilyConstants.COLF_DESC, new Text(datatype));
+                }
+            }
+            for (Entry<Key,Value> entry : scanner) {
+                MetadataEntry mentry = new MetadataEntry(entry.getKey());
+                log.trace("{}", entry.getKey());
+                DESC desc = this.responseObjectFactory.getDescription();
+                desc.setDescription(entry.getValue().toString());
+                desc.setMarkings(getMarkings(entry.getKey()));
+                
+                descriptions.put(mentry, desc);
+            }
+        } finally {
+            scanner.close();
         }
-        
-        return Multimaps.unmodifiableSetMultimap(descriptions);
-        
     }
     
     private Map<String,String> getMarkings(Key k) throws MarkingFunctions.Exception {
@@ -0,0 +1,316 @@
+package datawave.microservice.metadata;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.hadoop.io.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import datawave.data.ColumnFamilyConstants;
+import datawave.marking.MarkingFunctions;
+import datawave.microservice.dictionary.config.ResponseObjectFactory;
+import datawave.webservice.dictionary.data.DefaultDescription;
+import datawave.webservice.metadata.DefaultMetadataField;
+
+/**
+ * An immutable snapshot of the fields in a metadata table, scanned once with a superset of the authorizations of any user it will serve. Entries are grouped
+ * by field name, column visibility and data type, so that the fields visible to any set of authorizations can be assembled in memory without scanning the
+ * metadata table again. A field assembled from a snapshot is the same as the field {@link DefaultMetadataFieldScanner} would return for a scan with those
+ * authorizations, provided the snapshot was scanned with authorizations that include them.
+ */
+public class MetadataFieldSnapshot {
+    
+    private static final Logger log = LoggerFactory.getLogger(MetadataFieldSnapshot.class);
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    
+    private final List<Row> rows;
+    
+    private MetadataFieldSnapshot(List<Row> rows) {
+        this.rows = rows;
+    }
+    
+    public int size() {
+        return rows.size();
+    }
+    
+    /**
+     * Assemble the fields visible to the specified authorizations. An entry is visible only if it is visible to every {@link Authorizations} in the set, as it
+     * would be for a scan of the metadata table with the same set.
+     *
+     * @param auths
+     *            the authorizations of the requesting user
+     * @param aliases
+     *            the map of field names to aliases from the query model
+     * @param dataTypeFilters
+     *            the data types to return, or an empty collection to return all data types
+     * @return the visible fields
+     */
+    public Collection<DefaultMetadataField> getFields(Set<Authorizations> auths, Map<String,String> aliases, Collection<String> dataTypeFilters) {
+        List<DefaultMetadataField> fields = new ArrayList<>();
+        forEachField(auths, aliases, dataTypeFilters, fields::add);
+        return fields;
+    }
+    
+    /**
+     * Assemble the fields visible to the specified authorizations one row at a time, passing each to the specified consumer as soon as it is assembled.
+     *
+     * @param auths
+     *            the authorizations of the requesting user
+     * @param aliases
+     *            the map of field names to aliases from the query model
+     * @param dataTypeFilters
+     *            the data types to return, or an empty collection to return all data types
+     * @param consumer
+     *            the consumer to pass each visible field to
+     */
+    public void forEachField(Set<Authorizations> auths, Map<String,String> aliases, Collection<String> dataTypeFilters,
+                    Consumer<DefaultMetadataField> consumer) {
+        forEachField(auths, aliases, dataTypeFilters, FieldNameFilter.all(), consumer);
+    }
+    
+    /**
+     * Assemble the fields visible to the specified authorizations whose field names are accepted by the specified filter, passing each to the specified
+     * consumer as soon as it is assembled.
+     *
+     * @param auths
+     *            the authorizations of the requesting user
+     * @param aliases
+     *            the map of field names to aliases from the query model
+     * @param dataTypeFilters
+     *            the data types to return, or an empty collection to return all data types
+     * @param fieldNameFilter
+     *            the filter of field names to return
+     * @param consumer
+     *            the consumer to pass each visible field to
+     */
+    public void forEachField(Set<Authorizations> auths, Map<String,String> aliases, Collection<String> dataTypeFilters, FieldNameFilter fieldNameFilter,
+                    Consumer<DefaultMetadataField> consumer) {
+        VisibilityFilter filter = new VisibilityFilter(auths);
+        for (Row row : rows) {
+            if (fieldNameFilter.accepts(row.fieldName)) {
+                row.addVisibleFields(filter, aliases, dataTypeFilters, consumer);
+            }
+        }
+    }
+    
+    // All entries for a single field name, grouped by column visibility.
+    private static class Row {
+        private final String fieldName;
+        private final List<VisibilityGroup> groups;
+        
+        private Row(String fieldName, List<VisibilityGroup> groups) {
+            this.fieldName = fieldName;
+            this.groups = groups;
+        }
+        
+        private void addVisibleFields(VisibilityFilter filter, Map<String,String> aliases, Collection<String> dataTypeFilters,
+                        Consumer<DefaultMetadataField> consumer) {
+            List<VisibilityGroup> visibleGroups = new ArrayList<>(groups.size());
+            for (VisibilityGroup group : groups) {
+                if (filter.isVisible(group.visibility)) {
+                    // A visible hidden entry excludes the field entirely, whatever the data type.
+                    if (group.hidden) {
+                        return;
+                    }
+                    visibleGroups.add(group);
+                }
+            }
+            
+            Map<String,List<PartialField>> dataTypes = new LinkedHashMap<>();
+            for (VisibilityGroup group : visibleGroups) {
+                group.fields.forEach((dataType, partial) -> {
+                    if (dataTypeFilters.isEmpty() || dataTypeFilters.contains(dataType)) {
+                        dataTypes.computeIfAbsent(dataType, k -> new ArrayList<>()).add(partial);
+                    }
+                });
+            }
+            
+            dataTypes.forEach((dataType, partials) -> consumer.accept(merge(dataType, partials, aliases)));
+        }
+        
+        private DefaultMetadataField merge(String dataType, List<PartialField> partials, Map<String,String> aliases) {
+            DefaultMetadataField field = new DefaultMetadataField();
+            if (aliases.containsKey(fieldName)) {
+                field.setFieldName(aliases.get(fieldName));
+                field.setInternalFieldName(fieldName);
+            } else {
+                field.setFieldName(fieldName);
+            }
+            field.setDataType(dataType);
+            
+            boolean event = false;
+            long lastEvent = Long.MIN_VALUE;
+            long lastEntry = Long.MIN_VALUE;
+            List<TypeEntry> types = new ArrayList<>();
+            for (PartialField partial : partials) {
+                event |= partial.event;
+                lastEvent = Math.max(lastEvent, partial.lastEvent);
+                lastEntry = Math.max(lastEntry, partial.lastEntry);
+                field.setForwardIndexed(field.isForwardIndexed() || partial.forwardIndexed);
+                field.setReverseIndexed(field.isReverseIndexed() || partial.reverseIndexed);
+                field.setTokenized(field.isTokenized() || partial.tokenized);
+                field.getDescriptions().addAll(partial.descriptions);
+                types.addAll(partial.types);
+            }
+            field.setIndexOnly(!event);
+            
+            // Types are listed in key order, i.e. by type and then by visibility. The partials are already in visibility order, and the sort is stable.
+            types.sort(Comparator.comparing(TypeEntry::getType));
+            types.forEach(type -> field.addType(type.getNormalizedType()));
+            
+            // Event fields are last updated by their most recent event entry. Index-only fields by their most recent entry of any kind except descriptions.
+            long lastUpdated = event ? lastEvent : lastEntry;
+            if (lastUpdated != Long.MIN_VALUE) {
+                field.setLastUpdated(Instant.ofEpochMilli(lastUpdated).atZone(ZoneId.systemDefault()).toLocalDateTime().format(TIMESTAMP_FORMATTER));
+            }
+            return field;
+        }
+    }
+    
+    // The entries of a single field name that share a column visibility.
+    private static class VisibilityGroup {
+        private final ColumnVisibility visibility;
+        private final Map<String,PartialField> fields = new LinkedHashMap<>();
+        private boolean hidden;
+        
+        private VisibilityGroup(ColumnVisibility visibility) {
+            this.visibility = visibility;
+        }
+    }
+    
+    // The entries of a single field name, column visibility and data type.
+    private static class PartialField {
+        private boolean event;
+        private boolean forwardIndexed;
+        private boolean reverseIndexed;
+        private boolean tokenized;
+        private long lastEvent = Long.MIN_VALUE;
+        private long lastEntry = Long.MIN_VALUE;
+        private final List<TypeEntry> types = new ArrayList<>(1);
+        private final List<DefaultDescription> descriptions = new ArrayList<>(1);
+    }
+    
+    // A type entry, retaining the original type so that types may be listed in key order.
+    private static class TypeEntry {
+        private final String type;
+        private final String normalizedType;
+        
+        private TypeEntry(String type, String normalizedType) {
+            this.type = type;
+            this.normalizedType = normalizedType;
+        }
+        
+        private String getType() {
+            return type;
+        }
+        
+        private String getNormalizedType() {
+            return normalizedType;
+        }
+    }
+    
+    /**
+     * Builds a snapshot from the decoded rows of a metadata table scan.
+     */
+    public static class Builder {
+        
+        private final MarkingFunctions markingFunctions;
+        private final ResponseObjectFactory<DefaultDescription,?,DefaultMetadataField,?,?> responseObjectFactory;
+        private final Map<String,String> normalizationMap;
+        private final List<Row> rows = new ArrayList<>();
+        // Column visibilities are shared across rows so that each distinct visibility is parsed and evaluated only once.
+        private final Map<ByteSequence,ColumnVisibility> visibilities = new HashMap<>();
+        private final Text columnFamily = new Text();
+        
+        public Builder(MarkingFunctions markingFunctions, ResponseObjectFactory<DefaultDescription,?,DefaultMetadataField,?,?> responseObjectFactory,
+                        Map<String,String> normalizationMap) {
+            this.markingFunctions = markingFunctions;
+            this.responseObjectFactory = responseObjectFactory;
+            this.normalizationMap = normalizationMap;
+        }
+        
+        /**
+         * Add the entries of a single row of the metadata table.
+         *
+         * @param rowEntries
+         *            the entries of the row, in key order
+         * @throws MarkingFunctions.Exception
+         *             if the visibility of a description cannot be translated to markings
+         */
+        public void addRow(SortedMap<Key,Value> rowEntries) throws MarkingFunctions.Exception {
+            if (rowEntries.isEmpty()) {
+                return;
+            }
+            Map<ColumnVisibility,VisibilityGroup> groups = new LinkedHashMap<>();
+            for (Map.Entry<Key,Value> entry : rowEntries.entrySet()) {
+                Key key = entry.getKey();
+                ColumnVisibility visibility = visibilities.computeIfAbsent(key.getColumnVisibilityData(), v -> new ColumnVisibility(v.toArray()));
+                VisibilityGroup group = groups.computeIfAbsent(visibility, VisibilityGroup::new);
+                
+                key.getColumnFamily(columnFamily);
+                if (columnFamily.equals(ColumnFamilyConstants.COLF_H)) {
+                    group.hidden = true;
+                    continue;
+                }
+                
+                String columnQualifier = key.getColumnQualifier().toString();
+                int nullPos = columnQualifier.indexOf('\0');
+                String dataType = (nullPos < 0) ? columnQualifier : columnQualifier.substring(0, nullPos);
+                PartialField field = group.fields.computeIfAbsent(dataType, k -> new PartialField());
+                
+                if (columnFamily.equals(ColumnFamilyConstants.COLF_DESC)) {
+                    DefaultDescription description = responseObjectFactory.getDescription();
+                    description.setDescription(entry.getValue().toString());
+                    description.setMarkings(markingFunctions.translateFromColumnVisibility(visibility));
+                    field.descriptions.add(description);
+                    continue;
+                }
+                
+                field.lastEntry = Math.max(field.lastEntry, key.getTimestamp());
+                if (columnFamily.equals(ColumnFamilyConstants.COLF_E)) {
+                    field.event = true;
+                    field.lastEvent = Math.max(field.lastEvent, key.getTimestamp());
+                } else if (columnFamily.equals(ColumnFamilyConstants.COLF_I)) {
+                    field.forwardIndexed = true;
+                } else if (columnFamily.equals(ColumnFamilyConstants.COLF_RI)) {
+                    field.reverseIndexed = true;
+                } else if (columnFamily.equals(ColumnFamilyConstants.COLF_T)) {
+                    String type = columnQualifier.substring(nullPos + 1);
+                    String normalizedType = normalizationMap.get(type);
+                    field.types.add(new TypeEntry(type, normalizedType != null ? normalizedType : "Unknown"));
+                } else if (columnFamily.equals(ColumnFamilyConstants.COLF_TF)) {
+                    field.tokenized = true;
+                } else {
+                    log.warn("Unknown entry with key={}, value={}", key, entry.getValue());
+                }
+            }
+            
+            List<VisibilityGroup> sortedGroups = new ArrayList<>(groups.values());
+            sortedGroups.sort(Comparator.comparing(group -> new Text(group.visibility.getExpression())));
+            rows.add(new Row(rowEntries.firstKey().getRow().toString(), sortedGroups));
+        }
+        
+        public MetadataFieldSnapshot build() {
+            rows.sort(Comparator.comparing(row -> row.fieldName));
+            return new MetadataFieldSnapshot(Collections.unmodifiableList(new ArrayList<>(rows)));
+        }
+    }
+}
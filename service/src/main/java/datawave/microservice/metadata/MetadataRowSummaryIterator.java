@@ -0,0 +1,277 @@
+package datawave.microservice.metadata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.user.RowEncodingIterator;
+import org.apache.accumulo.core.iterators.user.WholeRowIterator;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.io.WritableUtils;
+
+import datawave.data.ColumnFamilyConstants;
+
+/**
+ * An alternative to the {@link WholeRowIterator} for scans of metadata fields, which aggregates each metadata row on the tablet servers into a compact
+ * summary per data type rather than serializing every key of the row. Each summary holds the flags of the field, its type classes, the timestamp it was last
+ * updated, and its descriptions along with their column visibilities. Hidden rows are dropped entirely.
+ *
+ * <p>
+ *
+ * The summary of a data type is encoded as:
+ * <ul>
+ * <li>the data type</li>
+ * <li>a byte of {@code FLAG_*} bits</li>
+ * <li>the last updated timestamp, if {@link #FLAG_LAST_UPDATED} is set</li>
+ * <li>the number of type classes, followed by each type class</li>
+ * <li>the number of descriptions, followed by the column visibility and text of each description</li>
+ * </ul>
+ * The value of each row is the number of data types, followed by the summary of each data type. Summaries are decoded with {@link #decodeRow(Value)}.
+ *
+ * <p>
+ *
+ * Entries are aggregated after they are filtered by column visibility, so a summary only reflects the entries visible to the authorizations of the scan.
+ * This iterator must be on the classpath of the tablet servers.
+ */
+public class MetadataRowSummaryIterator extends RowEncodingIterator {
+    
+    public static final int FLAG_EVENT = 1;
+    public static final int FLAG_FORWARD_INDEXED = 1 << 1;
+    public static final int FLAG_REVERSE_INDEXED = 1 << 2;
+    public static final int FLAG_TOKENIZED = 1 << 3;
+    public static final int FLAG_LAST_UPDATED = 1 << 4;
+    
+    private final Text columnFamily = new Text();
+    
+    /**
+     * Drop rows that have been hidden, since a hidden entry of any data type hides the entire row.
+     */
+    @Override
+    protected boolean filter(Text currentRow, List<Key> keys, List<Value> values) {
+        for (Key key : keys) {
+            if (ColumnFamilyConstants.COLF_H.equals(key.getColumnFamily(columnFamily))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public Value rowEncoder(List<Key> keys, List<Value> values) throws IOException {
+        Map<String,Summary> summaries = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Key key = keys.get(i);
+            key.getColumnFamily(columnFamily);
+            String columnQualifier = key.getColumnQualifier().toString();
+            int nullPos = columnQualifier.indexOf('\0');
+            String dataType = nullPos < 0 ? columnQualifier : columnQualifier.substring(0, nullPos);
+            Summary summary = summaries.computeIfAbsent(dataType, Summary::new);
+            
+            if (ColumnFamilyConstants.COLF_E.equals(columnFamily)) {
+                summary.flags |= FLAG_EVENT;
+                summary.eventTimestamp = Math.max(summary.eventTimestamp, key.getTimestamp());
+            } else if (ColumnFamilyConstants.COLF_I.equals(columnFamily)) {
+                summary.flags |= FLAG_FORWARD_INDEXED;
+            } else if (ColumnFamilyConstants.COLF_RI.equals(columnFamily)) {
+                summary.flags |= FLAG_REVERSE_INDEXED;
+            } else if (ColumnFamilyConstants.COLF_TF.equals(columnFamily)) {
+                summary.flags |= FLAG_TOKENIZED;
+            } else if (ColumnFamilyConstants.COLF_T.equals(columnFamily)) {
+                summary.types.add(columnQualifier.substring(nullPos + 1));
+            } else if (ColumnFamilyConstants.COLF_DESC.equals(columnFamily)) {
+                summary.descriptions.add(new Description(key.getColumnVisibilityData().toArray(), values.get(i).toString()));
+                // Descriptions do not count towards the last updated timestamp of a field.
+                continue;
+            } else {
+                continue;
+            }
+            summary.indexTimestamp = Math.max(summary.indexTimestamp, key.getTimestamp());
+        }
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        WritableUtils.writeVInt(out, summaries.size());
+        for (Summary summary : summaries.values()) {
+            summary.write(out);
+        }
+        out.close();
+        return new Value(bytes.toByteArray());
+    }
+    
+    /**
+     * Summaries can not be expanded back into the entries of the row they were aggregated from. Use {@link #decodeRow(Value)} instead.
+     *
+     * @throws UnsupportedOperationException
+     *             always
+     */
+    @Override
+    public SortedMap<Key,Value> rowDecoder(Key rowKey, Value rowValue) {
+        throw new UnsupportedOperationException("Row summaries can not be decoded into entries");
+    }
+    
+    /**
+     * Decode the summaries of each data type from the value of a row returned by this iterator.
+     *
+     * @param rowValue
+     *            the value of the row
+     * @return the summaries, in the order their data types were first encountered in the row
+     * @throws IOException
+     *             if the value can not be decoded
+     */
+    public static List<Summary> decodeRow(Value rowValue) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(rowValue.get()));
+        int numSummaries = WritableUtils.readVInt(in);
+        List<Summary> summaries = new ArrayList<>(numSummaries);
+        for (int i = 0; i < numSummaries; i++) {
+            summaries.add(Summary.read(in));
+        }
+        return summaries;
+    }
+    
+    /**
+     * The aggregated entries of a single data type within a metadata row.
+     */
+    public static class Summary {
+        
+        private final String dataType;
+        private final List<String> types;
+        private final List<Description> descriptions;
+        private int flags;
+        private long eventTimestamp = Long.MIN_VALUE;
+        private long indexTimestamp = Long.MIN_VALUE;
+        
+        private Summary(String dataType) {
+            this(dataType, new ArrayList<>(), new ArrayList<>());
+        }
+        
+        private Summary(String dataType, List<String> types, List<Description> descriptions) {
+            this.dataType = dataType;
+            this.types = types;
+            this.descriptions = descriptions;
+        }
+        
+        public String getDataType() {
+            return dataType;
+        }
+        
+        public boolean isIndexOnly() {
+            return (flags & FLAG_EVENT) == 0;
+        }
+        
+        public boolean isForwardIndexed() {
+            return (flags & FLAG_FORWARD_INDEXED) != 0;
+        }
+        
+        public boolean isReverseIndexed() {
+            return (flags & FLAG_REVERSE_INDEXED) != 0;
+        }
+        
+        public boolean isTokenized() {
+            return (flags & FLAG_TOKENIZED) != 0;
+        }
+        
+        public boolean hasLastUpdated() {
+            return (flags & FLAG_LAST_UPDATED) != 0;
+        }
+        
+        /**
+         * Return the timestamp the field was last updated. This is the latest timestamp of the event entries of the field, or of its index entries if it is
+         * index-only. Descriptions are not included.
+         *
+         * @return the timestamp, which is only meaningful if {@link #hasLastUpdated()} is true
+         */
+        public long getLastUpdated() {
+            return isIndexOnly() ? indexTimestamp : eventTimestamp;
+        }
+        
+        /**
+         * Return the type classes of the field, which have not been normalized.
+         *
+         * @return the type classes
+         */
+        public List<String> getTypes() {
+            return types;
+        }
+        
+        public List<Description> getDescriptions() {
+            return descriptions;
+        }
+        
+        private void write(DataOutput out) throws IOException {
+            long lastUpdated = getLastUpdated();
+            int encodedFlags = lastUpdated == Long.MIN_VALUE ? flags : flags | FLAG_LAST_UPDATED;
+            WritableUtils.writeString(out, dataType);
+            out.writeByte(encodedFlags);
+            if ((encodedFlags & FLAG_LAST_UPDATED) != 0) {
+                WritableUtils.writeVLong(out, lastUpdated);
+            }
+            WritableUtils.writeVInt(out, types.size());
+            for (String type : types) {
+                WritableUtils.writeString(out, type);
+            }
+            WritableUtils.writeVInt(out, descriptions.size());
+            for (Description description : descriptions) {
+                WritableUtils.writeVInt(out, description.visibility.length);
+                out.write(description.visibility);
+                WritableUtils.writeString(out, description.text);
+            }
+        }
+        
+        private static Summary read(DataInput in) throws IOException {
+            String dataType = WritableUtils.readString(in);
+            int flags = in.readByte();
+            long lastUpdated = (flags & FLAG_LAST_UPDATED) != 0 ? WritableUtils.readVLong(in) : Long.MIN_VALUE;
+            int numTypes = WritableUtils.readVInt(in);
+            List<String> types = numTypes == 0 ? Collections.emptyList() : new ArrayList<>(numTypes);
+            for (int i = 0; i < numTypes; i++) {
+                types.add(WritableUtils.readString(in));
+            }
+            int numDescriptions = WritableUtils.readVInt(in);
+            List<Description> descriptions = numDescriptions == 0 ? Collections.emptyList() : new ArrayList<>(numDescriptions);
+            for (int i = 0; i < numDescriptions; i++) {
+                byte[] visibility = new byte[WritableUtils.readVInt(in)];
+                in.readFully(visibility);
+                descriptions.add(new Description(visibility, WritableUtils.readString(in)));
+            }
+            Summary summary = new Summary(dataType, types, descriptions);
+            summary.flags = flags;
+            summary.eventTimestamp = lastUpdated;
+            summary.indexTimestamp = lastUpdated;
+            return summary;
+        }
+    }
+    
+    /**
+     * A description of a field, along with the column visibility it was written with.
+     */
+    public static class Description {
+        
+        private final byte[] visibility;
+        private final String text;
+        
+        private Description(byte[] visibility, String text) {
+            this.visibility = visibility;
+            this.text = text;
+        }
+        
+        public byte[] getVisibility() {
+            return visibility;
+        }
+        
+        public String getText() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package datawave.microservice.metadata;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.accumulo.core.security.VisibilityEvaluator;
+import org.apache.accumulo.core.security.VisibilityParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates column visibilities against a set of authorizations, remembering the result for each distinct visibility. A visibility is only visible if it is
+ * visible to every {@link Authorizations} in the set, as it would be for a scan with the same set. An empty set is treated as {@link Authorizations#EMPTY}, so
+ * that only unmarked entries are visible. Instances are not thread-safe, and are intended to be created for a single request.
+ */
+public class VisibilityFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(VisibilityFilter.class);
+    
+    private final List<VisibilityEvaluator> evaluators = new ArrayList<>();
+    private final Map<ColumnVisibility,Boolean> visible = new HashMap<>();
+    
+    public VisibilityFilter(Set<Authorizations> auths) {
+        for (Authorizations authorizations : auths) {
+            evaluators.add(new VisibilityEvaluator(authorizations));
+        }
+        if (evaluators.isEmpty()) {
+            evaluators.add(new VisibilityEvaluator(Authorizations.EMPTY));
+        }
+    }
+    
+    public boolean isVisible(ColumnVisibility visibility) {
+        return visible.computeIfAbsent(visibility, this::evaluate);
+    }
+    
+    private boolean evaluate(ColumnVisibility visibility) {
+        try {
+            for (VisibilityEvaluator evaluator : evaluators) {
+                if (!evaluator.evaluate(visibility)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (VisibilityParseException e) {
+            log.warn("Unable to evaluate visibility {}", visibility, e);
+            return false;
+        }
+    }
+}
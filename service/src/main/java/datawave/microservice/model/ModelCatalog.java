@@ -0,0 +1,279 @@
+package datawave.microservice.model;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.user.RegExFilter;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+
+import datawave.microservice.metadata.VisibilityFilter;
+import datawave.query.model.FieldMapping;
+import datawave.query.model.ModelKeyParser;
+import datawave.security.util.ScannerHelper;
+
+/**
+ * A long-lived, in-memory catalog of the models in each model table. The field mappings of a model table are scanned once with the service authorizations and
+ * held by model name with their column visibilities, so that the model names and mappings visible to any set of authorizations can be served without scanning
+ * the model table again. Mappings inserted or deleted through the model controller are applied to the catalog in place, and each model table is scanned again
+ * once it is older than the configured maximum age to pick up any mappings written by other means, including a model table that has since been deleted or
+ * recreated. Until then, requests are served from memory without any call to accumulo.
+ */
+public class ModelCatalog {
+    
+    private static final Logger log = LoggerFactory.getLogger(ModelCatalog.class);
+    
+    /**
+     * The column families of the model table that belong to the data dictionary rather than to a model.
+     */
+    static final Set<String> RESERVED_COLF_VALUES = ImmutableSet.of("e", "i", "ri", "f", "tf", "m", "desc", "edge", "t", "n", "h");
+    
+    /**
+     * Matches the column families of the model table that belong to a model: any column family other than a reserved one, with at most one null byte.
+     */
+    static final String MODEL_COLF_REGEX = "^(?!(?:" + String.join("|", RESERVED_COLF_VALUES) + ")$)[^\\x00]*(\\x00[^\\x00]*)?";
+    
+    private final long maxAgeMillis;
+    private final String serviceAuths;
+    private final Map<String,TableModels> tables = new ConcurrentHashMap<>();
+    
+    /**
+     * Create a model catalog.
+     *
+     * @param maxAge
+     *            the maximum age of the models of a model table before it is scanned again
+     * @param serviceAuths
+     *            the comma-delimited authorizations to scan models with, or null to use the authorizations of the accumulo user
+     */
+    public ModelCatalog(Duration maxAge, String serviceAuths) {
+        this.maxAgeMillis = maxAge.toMillis();
+        this.serviceAuths = serviceAuths;
+    }
+    
+    /**
+     * Return the model name of a column family of the model table.
+     *
+     * @param colf
+     *            the column family
+     * @return the model name, or null if the column family is reserved or is not that of a model
+     */
+    static String getModelName(String colf) {
+        if (RESERVED_COLF_VALUES.contains(colf)) {
+            return null;
+        }
+        String[] parts = colf.split(ModelKeyParser.NULL_BYTE);
+        return parts.length == 1 || parts.length == 2 ? parts[0] : null;
+    }
+    
+    /**
+     * Retrieve the names of the models in the specified model table that have at least one mapping visible to the specified authorizations.
+     *
+     * @param client
+     *            the client to scan the model table with
+     * @param modelTable
+     *            the model table
+     * @param auths
+     *            the authorizations of the request
+     * @return the visible model names
+     */
+    public SortedSet<String> getModelNames(AccumuloClient client, String modelTable, Set<Authorizations> auths)
+                    throws TableNotFoundException, AccumuloException, AccumuloSecurityException {
+        VisibilityFilter filter = new VisibilityFilter(auths);
+        SortedSet<String> names = new TreeSet<>();
+        for (Map.Entry<String,SortedMap<FieldMapping,ColumnVisibility>> model : getTable(modelTable).getModels(client).entrySet()) {
+            for (ColumnVisibility visibility : model.getValue().values()) {
+                if (filter.isVisible(visibility)) {
+                    names.add(model.getKey());
+                    break;
+                }
+            }
+        }
+        return names;
+    }
+    
+    /**
+     * Retrieve the mappings of the specified model that are visible to the specified authorizations.
+     *
+     * @param client
+     *            the client to scan the model table with
+     * @param modelTable
+     *            the model table
+     * @param modelName
+     *            the model name
+     * @param auths
+     *            the authorizations of the request
+     * @return the visible mappings, which are empty if the model does not exist
+     */
+    public SortedSet<FieldMapping> getMappings(AccumuloClient client, String modelTable, String modelName, Set<Authorizations> auths)
+                    throws TableNotFoundException, AccumuloException, AccumuloSecurityException {
+        SortedMap<FieldMapping,ColumnVisibility> stored = getTable(modelTable).getModels(client).get(modelName);
+        if (stored == null) {
+            return Collections.emptySortedSet();
+        }
+        VisibilityFilter filter = new VisibilityFilter(auths);
+        SortedSet<FieldMapping> mappings = new TreeSet<>();
+        for (Map.Entry<FieldMapping,ColumnVisibility> mapping : stored.entrySet()) {
+            if (filter.isVisible(mapping.getValue())) {
+                mappings.add(mapping.getKey());
+            }
+        }
+        return mappings;
+    }
+    
+    /**
+     * Apply mappings that have been written to the specified model. Each mapping replaces any stored mapping that compares equal to it.
+     *
+     * @param modelTable
+     *            the model table
+     * @param modelName
+     *            the model name
+     * @param mappings
+     *            the mappings
+     */
+    public void putMappings(String modelTable, String modelName, Collection<FieldMapping> mappings) {
+        TableModels table = tables.get(modelTable);
+        if (table != null) {
+            table.update(modelName, mappings, true);
+        }
+    }
+    
+    /**
+     * Apply mappings that have been deleted from the specified model.
+     *
+     * @param modelTable
+     *            the model table
+     * @param modelName
+     *            the model name
+     * @param mappings
+     *            the mappings
+     */
+    public void removeMappings(String modelTable, String modelName, Collection<FieldMapping> mappings) {
+        TableModels table = tables.get(modelTable);
+        if (table != null) {
+            table.update(modelName, mappings, false);
+        }
+    }
+    
+    /**
+     * Discard the models of the specified model table, so that they are scanned again on the next request.
+     *
+     * @param modelTable
+     *            the model table
+     */
+    public void invalidate(String modelTable) {
+        log.debug("Invalidating models for model table {}", modelTable);
+        tables.remove(modelTable);
+    }
+    
+    /**
+     * Create a server-side filter that only passes the entries of the model table that belong to a model. Data dictionary entries usually make up the bulk of
+     * the model table, and are dropped on the tablet servers rather than transferred and discarded by this service.
+     *
+     * @return the filter to add to a scan of the model table
+     */
+    static IteratorSetting createModelFilter() {
+        IteratorSetting cfg = new IteratorSetting(21, "modelColfRegex", RegExFilter.class.getName());
+        cfg.addOption(RegExFilter.COLF_REGEX, MODEL_COLF_REGEX);
+        return cfg;
+    }
+    
+    private TableModels getTable(String modelTable) {
+        return tables.computeIfAbsent(modelTable, TableModels::new);
+    }
+    
+    private static ColumnVisibility getVisibility(FieldMapping mapping) {
+        return mapping.getColumnVisibility() == null ? new ColumnVisibility() : new ColumnVisibility(mapping.getColumnVisibility());
+    }
+    
+    // Scan every model mapping in the specified model table with the service authorizations.
+    private Map<String,SortedMap<FieldMapping,ColumnVisibility>> scan(AccumuloClient client, String modelTable)
+                    throws TableNotFoundException, AccumuloException, AccumuloSecurityException {
+        Authorizations auths = StringUtils.isBlank(serviceAuths) ? client.securityOperations().getUserAuthorizations(client.whoami())
+                        : new Authorizations(StringUtils.split(serviceAuths, ','));
+        long start = System.currentTimeMillis();
+        Map<String,SortedMap<FieldMapping,ColumnVisibility>> models = new ConcurrentHashMap<>();
+        try (Scanner scanner = ScannerHelper.createScanner(client, modelTable, Collections.singleton(auths))) {
+            scanner.addScanIterator(createModelFilter());
+            for (Map.Entry<Key,Value> entry : scanner) {
+                String modelName = getModelName(entry.getKey().getColumnFamily().toString());
+                if (modelName != null) {
+                    models.computeIfAbsent(modelName, k -> new TreeMap<>()).put(ModelKeyParser.parseKey(entry.getKey()),
+                                    entry.getKey().getColumnVisibilityParsed());
+                }
+            }
+        }
+        models.replaceAll((modelName, mappings) -> Collections.unmodifiableSortedMap(mappings));
+        log.debug("Loaded {} models from model table {} in {}ms", models.size(), modelTable, System.currentTimeMillis() - start);
+        return models;
+    }
+    
+    // The models of a single model table. Models are scanned lazily and replaced once expired. Each model maps to an immutable map that is replaced whenever
+    // the model is modified, so that readers never observe a partial update. Scans and updates are serialized so that an update is never lost to a concurrent
+    // scan that started before it was written.
+    private class TableModels {
+        private final String modelTable;
+        private volatile Map<String,SortedMap<FieldMapping,ColumnVisibility>> models;
+        private volatile long loadedMillis;
+        
+        private TableModels(String modelTable) {
+            this.modelTable = modelTable;
+        }
+        
+        private Map<String,SortedMap<FieldMapping,ColumnVisibility>> getModels(AccumuloClient client)
+                        throws TableNotFoundException, AccumuloException, AccumuloSecurityException {
+            if (isExpired()) {
+                synchronized (this) {
+                    if (isExpired()) {
+                        // a deleted table fails the scan, and a recreated table is simply scanned again
+                        models = scan(client, modelTable);
+                        loadedMillis = System.currentTimeMillis();
+                    }
+                }
+            }
+            return models;
+        }
+        
+        private boolean isExpired() {
+            return models == null || System.currentTimeMillis() - loadedMillis > maxAgeMillis;
+        }
+        
+        // Add the mappings to, or remove them from, the specified model.
+        private synchronized void update(String modelName, Collection<FieldMapping> mappings, boolean added) {
+            if (models == null) {
+                // nothing has been scanned yet, so the next scan will see the update
+                return;
+            }
+            models.compute(modelName, (k, stored) -> {
+                SortedMap<FieldMapping,ColumnVisibility> updated = stored == null ? new TreeMap<>() : new TreeMap<>(stored);
+                for (FieldMapping mapping : mappings) {
+                    updated.remove(mapping);
+                    if (added) {
+                        updated.put(mapping, getVisibility(mapping));
+                    }
+                }
+                return updated.isEmpty() ? null : Collections.unmodifiableSortedMap(updated);
+            });
+        }
+    }
+}
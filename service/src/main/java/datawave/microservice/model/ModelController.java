@@ -1,15 +1,17 @@
 package datawave.microservice.model;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
 
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.accumulo.core.client.TableNotFoundException;
-import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Mutation;
-import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.data.Range;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.annotation.Secured;
@@ -23,10 +25,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.google.common.collect.Sets;
-
 import datawave.microservice.AccumuloConnectionService;
 import datawave.microservice.authorization.user.DatawaveUserDetails;
+import datawave.microservice.dictionary.data.DataDictionary;
 import datawave.microservice.http.converter.protostuff.ProtostuffHttpMessageConverter;
 import datawave.microservice.model.config.ModelProperties;
 import datawave.query.model.FieldMapping;
@@ -59,14 +60,19 @@ public class ModelController {
     private final String dataTablesUri;
     private final String jqueryUri;
     private final AccumuloConnectionService accumloConnectionService;
+    private final DataDictionary<?,?,?> dataDictionary;
+    private final ModelCatalog modelCatalog;
     
     public static final String DEFAULT_MODEL_TABLE_NAME = "DatawaveMetadata";
-    private static final HashSet<String> RESERVED_COLF_VALUES = Sets.newHashSet("e", "i", "ri", "f", "tf", "m", "desc", "edge", "t", "n", "h");
     
-    public ModelController(ModelProperties modelProperties, AccumuloConnectionService accumloConnectionService) {
+    public ModelController(ModelProperties modelProperties, AccumuloConnectionService accumloConnectionService, DataDictionary<?,?,?> dataDictionary,
+                    ObjectProvider<ModelCatalog> modelCatalog) {
         this.dataTablesUri = modelProperties.getDataTablesUri();
         this.jqueryUri = modelProperties.getJqueryUri();
         this.accumloConnectionService = accumloConnectionService;
+        this.dataDictionary = dataDictionary;
+        // without the catalog, model names and mappings are scanned from the model table for every request
+        this.modelCatalog = modelProperties.getCache().isEnabled() ? modelCatalog.getObject() : null;
     }
     
     /**
@@ -86,28 +92,26 @@ public class ModelController {
         
         ModelList response = new ModelList(jqueryUri, dataTablesUri, modelTableName);
         HashSet<String> modelNames = new HashSet<>();
-        List<Key> keys;
         try {
-            keys = accumloConnectionService.getKeys(modelTableName, currentUser, "");
-        } catch (TableNotFoundException e) {
+            if (modelCatalog != null) {
+                modelNames.addAll(modelCatalog.getModelNames(accumloConnectionService.getConnection().getAccumuloClient(), modelTableName,
+                                accumloConnectionService.getAuths(currentUser)));
+            } else {
+                accumloConnectionService.scanKeys(modelTableName, currentUser, new Range(), Collections.emptySet(), ModelCatalog.createModelFilter(), key -> {
+                    String modelName = ModelCatalog.getModelName(key.getColumnFamily().toString());
+                    if (modelName != null) {
+                        modelNames.add(modelName);
+                    }
+                    return true;
+                });
+            }
+        } catch (TableNotFoundException | AccumuloException | AccumuloSecurityException e) {
             QueryException qe = new QueryException(DatawaveErrorCode.MODEL_NAME_LIST_ERROR, e);
             log.error(qe.getMessage());
             response.addException(qe.getBottomQueryException());
             return response;
         }
         
-        Set<String> colFamilies = keys.stream().map(k -> k.getColumnFamily().toString()).filter(colFamily -> !RESERVED_COLF_VALUES.contains(colFamily))
-                        .collect(Collectors.toSet());
-        
-        for (String colf : colFamilies) {
-            String[] parts = colf.split(ModelKeyParser.NULL_BYTE);
-            if (parts.length == 1) {
-                modelNames.add(colf);
-            } else if (parts.length == 2) {
-                modelNames.add(parts[0]);
-            }
-        }
-        
         response.setNames(modelNames);
         return response;
     }
@@ -132,10 +136,9 @@ public class ModelController {
     public VoidResponse deleteModel(@PathVariable String name, @RequestParam(defaultValue = DEFAULT_MODEL_TABLE_NAME) String modelTableName,
                     @AuthenticationPrincipal DatawaveUserDetails currentUser) {
         VoidResponse response = new VoidResponse();
-        ModelList models = listModelNames(modelTableName, currentUser);
-        if (models.getNames().contains(name)) {
+        Model model = getModel(name, modelTableName, currentUser);
+        if (!model.getFields().isEmpty()) {
             // the specified model exists, so we can proceed with deleting it
-            Model model = getModel(name, modelTableName, currentUser);
             deleteMapping(model, modelTableName, currentUser);
         }
         
@@ -191,18 +194,26 @@ public class ModelController {
     public Model getModel(@PathVariable String name, @RequestParam(defaultValue = DEFAULT_MODEL_TABLE_NAME) String modelTableName,
                     @AuthenticationPrincipal DatawaveUserDetails currentUser) {
         Model response = new Model(jqueryUri, dataTablesUri);
-        List<Key> keys;
+        TreeSet<FieldMapping> fields = response.getFields();
         try {
-            keys = accumloConnectionService.getKeys(modelTableName, currentUser, name);
-        } catch (TableNotFoundException e) {
+            if (modelCatalog != null) {
+                fields.addAll(modelCatalog.getMappings(accumloConnectionService.getConnection().getAccumuloClient(), modelTableName, name,
+                                accumloConnectionService.getAuths(currentUser)));
+            } else {
+                // the mappings are parsed as they are read, rather than collecting every key of the model first
+                accumloConnectionService.scanKeys(modelTableName, currentUser, new Range(), Collections.emptySet(),
+                                AccumuloConnectionService.createColumnFamilyFilter(name), key -> {
+                                    fields.add(ModelKeyParser.parseKey(key));
+                                    return true;
+                                });
+            }
+        } catch (TableNotFoundException | AccumuloException | AccumuloSecurityException e) {
             QueryException qe = new QueryException(DatawaveErrorCode.MODEL_NAME_LIST_ERROR, e);
             log.error(qe.getMessage());
             response.addException(qe.getBottomQueryException());
             return response;
         }
         
-        TreeSet<FieldMapping> fields = response.getFields();
-        keys.forEach(k -> fields.add(ModelKeyParser.parseKey(k)));
         response.setName(name);
         return response;
     }
@@ -234,12 +245,15 @@ public class ModelController {
                         .collect(Collectors.toList());
         
         QueryException exception = accumloConnectionService.modifyMappings(mutations, modelTableName, model.getName(), currentUser);
+        // some mutations may have been written even if others failed, so invalidate regardless
+        dataDictionary.invalidateModel(modelTableName, model.getName());
         if (exception != null) {
+            invalidateCatalog(modelTableName);
             response.addException(exception.getBottomQueryException());
+        } else if (modelCatalog != null) {
+            modelCatalog.putMappings(modelTableName, model.getName(), model.getFields());
         }
         
-        // Do we already have an AccumuloTableCache bean somewhere?
-        // cache.reloadTableCache(tableName);
         return response;
     }
     
@@ -270,10 +284,21 @@ public class ModelController {
                         .collect(Collectors.toList());
         
         QueryException exception = accumloConnectionService.modifyMappings(mutations, modelTableName, model.getName(), currentUser);
+        dataDictionary.invalidateModel(modelTableName, model.getName());
         if (exception != null) {
+            invalidateCatalog(modelTableName);
             response.addException(exception.getBottomQueryException());
+        } else if (modelCatalog != null) {
+            modelCatalog.removeMappings(modelTableName, model.getName(), model.getFields());
         }
         
         return response;
     }
+    
+    // some of the mutations may have been written, so the catalog can no longer be updated in place
+    private void invalidateCatalog(String modelTableName) {
+        if (modelCatalog != null) {
+            modelCatalog.invalidate(modelTableName);
+        }
+    }
 }
@@ -1,5 +1,10 @@
 package datawave.microservice.model.config;
 
+import java.time.Duration;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
@@ -15,4 +20,27 @@ public class ModelProperties {
     private String defaultTableName;
     private String jqueryUri;
     private String dataTablesUri;
+    @Valid
+    private Cache cache = new Cache();
+    
+    /**
+     * Settings for the catalog of models, which is scanned once per model table with the service authorizations and updated in place when mappings are
+     * inserted or deleted through this service.
+     */
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+        /**
+         * The maximum age of the models of a model table. Once older than this, the model table is scanned again on the next request.
+         */
+        @NotNull
+        private Duration maxAge = Duration.ofMinutes(30);
+        /**
+         * The authorizations to scan the model table with. These must include every authorization of every user that will be served, otherwise those users
+         * will be missing any mappings that are only visible with the excluded authorizations. Defaults to the authorizations of the accumulo user this
+         * service connects as.
+         */
+        private String serviceAuths;
+    }
 }
@@ -0,0 +1,94 @@
+package datawave.microservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.hadoop.io.Text;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.Sets;
+
+import datawave.accumulo.inmemory.InMemoryAccumuloClient;
+import datawave.accumulo.inmemory.InMemoryInstance;
+import datawave.microservice.authorization.user.DatawaveUserDetails;
+import datawave.microservice.dictionary.config.DataDictionaryProperties;
+import datawave.security.authorization.DatawaveUser;
+import datawave.security.authorization.SubjectIssuerDNPair;
+
+public class AccumuloConnectionServiceTest {
+    
+    private static final String TABLE = "modelTable";
+    
+    private AccumuloConnectionService service;
+    private DatawaveUserDetails user;
+    
+    @BeforeEach
+    public void setUp() throws Exception {
+        AccumuloClient client = new InMemoryAccumuloClient("root", new InMemoryInstance());
+        client.securityOperations().changeUserAuthorizations("root", new Authorizations("PRIVATE", "PUBLIC"));
+        client.tableOperations().create(TABLE);
+        try (BatchWriter writer = client.createBatchWriter(TABLE, new BatchWriterConfig())) {
+            for (String row : new String[] {"ALPHA", "BRAVO", "CHARLIE"}) {
+                Mutation mutation = new Mutation(row);
+                mutation.put("MODEL\u0000csv", row.toLowerCase(), new ColumnVisibility("PUBLIC"), new Value());
+                mutation.put("OTHER\u0000csv", row.toLowerCase(), new ColumnVisibility("PUBLIC"), new Value());
+                mutation.put("desc", "csv", new ColumnVisibility("PUBLIC"), new Value("description"));
+                mutation.put("MODEL\u0000secret", row.toLowerCase(), new ColumnVisibility("PRIVATE"), new Value());
+                writer.addMutation(mutation);
+            }
+        }
+        
+        service = new AccumuloConnectionService(new DataDictionaryProperties(), null, client, null);
+        
+        SubjectIssuerDNPair dn = SubjectIssuerDNPair.of("userDn", "issuerDn");
+        long createTime = System.currentTimeMillis();
+        user = new DatawaveUserDetails(Collections.singleton(new DatawaveUser(dn, DatawaveUser.UserType.USER, Sets.newHashSet("PUBLIC"),
+                        Collections.singleton("AuthorizedUser"), null, createTime)), createTime);
+    }
+    
+    @Test
+    public void whenGettingKeys_shouldOnlyReturnVisibleKeysOfTheModel() throws Exception {
+        List<Key> keys = service.getKeys(TABLE, user, "MODEL");
+        
+        assertThat(keys).extracting(k -> k.getRow().toString()).containsExactly("ALPHA", "BRAVO", "CHARLIE");
+        assertThat(keys).extracting(k -> k.getColumnFamily().toString()).containsOnly("MODEL\u0000csv");
+        assertThat(service.getKeys(TABLE, user, "")).hasSize(9);
+    }
+    
+    @Test
+    public void whenScanningKeys_shouldHonourRangeColumnFamiliesAndFilter() throws Exception {
+        List<Key> keys = new ArrayList<>();
+        service.scanKeys(TABLE, user, new Range("BRAVO", "CHARLIE"), Collections.singleton(new Text("desc")), null, keys::add);
+        assertThat(keys).extracting(k -> k.getRow().toString()).containsExactly("BRAVO", "CHARLIE");
+        
+        keys.clear();
+        service.scanKeys(TABLE, user, new Range(), Collections.emptySet(), AccumuloConnectionService.createColumnFamilyFilter("OTHER"), keys::add);
+        assertThat(keys.stream().map(k -> k.getColumnFamily().toString()).collect(Collectors.toSet())).containsExactly("OTHER\u0000csv");
+    }
+    
+    @Test
+    public void whenVisitorReturnsFalse_shouldStopScanning() throws Exception {
+        List<Key> keys = new ArrayList<>();
+        service.scanKeys(TABLE, user, new Range(), Collections.emptySet(), null, key -> {
+            keys.add(key);
+            return keys.size() < 2;
+        });
+        
+        assertThat(keys).hasSize(2);
+        assertThat(keys.get(0).getRow().toString()).isEqualTo("ALPHA");
+    }
+}
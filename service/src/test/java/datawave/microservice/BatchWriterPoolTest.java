@@ -0,0 +1,202 @@
+package datawave.microservice;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.MutationsRejectedException;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import datawave.accumulo.inmemory.InMemoryAccumuloClient;
+import datawave.accumulo.inmemory.InMemoryInstance;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BatchWriterPoolTest {
+    
+    private static final String TABLE = "modelTable";
+    
+    private AccumuloClient client;
+    private SimpleMeterRegistry registry;
+    private BatchWriterPool pool;
+    
+    @BeforeEach
+    public void setUp() throws Exception {
+        client = new InMemoryAccumuloClient("root", new InMemoryInstance());
+        client.tableOperations().create(TABLE);
+        registry = new SimpleMeterRegistry();
+        pool = new BatchWriterPool(client, new BatchWriterConfig());
+        pool.bindTo(registry, "writer");
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        pool.close();
+    }
+    
+    @Test
+    public void whenWriting_shouldFlushBeforeReturningAndReuseTheWriterOfTheTable() throws Exception {
+        pool.write(TABLE, Collections.singletonList(mutation("FOO")));
+        assertThat(count()).isEqualTo(1);
+        
+        pool.write(TABLE, Arrays.asList(mutation("BAR"), mutation("BAZ")));
+        assertThat(count()).isEqualTo(3);
+        
+        assertThat(registry.get("writer.writers").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("writer.queued.bytes").gauge().value()).isZero();
+        assertThat(registry.get("writer.latency").timer().count()).isEqualTo(2);
+    }
+    
+    @Test
+    public void whenWriting_givenMissingTable_shouldThrowTableNotFound() {
+        assertThatThrownBy(() -> pool.write("missingTable", Collections.singletonList(mutation("FOO")))).isInstanceOf(TableNotFoundException.class);
+    }
+    
+    @Test
+    public void whenWriting_givenClosedPool_shouldThrowIllegalState() throws Exception {
+        pool.write(TABLE, Collections.singletonList(mutation("FOO")));
+        pool.close();
+        
+        assertThat(registry.get("writer.writers").gauge().value()).isZero();
+        assertThatIllegalStateException().isThrownBy(() -> pool.write(TABLE, Collections.singletonList(mutation("BAR"))));
+    }
+    
+    @Test
+    public void whenWritingConcurrently_shouldCombineQueuedWritesAndOnlyFailTheRejectedWrite() throws Exception {
+        List<List<String>> flushes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstFlush = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AccumuloClient mockClient = mock(AccumuloClient.class);
+        when(mockClient.createBatchWriter(eq(TABLE), any(BatchWriterConfig.class))).thenAnswer(invocation -> new RecordingWriter(flushes, firstFlush, release));
+        BatchWriterPool mockPool = new BatchWriterPool(mockClient, new BatchWriterConfig());
+        mockPool.bindTo(registry, "mock");
+        
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // hold the first flush open, so that the next writes queue up behind it
+            Future<?> first = executor.submit(() -> write(mockPool, "FIRST"));
+            assertThat(firstFlush.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<?> good = executor.submit(() -> write(mockPool, "GOOD"));
+            Future<?> bad = executor.submit(() -> write(mockPool, "BAD"));
+            long queued = mutation("FIRST").estimatedMemoryUsed() + mutation("GOOD").estimatedMemoryUsed() + mutation("BAD").estimatedMemoryUsed();
+            while (registry.get("mock.queued.bytes").gauge().value() < queued) {
+                Thread.sleep(10);
+            }
+            // the bytes are counted just before the writes are queued
+            Thread.sleep(100);
+            release.countDown();
+            
+            first.get(10, TimeUnit.SECONDS);
+            good.get(10, TimeUnit.SECONDS);
+            assertThatThrownBy(() -> bad.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(MutationsRejectedException.class);
+        } finally {
+            executor.shutdownNow();
+            mockPool.close();
+        }
+        
+        // the queued writes are flushed together, then each is written again on its own once that flush is rejected
+        assertThat(flushes.get(0)).containsExactly("FIRST");
+        assertThat(flushes.get(1)).containsExactlyInAnyOrder("GOOD", "BAD");
+        assertThat(flushes.subList(2, flushes.size())).containsExactlyInAnyOrder(Collections.singletonList("GOOD"), Collections.singletonList("BAD"));
+        assertThat(registry.get("mock.rejected").counter().count()).isEqualTo(1);
+    }
+    
+    private static Void write(BatchWriterPool pool, String row) throws Exception {
+        pool.write(TABLE, Collections.singletonList(mutation(row)));
+        return null;
+    }
+    
+    private static Mutation mutation(String row) {
+        Mutation mutation = new Mutation(row);
+        mutation.put("cf", "cq", new Value(row));
+        return mutation;
+    }
+    
+    private int count() throws Exception {
+        int count = 0;
+        try (Scanner scanner = client.createScanner(TABLE, new Authorizations())) {
+            for (Map.Entry<Key,Value> ignored : scanner) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * A writer that records the rows of each flush, holds the first flush until released, and rejects any flush that includes the row BAD.
+     */
+    private static class RecordingWriter implements BatchWriter {
+        
+        private final List<List<String>> flushes;
+        private final CountDownLatch firstFlush;
+        private final CountDownLatch release;
+        private final List<String> buffered = new ArrayList<>();
+        
+        private RecordingWriter(List<List<String>> flushes, CountDownLatch firstFlush, CountDownLatch release) {
+            this.flushes = flushes;
+            this.firstFlush = firstFlush;
+            this.release = release;
+        }
+        
+        @Override
+        public void addMutation(Mutation m) {
+            buffered.add(new String(m.getRow()));
+        }
+        
+        @Override
+        public void addMutations(Iterable<Mutation> iterable) {
+            iterable.forEach(this::addMutation);
+        }
+        
+        @Override
+        public void flush() throws MutationsRejectedException {
+            if (buffered.isEmpty()) {
+                return;
+            }
+            if (firstFlush.getCount() > 0) {
+                firstFlush.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            flushes.add(new ArrayList<>(buffered));
+            boolean rejected = buffered.contains("BAD");
+            buffered.clear();
+            if (rejected) {
+                throw mock(MutationsRejectedException.class);
+            }
+        }
+        
+        @Override
+        public void close() throws MutationsRejectedException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package datawave.microservice.dictionary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class DescriptionRowReaderTest {
+    
+    private static InputStream body(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    public void testNdjson() throws Exception {
+        DescriptionRowReader reader = DescriptionRowReader.ndjson(new ObjectMapper(),
+                        body("{\"fieldName\":\"SHAPE\",\"datatype\":\"csv\",\"visibility\":\"PUBLIC\",\"description\":\"the shape\"}", "",
+                                        "{\"fieldName\":\"COLOR\",\"datatype\":\"enwiki\",\"visibility\":\"PRIVATE\",\"description\":\"the color\"}"));
+        
+        DescriptionRowReader.Row row = reader.read();
+        assertThat(row.getFieldName()).isEqualTo("SHAPE");
+        assertThat(row.getDatatype()).isEqualTo("csv");
+        assertThat(row.getVisibility()).isEqualTo("PUBLIC");
+        assertThat(row.getDescription()).isEqualTo("the shape");
+        assertThat(reader.read().getFieldName()).isEqualTo("COLOR");
+        assertThat(reader.read()).isNull();
+    }
+    
+    @Test
+    public void testNdjsonContinuesAfterMalformedRow() throws Exception {
+        DescriptionRowReader reader = DescriptionRowReader.ndjson(new ObjectMapper(), body("{\"fieldName\":\"SHAPE\",\"datatype\":\"csv\"}", "not json",
+                        "{\"fieldName\":\"COLOR\",\"datatype\":\"enwiki\",\"visibility\":\"PRIVATE\",\"description\":\"the color\"}"));
+        
+        assertThatIllegalArgumentException().isThrownBy(reader::read).withMessage("Line 1 has no visibility");
+        assertThatIllegalArgumentException().isThrownBy(reader::read).withMessageStartingWith("Line 2 is not valid JSON");
+        assertThat(reader.read().getFieldName()).isEqualTo("COLOR");
+        assertThat(reader.read()).isNull();
+    }
+    
+    @Test
+    public void testCsvSkipsHeaderAndUnquotesValues() throws Exception {
+        DescriptionRowReader reader = DescriptionRowReader.csv(body("fieldName,datatype,visibility,description", "SHAPE,csv,PUBLIC,the shape",
+                        "COLOR,enwiki,PRIVATE|ADMIN,\"the \"\"color\"\", or hue,", "of an item\"", ""));
+        
+        DescriptionRowReader.Row row = reader.read();
+        assertThat(row.getFieldName()).isEqualTo("SHAPE");
+        assertThat(row.getDescription()).isEqualTo("the shape");
+        row = reader.read();
+        assertThat(row.getVisibility()).isEqualTo("PRIVATE|ADMIN");
+        assertThat(row.getDescription()).isEqualTo("the \"color\", or hue,\nof an item");
+        assertThat(reader.read()).isNull();
+    }
+    
+    @Test
+    public void testCsvContinuesAfterMalformedRow() throws Exception {
+        DescriptionRowReader reader = DescriptionRowReader.csv(body("SHAPE,csv,PUBLIC", "COLOR,enwiki,PRIVATE,the color"));
+        
+        assertThatIllegalArgumentException().isThrownBy(reader::read).withMessage("Line 1 has 3 values, but 4 are required");
+        assertThat(reader.read().getFieldName()).isEqualTo("COLOR");
+        assertThat(reader.read()).isNull();
+    }
+}
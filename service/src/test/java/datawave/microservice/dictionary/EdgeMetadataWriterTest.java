@@ -0,0 +1,77 @@
+package datawave.microservice.dictionary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import datawave.webservice.dictionary.edge.DefaultEdgeDictionary;
+import datawave.webservice.dictionary.edge.DefaultMetadata;
+import datawave.webservice.dictionary.edge.EventField;
+import io.protostuff.LinkedBuffer;
+import io.protostuff.ProtostuffIOUtil;
+
+public class EdgeMetadataWriterTest {
+    
+    private static DefaultMetadata metadata(String edgeType, String edgeRelationship) {
+        EventField field = new EventField();
+        field.setSourceField("SOURCE");
+        field.setSinkField("SINK");
+        DefaultMetadata metadata = new DefaultMetadata();
+        metadata.setEdgeType(edgeType);
+        metadata.setEdgeRelationship(edgeRelationship);
+        metadata.setEdgeAttribute1Source("CSV");
+        metadata.setEventFields(Collections.singletonList(field));
+        metadata.setStartDate("20240101");
+        return metadata;
+    }
+    
+    @Test
+    public void testProtostuffMatchesMaterializedResponse() throws Exception {
+        List<DefaultMetadata> metadata = Arrays.asList(metadata("OWNS", "OWNER-PET"), metadata("LIKES", "PERSON-FOOD"));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        
+        EdgeMetadataWriter<DefaultMetadata> writer = EdgeMetadataWriter.protostuff(outputStream);
+        for (DefaultMetadata meta : metadata) {
+            writer.write(meta);
+        }
+        writer.finish(metadata.size());
+        
+        byte[] materialized = ProtostuffIOUtil.toByteArray(new DefaultEdgeDictionary(metadata), DefaultEdgeDictionary.getSchema(),
+                        LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE));
+        assertThat(outputStream.toByteArray()).isEqualTo(materialized);
+    }
+    
+    @Test
+    public void testJsonUsesMaterializedPropertyNames() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        
+        EdgeMetadataWriter<DefaultMetadata> writer = EdgeMetadataWriter.json(objectMapper, outputStream);
+        writer.write(metadata("OWNS", "OWNER-PET"));
+        writer.write(metadata("LIKES", "PERSON-FOOD"));
+        writer.finish(2);
+        
+        JsonNode response = objectMapper.readTree(outputStream.toByteArray());
+        assertThat(response.get("TotalResults").asLong()).isEqualTo(2);
+        assertThat(response.get("EdgeMetadata")).hasSize(2);
+        assertThat(response.get("EdgeMetadata").get(0).toString()).isEqualTo(objectMapper.writeValueAsString(metadata("OWNS", "OWNER-PET")));
+    }
+    
+    @Test
+    public void testEmptyResponse() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        
+        EdgeMetadataWriter.<DefaultMetadata> json(objectMapper, outputStream).finish(0);
+        
+        assertThat(objectMapper.readTree(outputStream.toByteArray()).get("EdgeMetadata")).isEmpty();
+    }
+}
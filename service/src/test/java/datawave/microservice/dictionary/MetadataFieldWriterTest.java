@@ -0,0 +1,74 @@
+package datawave.microservice.dictionary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import datawave.webservice.dictionary.data.DefaultDataDictionary;
+import datawave.webservice.metadata.DefaultMetadataField;
+import io.protostuff.ProtostuffIOUtil;
+
+public class MetadataFieldWriterTest {
+    
+    private static DefaultMetadataField field(String fieldName, String dataType) {
+        DefaultMetadataField field = new DefaultMetadataField();
+        field.setFieldName(fieldName);
+        field.setInternalFieldName(fieldName);
+        field.setDataType(dataType);
+        field.setIndexOnly(false);
+        field.setForwardIndexed(true);
+        field.addType("Text");
+        field.setLastUpdated("20240101000000");
+        return field;
+    }
+    
+    @Test
+    public void testProtostuffMatchesMaterializedResponse() throws Exception {
+        List<DefaultMetadataField> fields = Arrays.asList(field("SHAPE", "csv"), field("COLOR", "enwiki"));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        
+        MetadataFieldWriter<DefaultMetadataField> writer = MetadataFieldWriter.protostuff(outputStream);
+        for (DefaultMetadataField field : fields) {
+            writer.write(field);
+        }
+        writer.finish(fields.size());
+        
+        DefaultDataDictionary dictionary = DefaultDataDictionary.getSchema().newMessage();
+        ProtostuffIOUtil.mergeFrom(outputStream.toByteArray(), dictionary, DefaultDataDictionary.getSchema());
+        assertThat(dictionary.getTotalResults()).isEqualTo(2);
+        assertThat(dictionary.getFields()).containsExactlyElementsOf(fields);
+    }
+    
+    @Test
+    public void testJsonUsesMaterializedPropertyNames() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        
+        MetadataFieldWriter<DefaultMetadataField> writer = MetadataFieldWriter.json(objectMapper, outputStream);
+        writer.write(field("SHAPE", "csv"));
+        writer.write(field("COLOR", "enwiki"));
+        writer.finish(2);
+        
+        JsonNode response = objectMapper.readTree(outputStream.toByteArray());
+        assertThat(response.get("TotalResults").asLong()).isEqualTo(2);
+        assertThat(response.get("MetadataFields")).hasSize(2);
+        assertThat(response.get("MetadataFields").get(0).toString()).isEqualTo(objectMapper.writeValueAsString(field("SHAPE", "csv")));
+    }
+    
+    @Test
+    public void testEmptyResponse() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        
+        MetadataFieldWriter.<DefaultMetadataField> json(objectMapper, outputStream).finish(0);
+        
+        assertThat(objectMapper.readTree(outputStream.toByteArray()).get("MetadataFields")).isEmpty();
+    }
+}
@@ -0,0 +1,207 @@
+package datawave.microservice.dictionary.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.accumulo.core.security.Authorizations;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.Sets;
+
+import datawave.microservice.dictionary.config.DataDictionaryProperties;
+
+public class DataDictionaryCacheTest {
+    
+    private static final Set<Authorizations> AUTHS = Sets.newHashSet(new Authorizations("PRIVATE"), new Authorizations("PUBLIC"));
+    
+    private DataDictionaryCache<String> cache;
+    private AtomicInteger loads;
+    
+    @BeforeEach
+    public void setUp() {
+        cache = new DataDictionaryCache<>(new DataDictionaryProperties.Cache());
+        loads = new AtomicInteger();
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        cache.close();
+    }
+    
+    private String load() {
+        return "value" + loads.incrementAndGet();
+    }
+    
+    @Test
+    public void testRepeatedRequestsAreServedFromCache() throws Exception {
+        DataDictionaryCache.CacheKey key = new DataDictionaryCache.CacheKey("metadata", "model", "modelName", AUTHS, Arrays.asList("csv", "enwiki"));
+        DataDictionaryCache.CacheKey reordered = new DataDictionaryCache.CacheKey("metadata", "model", "modelName",
+                        Sets.newHashSet(new Authorizations("PUBLIC"), new Authorizations("PRIVATE")), Arrays.asList("enwiki", "csv"));
+        
+        assertThat(cache.get(key, this::load)).isEqualTo("value1");
+        assertThat(cache.get(reordered, this::load)).isEqualTo("value1");
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+    
+    @Test
+    public void testAuthorizationsPartitionEntries() throws Exception {
+        DataDictionaryCache.CacheKey key = new DataDictionaryCache.CacheKey("metadata", "model", "modelName", AUTHS, Collections.emptyList());
+        DataDictionaryCache.CacheKey downgraded = new DataDictionaryCache.CacheKey("metadata", "model", "modelName",
+                        Collections.singleton(new Authorizations("PUBLIC")), Collections.emptyList());
+        
+        assertThat(cache.get(key, this::load)).isEqualTo("value1");
+        assertThat(cache.get(downgraded, this::load)).isEqualTo("value2");
+    }
+    
+    @Test
+    public void testInvalidation() throws Exception {
+        DataDictionaryCache.CacheKey key = new DataDictionaryCache.CacheKey("metadata", "model", "modelName", AUTHS, Collections.emptyList());
+        DataDictionaryCache.CacheKey otherModel = new DataDictionaryCache.CacheKey("metadata", "model", "otherModel", AUTHS, Collections.emptyList());
+        cache.get(key, this::load);
+        cache.get(otherModel, this::load);
+        
+        cache.invalidateModel("model", "modelName");
+        assertThat(cache.size()).isEqualTo(1);
+        
+        cache.invalidateMetadataTable("otherMetadata");
+        assertThat(cache.size()).isEqualTo(1);
+        
+        cache.invalidateMetadataTable("metadata");
+        assertThat(cache.size()).isEqualTo(0);
+    }
+    
+    @Test
+    public void testLoadsInvalidatedWhileInFlightAreNotKept() throws Exception {
+        DataDictionaryCache.CacheKey key = new DataDictionaryCache.CacheKey("metadata", "model", "modelName", AUTHS, Collections.emptyList());
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch finishLoad = new CountDownLatch(1);
+        
+        Thread loader = new Thread(() -> {
+            try {
+                cache.get(key, () -> {
+                    loadStarted.countDown();
+                    finishLoad.await();
+                    return load();
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        loader.start();
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        // the metadata is modified while it is being scanned, so the scanned value may predate the modification
+        cache.invalidateMetadataTable("metadata");
+        finishLoad.countDown();
+        loader.join(5000);
+        
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.get(key, this::load)).isEqualTo("value2");
+        assertThat(cache.get(key, this::load)).isEqualTo("value2");
+    }
+    
+    @Test
+    public void testLoaderExceptionsAreRethrown() {
+        DataDictionaryCache.CacheKey key = new DataDictionaryCache.CacheKey("metadata", "model", "modelName", AUTHS, Collections.emptyList());
+        assertThatThrownBy(() -> cache.get(key, () -> {
+            throw new IllegalStateException("scan failed");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("scan failed");
+        assertThat(cache.size()).isEqualTo(0);
+    }
+    
+    @Test
+    public void testDisabledCacheAlwaysLoads() throws Exception {
+        cache.close();
+        cache = DataDictionaryCache.disabled();
+        DataDictionaryCache.CacheKey key = new DataDictionaryCache.CacheKey("metadata", "model", "modelName", AUTHS, Collections.emptyList());
+        
+        assertThat(cache.get(key, this::load)).isEqualTo("value1");
+        assertThat(cache.get(key, this::load)).isEqualTo("value2");
+    }
+    
+    @Test
+    public void testDisabledCacheStartsNoRefresher() {
+        long refreshers = countRefreshThreads();
+        DataDictionaryProperties.Cache properties = new DataDictionaryProperties.Cache();
+        properties.setEnabled(false);
+        try (DataDictionaryCache<String> disabled = DataDictionaryCache.disabled();
+                        DataDictionaryCache<String> disabledByProperties = new DataDictionaryCache<>(properties);
+                        DataDictionaryCache<String> disabledByFlag = new DataDictionaryCache<>(new DataDictionaryProperties.Cache(), false)) {
+            assertThat(countRefreshThreads()).isLessThanOrEqualTo(refreshers);
+        }
+    }
+    
+    @Test
+    public void testPreviousSnapshotIsServedWhileRefreshing() throws Exception {
+        cache.close();
+        cache = new DataDictionaryCache<>(refreshingCacheProperties());
+        DataDictionaryCache.CacheKey key = new DataDictionaryCache.CacheKey("metadata", "model", "modelName", AUTHS, Collections.emptyList());
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch finishRefresh = new CountDownLatch(1);
+        
+        assertThat(cache.get(key, () -> {
+            if (loads.get() > 0) {
+                refreshStarted.countDown();
+                finishRefresh.await();
+            }
+            return load();
+        })).isEqualTo("value1");
+        
+        // the entry is in use, so it will be refreshed in the background
+        assertThat(cache.get(key, this::load)).isEqualTo("value1");
+        assertThat(refreshStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(cache.get(key, this::load)).isEqualTo("value1");
+        
+        finishRefresh.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"value2".equals(cache.get(key, this::load)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(cache.get(key, this::load)).isEqualTo("value2");
+    }
+    
+    @Test
+    public void testPrewarmedEntriesAreReloadedAfterInvalidation() throws Exception {
+        cache.close();
+        cache = new DataDictionaryCache<>(refreshingCacheProperties());
+        DataDictionaryCache.CacheKey key = new DataDictionaryCache.CacheKey("metadata", "model", "modelName", AUTHS, Collections.emptyList());
+        
+        cache.prewarm(key, this::load);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.size() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(cache.size()).isEqualTo(1);
+        
+        cache.invalidateMetadataTable("metadata");
+        deadline = System.currentTimeMillis() + 5000;
+        while (cache.size() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(loads.get()).isGreaterThanOrEqualTo(2);
+    }
+    
+    private static DataDictionaryProperties.Cache refreshingCacheProperties() {
+        DataDictionaryProperties.Cache properties = new DataDictionaryProperties.Cache();
+        properties.setRefreshInterval(Duration.ofMillis(100));
+        return properties;
+    }
+    
+    private static long countRefreshThreads() {
+        return Thread.getAllStackTraces().keySet().stream().filter(thread -> thread.getName().startsWith("dictionary-cache-refresh")).count();
+    }
+}
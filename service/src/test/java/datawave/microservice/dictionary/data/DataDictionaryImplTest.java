@@ -1,12 +1,18 @@
 package datawave.microservice.dictionary.data;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -15,11 +21,14 @@ import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.MutationsRejectedException;
 import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.security.Authorizations;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -30,7 +39,9 @@ import com.google.common.collect.SetMultimap;
 
 import datawave.marking.MarkingFunctions;
 import datawave.microservice.Connection;
+import datawave.microservice.dictionary.config.DataDictionaryProperties;
 import datawave.microservice.dictionary.config.ResponseObjectFactory;
+import datawave.microservice.metadata.MetadataDescriptionStore;
 import datawave.microservice.metadata.MetadataDescriptionsHelper;
 import datawave.microservice.metadata.MetadataDescriptionsHelperFactory;
 import datawave.query.model.QueryModel;
@@ -73,6 +84,9 @@ public class DataDictionaryImplTest {
     @Mock
     private MetadataDescriptionsHelper<DefaultDescription> metadataDescriptionsHelper;
     
+    @Mock
+    private MetadataDescriptionStore<DefaultDescription> metadataDescriptionStore;
+    
     private DataDictionaryImpl dataDictionary;
     
     @BeforeEach
@@ -86,6 +100,11 @@ public class DataDictionaryImplTest {
         dataDictionary = new DataDictionaryImpl(markingFunctions, responseObjectFactory, metadataHelperFactory, metadataDescriptionsHelperFactory);
     }
     
+    @AfterEach
+    public void tearDown() {
+        dataDictionary.close();
+    }
+    
     @Test
     public void whenSettingDescription_givenSingleDefaultDescription_shouldSetDescription() throws Exception {
         Map<String,String> markings = new HashMap<>();
@@ -334,13 +353,142 @@ public class DataDictionaryImplTest {
         verify(metadataDescriptionsHelper).removeDescription(new MetadataEntry("alias", DATATYPE), description);
     }
     
-    private void givenQueryModelReverseMapping(String key, String value) throws ExecutionException, TableNotFoundException {
+    @Test
+    public void whenRetrievingDescriptionsWithFieldNameAndDatatype_givenAliasesCache_shouldReadQueryModelOnceUntilInvalidated() throws Exception {
+        try (DataDictionaryCache<QueryModelAliases> aliasesCache = new DataDictionaryCache<>(new DataDictionaryProperties.Cache())) {
+            dataDictionary = new DataDictionaryImpl.Builder(markingFunctions, responseObjectFactory, metadataHelperFactory, metadataDescriptionsHelperFactory)
+                            .withAliasesCache(aliasesCache).build();
+            
+            // Ensure an alias will be found.
+            MetadataHelper helper = givenQueryModelReverseMapping(Collections.singletonMap("alias", FIELD_NAME));
+            givenInitializedMetadataDescriptionsHelper();
+            
+            // Establish expected result.
+            DefaultDescription description = new DefaultDescription("description");
+            when(metadataDescriptionsHelper.getDescriptions("alias", DATATYPE)).thenReturn(Collections.singleton(description));
+            
+            // Execute function under test.
+            assertThat(dataDictionary.getDescriptions(connectionConfig, FIELD_NAME, DATATYPE)).containsExactly(description);
+            assertThat(dataDictionary.getDescriptions(connectionConfig, FIELD_NAME, DATATYPE)).containsExactly(description);
+            verify(helper, times(1)).getQueryModel(MODEL_TABLE, MODEL_NAME);
+            
+            // Modifying the model should cause it to be read again.
+            dataDictionary.invalidateModel(MODEL_TABLE, MODEL_NAME);
+            assertThat(dataDictionary.getDescriptions(connectionConfig, FIELD_NAME, DATATYPE)).containsExactly(description);
+            verify(helper, times(2)).getQueryModel(MODEL_TABLE, MODEL_NAME);
+        }
+    }
+    
+    @Test
+    public void whenRetrievingDescriptionsWithFieldNameAndDatatype_givenDescriptionStore_shouldRetrieveDescriptionsFromStore() throws Exception {
+        dataDictionary = new DataDictionaryImpl.Builder(markingFunctions, responseObjectFactory, metadataHelperFactory, metadataDescriptionsHelperFactory)
+                        .withDescriptionStore(metadataDescriptionStore).build();
+        
+        // Ensure an alias will be found.
+        givenQueryModelReverseMapping("alias", FIELD_NAME);
+        
+        // Establish expected result.
+        DefaultDescription description = new DefaultDescription("description");
+        when(metadataDescriptionStore.getDescriptions(connectionConfig, "alias", DATATYPE)).thenReturn(Collections.singleton(description));
+        
+        // Execute function under test.
+        Set<DefaultDescription> descriptions = dataDictionary.getDescriptions(connectionConfig, FIELD_NAME, DATATYPE);
+        
+        // Verify the metadata table was not scanned.
+        verify(metadataDescriptionsHelperFactory, never()).createMetadataDescriptionsHelper();
+        
+        // Verify the result.
+        assertThat(descriptions).containsExactly(description);
+    }
+    
+    @Test
+    public void whenSettingDescription_givenDescriptionStore_shouldUpdateStoreAfterWritingDescription() throws Exception {
+        dataDictionary = new DataDictionaryImpl.Builder(markingFunctions, responseObjectFactory, metadataHelperFactory, metadataDescriptionsHelperFactory)
+                        .withDescriptionStore(metadataDescriptionStore).build();
+        
+        DefaultDescription description = new DefaultDescription("my ultra cool description");
+        description.setMarkings(Collections.singletonMap("columnVisibility", "PRIVATE"));
+        
+        // Ensure no alias will be found.
+        givenQueryModelReverseMapping(FIELD_NAME, "noalias");
+        givenInitializedMetadataDescriptionsHelper();
+        
+        // Execute function under test.
+        dataDictionary.setDescription(connectionConfig, FIELD_NAME, DATATYPE, description);
+        
+        // Verify the description was written, then applied to the store.
+        Set<DefaultDescription> descriptions = Collections.singleton(description);
+        InOrder inOrder = inOrder(metadataDescriptionsHelper, metadataDescriptionStore);
+        inOrder.verify(metadataDescriptionsHelper).setDescriptions(new MetadataEntry(FIELD_NAME, DATATYPE), descriptions);
+        inOrder.verify(metadataDescriptionStore).putDescriptions(METADATA_TABLE, new MetadataEntry(FIELD_NAME, DATATYPE), descriptions);
+    }
+    
+    @Test
+    public void whenDeletingDescription_givenDescriptionStoreAndFailedWrite_shouldInvalidateStore() throws Exception {
+        dataDictionary = new DataDictionaryImpl.Builder(markingFunctions, responseObjectFactory, metadataHelperFactory, metadataDescriptionsHelperFactory)
+                        .withDescriptionStore(metadataDescriptionStore).build();
+        
+        DefaultDescription description = new DefaultDescription("my ultra cool description");
+        
+        // Ensure no alias will be found.
+        givenQueryModelReverseMapping(FIELD_NAME, "noalias");
+        givenInitializedMetadataDescriptionsHelper();
+        doThrow(MutationsRejectedException.class).when(metadataDescriptionsHelper).removeDescription(new MetadataEntry(FIELD_NAME, DATATYPE), description);
+        
+        // Execute function under test.
+        assertThatThrownBy(() -> dataDictionary.deleteDescription(connectionConfig, FIELD_NAME, DATATYPE, description))
+                        .isInstanceOf(MutationsRejectedException.class);
+        
+        // Verify the store was invalidated rather than updated.
+        verify(metadataDescriptionStore).invalidate(METADATA_TABLE);
+        verify(metadataDescriptionStore, never()).removeDescription(any(), any(), any());
+    }
+    
+    @Test
+    public void whenSettingDescriptionsInBulk_shouldReadQueryModelOnceAndWriteAllDescriptionsTogether() throws Exception {
+        DefaultDescription descriptionA = new DefaultDescription("description A");
+        DefaultDescription descriptionB = new DefaultDescription("description B");
+        
+        DefaultDictionaryField fieldA = new DefaultDictionaryField();
+        fieldA.setFieldName(FIELD_NAME);
+        fieldA.setDatatype(DATATYPE);
+        fieldA.setDescriptions(Collections.singleton(descriptionA));
+        DefaultDictionaryField fieldB = new DefaultDictionaryField();
+        fieldB.setFieldName("FIELDB");
+        fieldB.setDatatype(DATATYPE);
+        fieldB.setDescriptions(Collections.singleton(descriptionB));
+        DefaultDictionaryField invalid = new DefaultDictionaryField();
+        invalid.setFieldName("FIELDC");
+        
+        // Ensure an alias will be found for the first field, and that the second field cannot be written.
+        MetadataHelper helper = givenQueryModelReverseMapping("alias", FIELD_NAME);
+        givenInitializedMetadataDescriptionsHelper();
+        MarkingFunctions.Exception rejected = new MarkingFunctions.Exception("invalid markings");
+        when(metadataDescriptionsHelper.writeDescriptions(any())).thenReturn(Collections.singletonMap(new MetadataEntry("FIELDB", DATATYPE), rejected));
+        
+        // Execute function under test.
+        Map<Map.Entry<String,String>,Exception> failures = dataDictionary.setDescriptions(connectionConfig, Arrays.asList(fieldA, fieldB, invalid));
+        
+        // Verify expected calls.
+        verify(helper, times(1)).getQueryModel(MODEL_TABLE, MODEL_NAME);
+        SetMultimap<MetadataEntry,DefaultDescription> expected = HashMultimap.create();
+        expected.put(new MetadataEntry("alias", DATATYPE), descriptionA);
+        expected.put(new MetadataEntry("FIELDB", DATATYPE), descriptionB);
+        verify(metadataDescriptionsHelper, times(1)).writeDescriptions(expected);
+        
+        // Verify the result.
+        assertThat(failures).containsEntry(Maps.immutableEntry("FIELDB", DATATYPE), rejected);
+        assertThat(failures).containsKey(Maps.immutableEntry("FIELDC", null));
+        assertThat(failures).hasSize(2);
+    }
+    
+    private MetadataHelper givenQueryModelReverseMapping(String key, String value) throws ExecutionException, TableNotFoundException {
         Map<String,String> map = new HashMap<>();
         map.put(key, value);
-        givenQueryModelReverseMapping(map);
+        return givenQueryModelReverseMapping(map);
     }
     
-    private void givenQueryModelReverseMapping(Map<String,String> map) throws ExecutionException, TableNotFoundException {
+    private MetadataHelper givenQueryModelReverseMapping(Map<String,String> map) throws ExecutionException, TableNotFoundException {
         QueryModel model = mock(QueryModel.class);
         when(model.getReverseQueryMapping()).thenReturn(map);
         
@@ -348,6 +496,7 @@ public class DataDictionaryImplTest {
         when(helper.getQueryModel(eq(MODEL_TABLE), eq(MODEL_NAME))).thenReturn(model);
         
         when(metadataHelperFactory.createMetadataHelper(any(), eq(METADATA_TABLE), any())).thenReturn(helper);
+        return helper;
     }
     
     private void givenInitializedMetadataDescriptionsHelper() {
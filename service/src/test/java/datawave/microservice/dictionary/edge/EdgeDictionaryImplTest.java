@@ -1,24 +1,41 @@
 package datawave.microservice.dictionary.edge;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.accumulo.core.client.AccumuloClient;
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
 import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
 import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
 import org.apache.hadoop.io.Text;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -38,6 +55,10 @@ import datawave.accumulo.inmemory.InMemoryAccumuloClient;
 import datawave.accumulo.inmemory.InMemoryInstance;
 import datawave.data.ColumnFamilyConstants;
 import datawave.metadata.protobuf.EdgeMetadata.MetadataValue;
+import datawave.microservice.dictionary.config.EdgeDictionaryProperties;
+import datawave.microservice.dictionary.data.DataDictionaryCache;
+import datawave.query.util.MetadataHelper;
+import datawave.query.util.MetadataHelperFactory;
 import datawave.webservice.dictionary.edge.DefaultEdgeDictionary;
 import datawave.webservice.dictionary.edge.DefaultMetadata;
 import datawave.webservice.dictionary.edge.EventField;
@@ -57,6 +78,7 @@ public class EdgeDictionaryImplTest {
     public static final String SOURCE_FIELD = "M_E_123";
     public static final String SINK_FIELD = "M_E_123";
     public static final String EARLY_DATE_FIELD = "20130318";
+    public static final String METADATA_TABLE = "metadataTable";
     
     private static final List<Key> EDGE_KEYS = createEdgeKeys();
     private static final Value EDGE_VALUE = createEdgeValue();
@@ -122,10 +144,171 @@ public class EdgeDictionaryImplTest {
         }
     }
     
+    @Test
+    public void whenTransformingInParallel_shouldMatchSingleThreadedOutputInKeyOrder() {
+        SetMultimap<Key,Value> rows = HashMultimap.create();
+        for (int i = 0; i < EdgeDictionaryImpl.MIN_ROWS_PER_THREAD * 3 + 7; i++) {
+            rows.put(generateKeyForEdgeMetadata("A" + i), EDGE_VALUE);
+        }
+        DefaultEdgeDictionary parallel;
+        DefaultEdgeDictionary sequential;
+        try (EdgeDictionaryImpl edgeDictionary = new EdgeDictionaryImpl(null, null, Duration.ZERO, 4)) {
+            parallel = edgeDictionary.transformResults(rows, 4);
+            sequential = edgeDictionary.transformResults(rows, 1);
+        }
+        
+        assertEquals(rows.size(), parallel.getTotalResults());
+        assertEquals(sequential.getMetadataList(), parallel.getMetadataList());
+        List<String> sources = new ArrayList<>();
+        for (MetadataBase<DefaultMetadata> meta : parallel.getMetadataList()) {
+            sources.add(meta.getEdgeAttribute1Source());
+        }
+        List<String> sorted = new ArrayList<>(sources);
+        Collections.sort(sorted);
+        assertEquals(sorted, sources);
+    }
+    
+    @Test
+    public void whenGettingEdgeDictionary_givenCache_shouldOnlyReadEdgesAgainWhenTheEdgeMetadataChanges() throws Exception {
+        AccumuloClient client = new InMemoryAccumuloClient("root", new InMemoryInstance());
+        client.tableOperations().create(METADATA_TABLE);
+        writeEdgeMetadata(client, EDGE_KEYS.subList(0, 2));
+        
+        MetadataHelper metadataHelper = mock(MetadataHelper.class);
+        when(metadataHelper.getEdges()).thenReturn(edgeMetadataRows);
+        MetadataHelperFactory metadataHelperFactory = mock(MetadataHelperFactory.class);
+        when(metadataHelperFactory.createMetadataHelper(any(), any(), any())).thenReturn(metadataHelper);
+        EdgeDictionaryProperties.Cache cacheProperties = new EdgeDictionaryProperties.Cache();
+        cacheProperties.setRefreshInterval(Duration.ZERO);
+        try (DataDictionaryCache<EdgeDictionarySnapshot> edgeCache = new DataDictionaryCache<>(cacheProperties);
+                        EdgeDictionaryImpl cachedImpl = new EdgeDictionaryImpl(metadataHelperFactory, edgeCache, Duration.ZERO, 1)) {
+            Set<Authorizations> auths = Collections.singleton(new Authorizations());
+            
+            DefaultEdgeDictionary dictionary = cachedImpl.getEdgeDictionary(METADATA_TABLE, client, auths, 1);
+            assertSame(dictionary, cachedImpl.getEdgeDictionary(METADATA_TABLE, client, auths, 1));
+            verify(metadataHelper, times(1)).getEdges();
+            
+            writeEdgeMetadata(client, EDGE_KEYS.subList(2, 3));
+            cachedImpl.getEdgeDictionary(METADATA_TABLE, client, auths, 1);
+            verify(metadataHelper, times(2)).getEdges();
+        }
+    }
+    
+    @Test
+    public void whenGettingEdgeDictionary_givenProbeInterval_shouldNotCheckTheEdgeMetadataUntilItElapses() throws Exception {
+        AccumuloClient client = new InMemoryAccumuloClient("root", new InMemoryInstance());
+        client.tableOperations().create(METADATA_TABLE);
+        writeEdgeMetadata(client, EDGE_KEYS.subList(0, 2));
+        
+        MetadataHelper metadataHelper = mock(MetadataHelper.class);
+        when(metadataHelper.getEdges()).thenReturn(edgeMetadataRows);
+        MetadataHelperFactory metadataHelperFactory = mock(MetadataHelperFactory.class);
+        when(metadataHelperFactory.createMetadataHelper(any(), any(), any())).thenReturn(metadataHelper);
+        EdgeDictionaryProperties.Cache cacheProperties = new EdgeDictionaryProperties.Cache();
+        cacheProperties.setRefreshInterval(Duration.ZERO);
+        try (DataDictionaryCache<EdgeDictionarySnapshot> edgeCache = new DataDictionaryCache<>(cacheProperties);
+                        EdgeDictionaryImpl cachedImpl = new EdgeDictionaryImpl(metadataHelperFactory, edgeCache, Duration.ofHours(1), 1)) {
+            Set<Authorizations> auths = Collections.singleton(new Authorizations());
+            
+            DefaultEdgeDictionary dictionary = cachedImpl.getEdgeDictionary(METADATA_TABLE, client, auths, 1);
+            writeEdgeMetadata(client, EDGE_KEYS.subList(2, 3));
+            assertSame(dictionary, cachedImpl.getEdgeDictionary(METADATA_TABLE, client, auths, 1));
+            verify(metadataHelper, times(1)).getEdges();
+        }
+    }
+    
+    @Test
+    public void whenPagingEdgeDictionary_shouldResumeAfterTheLastEntryOfThePreviousPage() throws Exception {
+        AccumuloClient client = new InMemoryAccumuloClient("root", new InMemoryInstance());
+        client.tableOperations().create(METADATA_TABLE);
+        writeEdgeMetadata(client, EDGE_KEYS);
+        try (EdgeDictionaryImpl edgeDictionary = new EdgeDictionaryImpl(null)) {
+            Set<Authorizations> auths = Collections.singleton(new Authorizations());
+            
+            EdgeDictionaryPage<DefaultEdgeDictionary> first = edgeDictionary.getEdgeDictionaryPage(METADATA_TABLE, client, auths, 1, EdgeMetadataFilter.all(),
+                            null, 3);
+            assertEquals(3, first.getDictionary().getTotalResults());
+            assertNotNull(first.getResumeToken());
+            
+            EdgeDictionaryPage<DefaultEdgeDictionary> second = edgeDictionary.getEdgeDictionaryPage(METADATA_TABLE, client, auths, 1, EdgeMetadataFilter.all(),
+                            first.getResumeToken(), 3);
+            assertEquals(1, second.getDictionary().getTotalResults());
+            assertNull(second.getResumeToken());
+            
+            List<String> sources = new ArrayList<>();
+            for (MetadataBase<DefaultMetadata> meta : first.getDictionary().getMetadataList()) {
+                sources.add(meta.getEdgeAttribute1Source());
+            }
+            sources.add(second.getDictionary().getMetadataList().get(0).getEdgeAttribute1Source());
+            assertEquals(Arrays.asList("P-EYES", "Q-EYES", "R-EYES", "S-EYES"), sources);
+            
+            assertThrows(IllegalArgumentException.class, () -> edgeDictionary.getEdgeDictionaryPage(METADATA_TABLE, client, auths, 1, EdgeMetadataFilter.all(),
+                            "not a token", 3));
+        }
+    }
+    
+    @Test
+    public void whenPagingEdgeDictionary_givenEntriesThatDifferOnlyInVisibility_shouldReturnEachOfThem() throws Exception {
+        AccumuloClient client = new InMemoryAccumuloClient("root", new InMemoryInstance());
+        client.securityOperations().changeUserAuthorizations("root", new Authorizations("PRIVATE", "PUBLIC"));
+        client.tableOperations().create(METADATA_TABLE);
+        Key key = EDGE_KEYS.get(0);
+        try (BatchWriter writer = client.createBatchWriter(METADATA_TABLE, new BatchWriterConfig())) {
+            Mutation mutation = new Mutation(key.getRow());
+            mutation.put(key.getColumnFamily(), key.getColumnQualifier(), new ColumnVisibility("PRIVATE"), EDGE_VALUE);
+            mutation.put(key.getColumnFamily(), key.getColumnQualifier(), new ColumnVisibility("PUBLIC"), EDGE_VALUE);
+            writer.addMutation(mutation);
+        }
+        try (EdgeDictionaryImpl edgeDictionary = new EdgeDictionaryImpl(null)) {
+            Set<Authorizations> auths = Collections.singleton(new Authorizations("PRIVATE", "PUBLIC"));
+            
+            EdgeDictionaryPage<DefaultEdgeDictionary> first = edgeDictionary.getEdgeDictionaryPage(METADATA_TABLE, client, auths, 1, EdgeMetadataFilter.all(),
+                            null, 1);
+            assertEquals(1, first.getDictionary().getTotalResults());
+            assertNotNull(first.getResumeToken());
+            
+            EdgeDictionaryPage<DefaultEdgeDictionary> second = edgeDictionary.getEdgeDictionaryPage(METADATA_TABLE, client, auths, 1, EdgeMetadataFilter.all(),
+                            first.getResumeToken(), 1);
+            assertEquals(1, second.getDictionary().getTotalResults());
+            assertNull(second.getResumeToken());
+        }
+    }
+    
+    @Test
+    public void whenStreamingEdgeDictionary_shouldPassEachAcceptedEntryInKeyOrder() throws Exception {
+        AccumuloClient client = new InMemoryAccumuloClient("root", new InMemoryInstance());
+        client.tableOperations().create(METADATA_TABLE);
+        writeEdgeMetadata(client, EDGE_KEYS);
+        try (EdgeDictionaryImpl edgeDictionary = new EdgeDictionaryImpl(null)) {
+            Set<Authorizations> auths = Collections.singleton(new Authorizations());
+            
+            List<DefaultMetadata> streamed = new ArrayList<>();
+            edgeDictionary.streamEdgeDictionary(METADATA_TABLE, client, auths, 1, EdgeMetadataFilter.all(), streamed::add);
+            assertEquals(new ArrayList<>(METADATA), streamed);
+            
+            streamed.clear();
+            edgeDictionary.streamEdgeDictionary(METADATA_TABLE, client, auths, 1,
+                            EdgeMetadataFilter.of(Collections.singleton(EDGE_TYPE), null, Arrays.asList("Q-EYES", "S-EYES")), streamed::add);
+            assertEquals(2, streamed.size());
+            assertEquals("Q-EYES", streamed.get(0).getEdgeAttribute1Source());
+            assertEquals("S-EYES", streamed.get(1).getEdgeAttribute1Source());
+        }
+    }
+    
+    private static void writeEdgeMetadata(AccumuloClient client, List<Key> keys) throws Exception {
+        try (BatchWriter writer = client.createBatchWriter(METADATA_TABLE, new BatchWriterConfig())) {
+            for (Key key : keys) {
+                Mutation mutation = new Mutation(key.getRow());
+                mutation.put(key.getColumnFamily(), key.getColumnQualifier(), EDGE_VALUE);
+                writer.addMutation(mutation);
+            }
+        }
+    }
+    
     private Method getPrivateMethod(String methodName) {
         Class clas = EdgeDictionaryImpl.class;
         for (Method method : clas.getDeclaredMethods()) {
-            if (method.getName().equals(methodName)) {
+            if (method.getName().equals(methodName) && method.getParameterCount() == 1) {
                 method.setAccessible(true);
                 return method;
             }
@@ -0,0 +1,59 @@
+package datawave.microservice.dictionary.edge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.iterators.user.RegExFilter;
+import org.junit.jupiter.api.Test;
+
+public class EdgeMetadataFilterTest {
+    
+    @Test
+    public void whenNoCriteriaGiven_shouldScanEntireTable() {
+        EdgeMetadataFilter filter = EdgeMetadataFilter.of(Collections.emptyList(), Collections.singletonList(" "), null);
+        assertThat(filter.acceptsAll()).isTrue();
+        assertThat(filter.getRanges()).containsExactly(new Range());
+        assertThat(filter.getAttribute1Sources()).isEmpty();
+        assertThat(filter.getIteratorSetting()).isNull();
+    }
+    
+    @Test
+    public void whenEdgeTypesGiven_shouldScanEveryRelationshipOfEachType() {
+        EdgeMetadataFilter filter = EdgeMetadataFilter.of(Arrays.asList("TYPE_B", " TYPE_A "), null, null);
+        assertThat(filter.getRanges()).containsExactly(Range.prefix("TYPE_A/"), Range.prefix("TYPE_B/"));
+        assertThat(filter.getIteratorSetting()).isNull();
+    }
+    
+    @Test
+    public void whenEdgeTypesAndRelationshipsGiven_shouldScanRelationshipPrefixesOfEachType() {
+        EdgeMetadataFilter filter = EdgeMetadataFilter.of(Collections.singletonList("TYPE"), Arrays.asList("OWNER", "OWNER-PET"), null);
+        // the OWNER-PET prefix is covered by the OWNER prefix
+        assertThat(filter.getRanges()).containsExactly(Range.prefix("TYPE/OWNER"));
+        assertThat(filter.getIteratorSetting()).isNull();
+    }
+    
+    @Test
+    public void whenOnlyRelationshipsGiven_shouldFilterRowsOnTabletServers() {
+        EdgeMetadataFilter filter = EdgeMetadataFilter.of(null, Arrays.asList("OWNER", "A.B"), null);
+        assertThat(filter.getRanges()).containsExactly(new Range());
+        assertThat(filter.getIteratorSetting().getIteratorClass()).isEqualTo(RegExFilter.class.getName());
+        
+        Pattern pattern = Pattern.compile(filter.getIteratorSetting().getOptions().get(RegExFilter.ROW_REGEX));
+        assertThat(pattern.matcher("TYPE/OWNER-PET").matches()).isTrue();
+        assertThat(pattern.matcher("TYPE/A.B").matches()).isTrue();
+        assertThat(pattern.matcher("TYPE/AXB").matches()).isFalse();
+        assertThat(pattern.matcher("OWNER/PET").matches()).isFalse();
+    }
+    
+    @Test
+    public void whenAttribute1SourcesGiven_shouldFetchThoseColumns() {
+        EdgeMetadataFilter filter = EdgeMetadataFilter.of(null, null, Arrays.asList("P-EYES", "Q-EYES"));
+        assertThat(filter.acceptsAll()).isFalse();
+        assertThat(filter.getRanges()).containsExactly(new Range());
+        assertThat(filter.getAttribute1Sources()).containsExactly("P-EYES", "Q-EYES");
+    }
+}
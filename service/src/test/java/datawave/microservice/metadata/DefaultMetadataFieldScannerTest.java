@@ -7,21 +7,30 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import org.apache.accumulo.core.client.AccumuloClient;
 import org.apache.accumulo.core.client.BatchWriter;
 import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.client.MutationsRejectedException;
 import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.data.Mutation;
 import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.user.RegExFilter;
 import org.apache.accumulo.core.security.Authorizations;
 import org.apache.accumulo.core.security.ColumnVisibility;
 import org.apache.hadoop.io.Text;
@@ -213,6 +222,167 @@ public class DefaultMetadataFieldScannerTest {
         assertThat(fields).containsExactlyInAnyOrder(barField, contributorId, name, fooToken);
     }
     
+    @Test
+    public void whenRetrievingFieldsFromSnapshot_shouldReturnSameResultsAsScan() throws TableNotFoundException {
+        Map<String,String> aliases = new HashMap<>();
+        aliases.put("BAR_FIELD", "bar_field_alias");
+        Set<String> dataTypeFilters = new HashSet<>();
+        dataTypeFilters.add("csv");
+        dataTypeFilters.add("tvmaze");
+        
+        MetadataFieldSnapshot snapshot = scanner.getSnapshot();
+        assertThat(snapshot.getFields(AUTHS, aliases, Collections.emptySet()))
+                        .containsExactlyInAnyOrderElementsOf(scanner.getFields(aliases, Collections.emptySet()));
+        assertThat(snapshot.getFields(AUTHS, aliases, dataTypeFilters)).containsExactlyInAnyOrderElementsOf(scanner.getFields(aliases, dataTypeFilters));
+    }
+    
+    @Test
+    public void whenRetrievingFieldsPages_shouldReturnAllFieldsInRowOrder() throws TableNotFoundException {
+        List<DefaultMetadataField> firstPage = new ArrayList<>();
+        String lastRow = scanner.streamFieldsPage(Collections.emptyMap(), Collections.emptySet(), null, 3, firstPage::add);
+        assertThat(firstPage).extracting(DefaultMetadataField::getFieldName).containsExactly("BAR_FIELD", "CONTRIBUTOR_ID", "FOO_TOKEN");
+        assertThat(lastRow).isEqualTo("FOO_TOKEN");
+        
+        List<DefaultMetadataField> secondPage = new ArrayList<>();
+        lastRow = scanner.streamFieldsPage(Collections.emptyMap(), Collections.emptySet(), lastRow, 3, secondPage::add);
+        assertThat(secondPage).extracting(DefaultMetadataField::getFieldName).containsExactly("NAME");
+        assertThat(lastRow).isNull();
+        
+        firstPage.addAll(secondPage);
+        assertThat(firstPage).containsExactlyInAnyOrderElementsOf(scanner.getFields(Collections.emptyMap(), Collections.emptySet()));
+    }
+    
+    @Test
+    public void whenRetrievingChanges_shouldOnlyReturnFieldsAndDataTypesWrittenSinceTimestamp() throws Exception {
+        Mutation barField = new Mutation(new Text("BAR_FIELD"));
+        barField.put(new Text(ColumnFamilyConstants.COLF_E), new Text("tvmaze"), TIMESTAMP + DAY_AS_MILLISECONDS, new Value());
+        BatchWriter writer = connector.createBatchWriter(METADATA_TABLE, new BatchWriterConfig());
+        writer.addMutation(barField);
+        writer.close();
+        
+        List<DefaultMetadataField> changes = new ArrayList<>();
+        long highWaterMark = scanner.streamChanges(Collections.emptyMap(), Collections.emptySet(), TIMESTAMP + 1, changes::add);
+        assertThat(changes).extracting(field -> field.getFieldName() + "/" + field.getDataType()).containsExactlyInAnyOrder("BAR_FIELD/tvmaze",
+                        "FOO_TOKEN/tvmaze");
+        assertThat(highWaterMark).isEqualTo(TIMESTAMP + (DAY_AS_MILLISECONDS * 5));
+        
+        changes.clear();
+        assertThat(scanner.streamChanges(Collections.emptyMap(), Collections.singleton("csv"), TIMESTAMP + 1, changes::add)).isEqualTo(TIMESTAMP + 1);
+        assertThat(changes).isEmpty();
+        
+        // entries at the high-water mark are reported again, as more may have been written in the same millisecond
+        assertThat(scanner.streamChanges(Collections.emptyMap(), Collections.emptySet(), highWaterMark, changes::add)).isEqualTo(highWaterMark);
+        assertThat(changes).extracting(field -> field.getFieldName() + "/" + field.getDataType()).containsExactly("FOO_TOKEN/tvmaze");
+        
+        changes.clear();
+        assertThat(scanner.streamChanges(Collections.emptyMap(), Collections.emptySet(), TIMESTAMP, changes::add)).isEqualTo(highWaterMark);
+        assertThat(changes).extracting(DefaultMetadataField::getFieldName).containsExactlyInAnyOrder("BAR_FIELD", "BAR_FIELD", "CONTRIBUTOR_ID",
+                        "FOO_TOKEN", "NAME");
+    }
+    
+    @Test
+    public void whenRetrievingChanges_givenNoTimestamp_shouldReturnEveryFieldAsOfTheScan() throws Exception {
+        long start = System.currentTimeMillis();
+        List<DefaultMetadataField> changes = new ArrayList<>();
+        long highWaterMark = scanner.streamChanges(Collections.emptyMap(), Collections.emptySet(), 0, changes::add);
+        
+        assertThat(changes).containsExactlyInAnyOrderElementsOf(scanner.getFields(Collections.emptyMap(), Collections.emptySet()));
+        assertThat(highWaterMark).isBetween(start, System.currentTimeMillis());
+    }
+    
+    @Test
+    public void whenRetrievingChanges_givenFutureTimestamp_shouldNotAdvancePastTheScan() throws Exception {
+        long future = System.currentTimeMillis() + DAY_AS_MILLISECONDS;
+        Mutation name = new Mutation(new Text("NAME"));
+        name.put(new Text(ColumnFamilyConstants.COLF_E), new Text("tvmaze"), future, new Value());
+        BatchWriter writer = connector.createBatchWriter(METADATA_TABLE, new BatchWriterConfig());
+        writer.addMutation(name);
+        writer.close();
+        
+        List<DefaultMetadataField> changes = new ArrayList<>();
+        long highWaterMark = scanner.streamChanges(Collections.emptyMap(), Collections.emptySet(), TIMESTAMP + 1, changes::add);
+        assertThat(changes).extracting(DefaultMetadataField::getFieldName).contains("NAME");
+        assertThat(highWaterMark).isLessThan(future);
+    }
+    
+    @Test
+    public void whenRetrievingFields_givenFieldNameFilter_shouldOnlyScanMatchingRows() throws TableNotFoundException {
+        Connection connectionConfig = new Connection();
+        connectionConfig.setAccumuloClient(connector);
+        connectionConfig.setMetadataTable(METADATA_TABLE);
+        connectionConfig.setAuths(AUTHS);
+        
+        DefaultMetadataFieldScanner namesScanner = new DefaultMetadataFieldScanner(new MarkingFunctions.Default(), RESPONSE_OBJECT_FACTORY,
+                        Collections.emptyMap(), connectionConfig, 1, FieldNameFilter.of(Arrays.asList("name", "FOO_TOKEN", "MISSING"), null, null));
+        assertThat(namesScanner.getFields(Collections.emptyMap(), Collections.emptySet())).extracting(DefaultMetadataField::getFieldName)
+                        .containsExactlyInAnyOrder("NAME", "FOO_TOKEN");
+        
+        DefaultMetadataFieldScanner prefixScanner = new DefaultMetadataFieldScanner(new MarkingFunctions.Default(), RESPONSE_OBJECT_FACTORY,
+                        Collections.emptyMap(), connectionConfig, 1, FieldNameFilter.of(null, "c", null));
+        assertThat(prefixScanner.getFields(Collections.emptyMap(), Collections.emptySet())).extracting(DefaultMetadataField::getFieldName)
+                        .containsExactly("CONTRIBUTOR_ID");
+        
+        DefaultMetadataFieldScanner regexScanner = new DefaultMetadataFieldScanner(new MarkingFunctions.Default(), RESPONSE_OBJECT_FACTORY,
+                        Collections.emptyMap(), connectionConfig, 1, FieldNameFilter.of(null, null, ".*_(FIELD|TOKEN)"));
+        assertThat(regexScanner.getFields(Collections.emptyMap(), Collections.emptySet())).extracting(DefaultMetadataField::getFieldName)
+                        .containsExactlyInAnyOrder("BAR_FIELD", "FOO_TOKEN");
+    }
+    
+    @Test
+    public void whenRetrievingFields_givenRowSummaries_shouldReturnSameResultsAsWholeRows() throws TableNotFoundException {
+        Map<String,String> aliases = Collections.singletonMap("BAR_FIELD", "bar_field_alias");
+        Collection<DefaultMetadataField> wholeRowFields = scanner.getFields(aliases, Collections.emptySet());
+        Collection<DefaultMetadataField> filteredWholeRowFields = scanner.getFields(aliases, Collections.singleton("tvmaze"));
+        
+        scanner.setRowSummaries(true);
+        assertThat(scanner.getFields(aliases, Collections.emptySet())).containsExactlyInAnyOrderElementsOf(wholeRowFields);
+        assertThat(scanner.getFields(aliases, Collections.singleton("tvmaze"))).containsExactlyInAnyOrderElementsOf(filteredWholeRowFields);
+    }
+    
+    @Test
+    public void whenRetrievingFields_givenSplitTable_shouldScanPartitionsInParallel() throws Exception {
+        Collection<DefaultMetadataField> unpartitionedFields = scanner.getFields(Collections.emptyMap(), Collections.emptySet());
+        connector.tableOperations().addSplits(METADATA_TABLE, new TreeSet<>(Arrays.asList(new Text("CONTRIBUTOR_ID"), new Text("FOO_TOKEN"))));
+        
+        Connection connectionConfig = new Connection();
+        connectionConfig.setAccumuloClient(connector);
+        connectionConfig.setMetadataTable(METADATA_TABLE);
+        connectionConfig.setAuths(AUTHS);
+        Map<String,String> normalizerMapping = new HashMap<>();
+        normalizerMapping.put("datawave.data.type.LcNoDiacriticsType", "Text");
+        normalizerMapping.put("datawave.data.type.NumberType", "Number");
+        
+        // Fewer threads than partitions, so that partitions are submitted as earlier ones are consumed.
+        DefaultMetadataFieldScanner parallelScanner = new DefaultMetadataFieldScanner(new MarkingFunctions.Default(), RESPONSE_OBJECT_FACTORY,
+                        normalizerMapping, connectionConfig, 2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            parallelScanner.setExecutor(executor);
+            List<DefaultMetadataField> fields = new ArrayList<>();
+            assertThat(parallelScanner.streamFields(Collections.emptyMap(), Collections.emptySet(), fields::add)).isTrue();
+            assertThat(fields).extracting(DefaultMetadataField::getFieldName).containsExactly("BAR_FIELD", "CONTRIBUTOR_ID", "FOO_TOKEN", "NAME");
+            assertThat(fields).containsExactlyInAnyOrderElementsOf(unpartitionedFields);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void whenFilteringDataTypes_shouldOnlyKeepRequestedDataTypesAndHiddenEntries() {
+        IteratorSetting setting = DefaultMetadataFieldScanner.createDataTypeIterator(Arrays.asList("csv", "en.wiki"));
+        Pattern columnFamily = Pattern.compile(setting.getOptions().get(RegExFilter.COLF_REGEX));
+        Pattern columnQualifier = Pattern.compile(setting.getOptions().get(RegExFilter.COLQ_REGEX));
+        
+        assertThat(setting.getOptions()).containsEntry(RegExFilter.OR_FIELDS, "true");
+        assertThat(columnFamily.matcher("h").matches()).isTrue();
+        assertThat(columnQualifier.matcher("csv").matches()).isTrue();
+        assertThat(columnQualifier.matcher("csv\0datawave.data.type.LcNoDiacriticsType").matches()).isTrue();
+        assertThat(columnQualifier.matcher("en.wiki").matches()).isTrue();
+        assertThat(columnQualifier.matcher("enxwiki").matches()).isFalse();
+        assertThat(columnQualifier.matcher("csv2").matches()).isFalse();
+        assertThat(columnQualifier.matcher("tvmaze\0csv").matches()).isFalse();
+    }
+    
     @Test
     public void lastUpdatedTimeIsCorrect() throws Exception {
         Collection<DefaultMetadataField> fields = scanner.getFields(Collections.emptyMap(), Collections.emptySet());
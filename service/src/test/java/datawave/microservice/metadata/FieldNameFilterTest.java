@@ -0,0 +1,113 @@
+package datawave.microservice.metadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.PatternSyntaxException;
+
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.iterators.user.RegExFilter;
+import org.junit.jupiter.api.Test;
+
+import datawave.webservice.metadata.DefaultMetadataField;
+
+public class FieldNameFilterTest {
+    
+    @Test
+    public void whenNoCriteriaGiven_shouldScanEntireTable() {
+        FieldNameFilter filter = FieldNameFilter.of(Collections.emptyList(), " ", null);
+        assertThat(filter.acceptsAll()).isTrue();
+        assertThat(filter.getRanges()).containsExactly(new Range());
+        assertThat(filter.getIteratorSetting()).isNull();
+    }
+    
+    @Test
+    public void whenFieldNamesGiven_shouldScanExactRowsInOrder() {
+        FieldNameFilter filter = FieldNameFilter.of(Arrays.asList("name", " BAR_FIELD ", ""), null, null);
+        assertThat(filter.getRanges()).containsExactly(Range.exact("BAR_FIELD"), Range.exact("NAME"));
+        assertThat(filter.accepts("NAME")).isTrue();
+        assertThat(filter.accepts("NAMES")).isFalse();
+    }
+    
+    @Test
+    public void whenPrefixGiven_shouldScanPrefixRange() {
+        FieldNameFilter filter = FieldNameFilter.of(null, "foo_", null);
+        assertThat(filter.getRanges()).containsExactly(Range.prefix("FOO_"));
+        assertThat(filter.accepts("FOO_TOKEN")).isTrue();
+        assertThat(filter.accepts("BAR_FIELD")).isFalse();
+    }
+    
+    @Test
+    public void whenFieldNamesAndPrefixGiven_shouldOnlyScanNamesWithPrefix() {
+        FieldNameFilter filter = FieldNameFilter.of(Arrays.asList("FOO_TOKEN", "NAME"), "FOO", null);
+        assertThat(filter.getRanges()).containsExactly(Range.exact("FOO_TOKEN"));
+        
+        filter = FieldNameFilter.of(Collections.singletonList("NAME"), "FOO", null);
+        assertThat(filter.getRanges()).isEmpty();
+    }
+    
+    @Test
+    public void whenRegexGiven_shouldFilterRowsOnTabletServers() {
+        FieldNameFilter filter = FieldNameFilter.of(null, null, ".*_ID");
+        assertThat(filter.getRanges()).containsExactly(new Range());
+        assertThat(filter.getIteratorSetting().getIteratorClass()).isEqualTo(RegExFilter.class.getName());
+        assertThat(filter.getIteratorSetting().getOptions()).containsEntry(RegExFilter.ROW_REGEX, "(?i:.*_ID)");
+        assertThat(filter.accepts("CONTRIBUTOR_ID")).isTrue();
+        assertThat(filter.accepts("CONTRIBUTOR_ID_2")).isFalse();
+    }
+    
+    @Test
+    public void whenRegexGiven_shouldMatchWithoutRegardToCase() {
+        FieldNameFilter filter = FieldNameFilter.of(null, null, "contributor_.*");
+        assertThat(filter.accepts("CONTRIBUTOR_ID")).isTrue();
+        assertThat(filter.accepts("BAR_FIELD")).isFalse();
+    }
+    
+    @Test
+    public void whenResolvedAgainstAliases_shouldAlsoScanRowsWhoseAliasMatches() {
+        Map<String,String> aliases = new HashMap<>();
+        aliases.put("BAR_FIELD", "FOO_ALIAS");
+        aliases.put("CONTRIBUTOR_ID", "CONTRIBUTOR");
+        
+        FieldNameFilter filter = FieldNameFilter.of(Collections.singletonList("foo_alias"), null, null);
+        assertThat(filter.accepts("BAR_FIELD")).isFalse();
+        
+        FieldNameFilter resolved = filter.withAliases(aliases);
+        assertThat(resolved.getRanges()).containsExactly(Range.exact("BAR_FIELD"), Range.exact("FOO_ALIAS"));
+        assertThat(resolved.accepts("BAR_FIELD")).isTrue();
+        assertThat(resolved.accepts("CONTRIBUTOR_ID")).isFalse();
+        
+        resolved = FieldNameFilter.of(null, "FOO", null).withAliases(aliases);
+        assertThat(resolved.getRanges()).containsExactly(Range.exact("BAR_FIELD"), Range.prefix("FOO"));
+        
+        resolved = FieldNameFilter.of(null, null, "contributor").withAliases(aliases);
+        assertThat(resolved.getRanges()).containsExactly(new Range());
+        assertThat(resolved.getIteratorSetting().getOptions()).containsEntry(RegExFilter.ROW_REGEX, "(?i:contributor)|\\QCONTRIBUTOR_ID\\E");
+        assertThat(resolved.accepts("CONTRIBUTOR_ID")).isTrue();
+        
+        // a filter that no alias matches is unchanged
+        filter = FieldNameFilter.of(null, "NAME", null);
+        assertThat(filter.withAliases(aliases)).isSameAs(filter);
+    }
+    
+    @Test
+    public void whenFilteringAliasedFields_shouldAcceptEitherName() {
+        DefaultMetadataField field = new DefaultMetadataField();
+        field.setFieldName("FOO_ALIAS");
+        field.setInternalFieldName("BAR_FIELD");
+        
+        assertThat(FieldNameFilter.of(Collections.singletonList("FOO_ALIAS"), null, null).accepts(field)).isTrue();
+        assertThat(FieldNameFilter.of(Collections.singletonList("BAR_FIELD"), null, null).accepts(field)).isTrue();
+        assertThat(FieldNameFilter.of(null, null, "foo_.*").accepts(field)).isTrue();
+        assertThat(FieldNameFilter.of(Collections.singletonList("NAME"), null, null).accepts(field)).isFalse();
+    }
+    
+    @Test
+    public void whenRegexInvalid_shouldThrow() {
+        assertThatThrownBy(() -> FieldNameFilter.of(null, null, "[")).isInstanceOf(PatternSyntaxException.class);
+    }
+}
@@ -0,0 +1,114 @@
+package datawave.microservice.metadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.SetMultimap;
+
+import datawave.accumulo.inmemory.InMemoryAccumuloClient;
+import datawave.accumulo.inmemory.InMemoryInstance;
+import datawave.data.ColumnFamilyConstants;
+import datawave.marking.MarkingFunctions;
+import datawave.microservice.Connection;
+import datawave.microservice.dictionary.config.ResponseObjectFactory;
+import datawave.query.util.MetadataEntry;
+import datawave.webservice.dictionary.data.DefaultDataDictionary;
+import datawave.webservice.dictionary.data.DefaultDescription;
+import datawave.webservice.dictionary.data.DefaultDictionaryField;
+import datawave.webservice.dictionary.data.DefaultFields;
+import datawave.webservice.metadata.DefaultMetadataField;
+
+public class MetadataDescriptionStoreTest {
+    
+    private static final String METADATA_TABLE = "metadataTable";
+    private static final Set<Authorizations> PUBLIC = Collections.singleton(new Authorizations("PUBLIC"));
+    private static final Set<Authorizations> PRIVATE = Collections.singleton(new Authorizations("PRIVATE", "PUBLIC"));
+    
+    private static final ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> RESPONSE_OBJECT_FACTORY = new ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields>() {
+        @Override
+        public DefaultDataDictionary getDataDictionary() {
+            return null;
+        }
+        
+        @Override
+        public DefaultDescription getDescription() {
+            return new DefaultDescription();
+        }
+        
+        @Override
+        public DefaultFields getFields() {
+            return new DefaultFields();
+        }
+    };
+    
+    private AccumuloClient client;
+    private MetadataDescriptionStore<DefaultDescription> store;
+    
+    @BeforeEach
+    public void setUp() throws Exception {
+        client = new InMemoryAccumuloClient("root", new InMemoryInstance());
+        client.securityOperations().changeUserAuthorizations("root", new Authorizations("PRIVATE", "PUBLIC"));
+        client.tableOperations().create(METADATA_TABLE);
+        try (BatchWriter writer = client.createBatchWriter(METADATA_TABLE, new BatchWriterConfig())) {
+            Mutation mutation = new Mutation("BAR_FIELD");
+            mutation.put(ColumnFamilyConstants.COLF_DESC.toString(), "csv", new ColumnVisibility("PUBLIC"), new Value("public description"));
+            mutation.put(ColumnFamilyConstants.COLF_DESC.toString(), "csv", new ColumnVisibility("PRIVATE"), new Value("private description"));
+            mutation.put(ColumnFamilyConstants.COLF_DESC.toString(), "enwiki", new ColumnVisibility("PUBLIC"), new Value("enwiki description"));
+            writer.addMutation(mutation);
+        }
+        
+        store = new MetadataDescriptionStore<>(new MarkingFunctions.Default(), RESPONSE_OBJECT_FACTORY, Duration.ofHours(1), null);
+    }
+    
+    @Test
+    public void whenRetrievingDescriptions_shouldOnlyReturnVisibleDescriptions() throws Exception {
+        assertThat(store.getDescriptions(connection(PUBLIC), "BAR_FIELD", "csv")).extracting(DefaultDescription::getDescription)
+                        .containsExactly("public description");
+        assertThat(store.getDescriptions(connection(PRIVATE), "BAR_FIELD", "csv")).extracting(DefaultDescription::getDescription)
+                        .containsExactlyInAnyOrder("public description", "private description");
+        
+        SetMultimap<MetadataEntry,DefaultDescription> descriptions = store.getDescriptions(connection(PUBLIC), Collections.singleton("enwiki"));
+        assertThat(descriptions.keySet()).containsExactly(new MetadataEntry("BAR_FIELD", "enwiki"));
+    }
+    
+    @Test
+    public void whenUpdatingDescriptions_shouldApplyUpdatesInPlace() throws Exception {
+        // load the descriptions, then remove them from the table so that they could only be served from memory
+        store.getDescriptions(connection(PUBLIC), null);
+        client.tableOperations().deleteRows(METADATA_TABLE, null, null);
+        
+        DefaultDescription description = new DefaultDescription("updated description");
+        description.setMarkings(Collections.singletonMap("columnVisibility", "PUBLIC"));
+        store.putDescriptions(METADATA_TABLE, new MetadataEntry("BAR_FIELD", "csv"), Collections.singleton(description));
+        assertThat(store.getDescriptions(connection(PRIVATE), "BAR_FIELD", "csv")).extracting(DefaultDescription::getDescription)
+                        .containsExactlyInAnyOrder("updated description", "private description");
+        
+        store.removeDescription(METADATA_TABLE, new MetadataEntry("BAR_FIELD", "enwiki"), description);
+        assertThat(store.getDescriptions(connection(PUBLIC), "BAR_FIELD", "enwiki")).isEmpty();
+        
+        // once invalidated, the descriptions are scanned again
+        store.invalidate(METADATA_TABLE);
+        assertThat(store.getDescriptions(connection(PRIVATE), null).entries()).isEmpty();
+    }
+    
+    private Connection connection(Set<Authorizations> auths) {
+        Connection connectionConfig = new Connection();
+        connectionConfig.setAccumuloClient(client);
+        connectionConfig.setMetadataTable(METADATA_TABLE);
+        connectionConfig.setAuths(auths);
+        return connectionConfig;
+    }
+}
@@ -0,0 +1,117 @@
+package datawave.microservice.metadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.hadoop.io.Text;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+
+import datawave.accumulo.inmemory.InMemoryAccumuloClient;
+import datawave.accumulo.inmemory.InMemoryInstance;
+import datawave.data.ColumnFamilyConstants;
+import datawave.marking.MarkingFunctions;
+import datawave.microservice.dictionary.config.ResponseObjectFactory;
+import datawave.query.util.MetadataEntry;
+import datawave.webservice.dictionary.data.DefaultDataDictionary;
+import datawave.webservice.dictionary.data.DefaultDescription;
+import datawave.webservice.dictionary.data.DefaultDictionaryField;
+import datawave.webservice.dictionary.data.DefaultFields;
+import datawave.webservice.metadata.DefaultMetadataField;
+
+public class MetadataDescriptionsHelperTest {
+    
+    private static final String METADATA_TABLE = "metadataTable";
+    private static final Set<Authorizations> AUTHS = Collections.singleton(new Authorizations("PRIVATE"));
+    
+    private static final ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> RESPONSE_OBJECT_FACTORY = new ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields>() {
+        @Override
+        public DefaultDataDictionary getDataDictionary() {
+            return null;
+        }
+        
+        @Override
+        public DefaultDescription getDescription() {
+            return new DefaultDescription();
+        }
+        
+        @Override
+        public DefaultFields getFields() {
+            return new DefaultFields();
+        }
+    };
+    
+    private MetadataDescriptionsHelper<DefaultDescription> helper;
+    
+    @BeforeEach
+    public void setUp() throws Exception {
+        AccumuloClient client = new InMemoryAccumuloClient("root", new InMemoryInstance());
+        client.securityOperations().changeUserAuthorizations("root", new Authorizations("PRIVATE"));
+        client.tableOperations().create(METADATA_TABLE);
+        try (BatchWriter writer = client.createBatchWriter(METADATA_TABLE, new BatchWriterConfig())) {
+            writer.addMutation(createDescriptions("BAR_FIELD", "csv", "enwiki"));
+            writer.addMutation(createDescriptions("BAR_FIELD_2", "csv"));
+            writer.addMutation(createDescriptions("FOO_FIELD", "csv", "enwiki"));
+            Mutation mutation = new Mutation("BAR_FIELD");
+            mutation.put(ColumnFamilyConstants.COLF_E, new Text("csv"), new Value());
+            writer.addMutation(mutation);
+        }
+        
+        helper = new MetadataDescriptionsHelper<>(new MarkingFunctions.Default(), RESPONSE_OBJECT_FACTORY);
+        helper.initialize(client, METADATA_TABLE, AUTHS);
+    }
+    
+    @Test
+    public void whenRetrievingDescriptions_givenFieldNameAndDatatype_shouldOnlyReturnThatEntry() throws Exception {
+        assertThat(helper.getDescriptions("BAR_FIELD", "enwiki")).extracting(DefaultDescription::getDescription).containsExactly("BAR_FIELD enwiki");
+        assertThat(helper.getDescriptions("BAR_FIELD", "tvmaze")).isEmpty();
+        assertThat(helper.getDescriptions("BAR", "csv")).isEmpty();
+    }
+    
+    @Test
+    public void whenRetrievingDescriptions_givenDatatype_shouldOnlyReturnThatDatatype() throws Exception {
+        SetMultimap<MetadataEntry,DefaultDescription> descriptions = helper.getDescriptions("enwiki");
+        assertThat(descriptions.keySet()).containsExactlyInAnyOrder(new MetadataEntry("BAR_FIELD", "enwiki"), new MetadataEntry("FOO_FIELD", "enwiki"));
+    }
+    
+    @Test
+    public void whenRetrievingDescriptions_givenNoDatatypes_shouldReturnAllDescriptions() throws Exception {
+        SetMultimap<MetadataEntry,DefaultDescription> descriptions = helper.getDescriptions((Set<String>) null);
+        assertThat(descriptions.keySet()).hasSize(5);
+    }
+    
+    @Test
+    public void whenWritingDescriptions_shouldWriteEveryEntryInOneBatch() throws Exception {
+        DefaultDescription description = new DefaultDescription("new description");
+        description.setMarkings(Collections.singletonMap("columnVisibility", "PRIVATE"));
+        SetMultimap<MetadataEntry,DefaultDescription> descriptions = HashMultimap.create();
+        descriptions.put(new MetadataEntry("NEW_FIELD", "csv"), description);
+        descriptions.put(new MetadataEntry("NEW_FIELD", "enwiki"), description);
+        descriptions.put(new MetadataEntry("OTHER_FIELD", "csv"), description);
+        
+        assertThat(helper.writeDescriptions(descriptions)).isEmpty();
+        
+        assertThat(helper.getDescriptions("NEW_FIELD", "enwiki")).extracting(DefaultDescription::getDescription).containsExactly("new description");
+        assertThat(helper.getDescriptions((Set<String>) null).keySet()).hasSize(8);
+    }
+    
+    private static Mutation createDescriptions(String fieldName, String... datatypes) {
+        Mutation mutation = new Mutation(fieldName);
+        for (String datatype : datatypes) {
+            mutation.put(ColumnFamilyConstants.COLF_DESC.toString(), datatype, new ColumnVisibility("PRIVATE"), new Value(fieldName + " " + datatype));
+        }
+        return mutation;
+    }
+}
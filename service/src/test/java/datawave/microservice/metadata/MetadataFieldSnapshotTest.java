@@ -0,0 +1,139 @@
+package datawave.microservice.metadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.hadoop.io.Text;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.Sets;
+
+import datawave.data.ColumnFamilyConstants;
+import datawave.marking.MarkingFunctions;
+import datawave.microservice.dictionary.config.ResponseObjectFactory;
+import datawave.webservice.dictionary.data.DefaultDataDictionary;
+import datawave.webservice.dictionary.data.DefaultDescription;
+import datawave.webservice.dictionary.data.DefaultDictionaryField;
+import datawave.webservice.dictionary.data.DefaultFields;
+import datawave.webservice.metadata.DefaultMetadataField;
+
+public class MetadataFieldSnapshotTest {
+    
+    private static final long TIMESTAMP = 1579065150000L;
+    private static final long DAY_AS_MILLISECONDS = 86400000;
+    private static final Set<Authorizations> PUBLIC = Collections.singleton(new Authorizations("PUBLIC"));
+    private static final Set<Authorizations> PRIVATE = Collections.singleton(new Authorizations("PRIVATE", "PUBLIC"));
+    
+    private static final ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields> RESPONSE_OBJECT_FACTORY = new ResponseObjectFactory<DefaultDescription,DefaultDataDictionary,DefaultMetadataField,DefaultDictionaryField,DefaultFields>() {
+        @Override
+        public DefaultDataDictionary getDataDictionary() {
+            return null;
+        }
+        
+        @Override
+        public DefaultDescription getDescription() {
+            return new DefaultDescription();
+        }
+        
+        @Override
+        public DefaultFields getFields() {
+            return new DefaultFields();
+        }
+    };
+    
+    private MetadataFieldSnapshot snapshot;
+    
+    @BeforeEach
+    public void setUp() throws Exception {
+        MetadataFieldSnapshot.Builder builder = new MetadataFieldSnapshot.Builder(new MarkingFunctions.Default(), RESPONSE_OBJECT_FACTORY,
+                        Collections.singletonMap("datawave.data.type.LcNoDiacriticsType", "Text"));
+        
+        SortedMap<Key,Value> barField = new TreeMap<>();
+        put(barField, "BAR_FIELD", ColumnFamilyConstants.COLF_E, "csv", "PUBLIC", TIMESTAMP, "");
+        put(barField, "BAR_FIELD", ColumnFamilyConstants.COLF_I, "csv", "PUBLIC", TIMESTAMP, "");
+        put(barField, "BAR_FIELD", ColumnFamilyConstants.COLF_RI, "csv", "PRIVATE", TIMESTAMP, "");
+        put(barField, "BAR_FIELD", ColumnFamilyConstants.COLF_T, "csv\0datawave.data.type.LcNoDiacriticsType", "PUBLIC", TIMESTAMP, "");
+        put(barField, "BAR_FIELD", ColumnFamilyConstants.COLF_DESC, "csv", "PRIVATE", TIMESTAMP, "Barfield Description");
+        builder.addRow(barField);
+        
+        // only visible to PRIVATE, and index only
+        SortedMap<Key,Value> secret = new TreeMap<>();
+        put(secret, "SECRET", ColumnFamilyConstants.COLF_I, "csv", "PRIVATE", TIMESTAMP, "");
+        put(secret, "SECRET", ColumnFamilyConstants.COLF_T, "csv\0not.a.known.type", "PRIVATE", TIMESTAMP + DAY_AS_MILLISECONDS, "");
+        builder.addRow(secret);
+        
+        // hidden from PRIVATE, but not from PUBLIC
+        SortedMap<Key,Value> hidden = new TreeMap<>();
+        put(hidden, "HIDDEN", ColumnFamilyConstants.COLF_E, "enwiki", "PUBLIC", TIMESTAMP, "");
+        put(hidden, "HIDDEN", ColumnFamilyConstants.COLF_H, "enwiki", "PRIVATE", TIMESTAMP, "");
+        put(hidden, "HIDDEN", ColumnFamilyConstants.COLF_E, "csv", "PUBLIC", TIMESTAMP + DAY_AS_MILLISECONDS, "");
+        builder.addRow(hidden);
+        
+        snapshot = builder.build();
+    }
+    
+    @Test
+    public void whenRetrievingFields_givenPublicAuths_shouldOnlyMergeVisibleEntries() {
+        Collection<DefaultMetadataField> fields = snapshot.getFields(PUBLIC, Collections.emptyMap(), Collections.emptySet());
+        assertThat(fields.stream().map(f -> f.getFieldName() + "/" + f.getDataType())).containsExactlyInAnyOrder("BAR_FIELD/csv", "HIDDEN/csv",
+                        "HIDDEN/enwiki");
+        
+        DefaultMetadataField barField = getField(fields, "BAR_FIELD", "csv");
+        assertThat(barField.isIndexOnly()).isFalse();
+        assertThat(barField.isForwardIndexed()).isTrue();
+        assertThat(barField.isReverseIndexed()).isFalse();
+        assertThat(barField.getTypes()).containsExactly("Text");
+        assertThat(barField.getDescriptions()).isEmpty();
+        assertThat(barField.getLastUpdated()).isEqualTo(format(TIMESTAMP));
+    }
+    
+    @Test
+    public void whenRetrievingFields_givenPrivateAuths_shouldMergeAllEntries() {
+        Collection<DefaultMetadataField> fields = snapshot.getFields(PRIVATE, Collections.singletonMap("BAR_FIELD", "bar_alias"), Collections.emptySet());
+        assertThat(fields.stream().map(f -> f.getFieldName() + "/" + f.getDataType())).containsExactlyInAnyOrder("bar_alias/csv", "SECRET/csv");
+        
+        DefaultMetadataField barField = getField(fields, "bar_alias", "csv");
+        assertThat(barField.getInternalFieldName()).isEqualTo("BAR_FIELD");
+        assertThat(barField.isReverseIndexed()).isTrue();
+        assertThat(barField.getDescriptions().stream().map(DefaultDescription::getDescription)).containsExactly("Barfield Description");
+        
+        DefaultMetadataField secret = getField(fields, "SECRET", "csv");
+        assertThat(secret.isIndexOnly()).isTrue();
+        assertThat(secret.getTypes()).containsExactly("Unknown");
+        assertThat(secret.getLastUpdated()).isEqualTo(format(TIMESTAMP + DAY_AS_MILLISECONDS));
+    }
+    
+    @Test
+    public void whenRetrievingFields_givenMultipleAuths_shouldOnlyMergeEntriesVisibleToAll() {
+        Set<Authorizations> auths = Sets.newHashSet(new Authorizations("PRIVATE", "PUBLIC"), new Authorizations("PUBLIC"));
+        Collection<DefaultMetadataField> fields = snapshot.getFields(auths, Collections.emptyMap(), Collections.singleton("csv"));
+        assertThat(fields.stream().map(f -> f.getFieldName() + "/" + f.getDataType())).containsExactlyInAnyOrder("BAR_FIELD/csv", "HIDDEN/csv");
+        assertThat(getField(fields, "BAR_FIELD", "csv").isReverseIndexed()).isFalse();
+    }
+    
+    private static DefaultMetadataField getField(Collection<DefaultMetadataField> fields, String fieldName, String dataType) {
+        return fields.stream().filter(f -> f.getFieldName().equals(fieldName) && f.getDataType().equals(dataType)).collect(Collectors.toList()).get(0);
+    }
+    
+    private static void put(SortedMap<Key,Value> row, String fieldName, Text columnFamily, String columnQualifier, String visibility, long timestamp,
+                    String value) {
+        row.put(new Key(new Text(fieldName), columnFamily, new Text(columnQualifier), new Text(visibility), timestamp), new Value(value));
+    }
+    
+    private static String format(long timestamp) {
+        return Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault()).toLocalDateTime().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+    }
+}
@@ -0,0 +1,89 @@
+package datawave.microservice.metadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.io.Text;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import datawave.data.ColumnFamilyConstants;
+
+public class MetadataRowSummaryIteratorTest {
+    
+    private static final String ROW = "BAR_FIELD";
+    
+    private final MetadataRowSummaryIterator iterator = new MetadataRowSummaryIterator();
+    private List<Key> keys;
+    private List<Value> values;
+    
+    @BeforeEach
+    public void setUp() {
+        keys = new ArrayList<>();
+        values = new ArrayList<>();
+    }
+    
+    @Test
+    public void whenEncodingRow_shouldSummarizeEachDataType() throws IOException {
+        addEntry(ColumnFamilyConstants.COLF_DESC, "csv", "PRIVATE", 500L, "Barfield Description");
+        addEntry(ColumnFamilyConstants.COLF_E, "csv", "", 200L, "");
+        addEntry(ColumnFamilyConstants.COLF_E, "csv", "", 100L, "");
+        addEntry(ColumnFamilyConstants.COLF_I, "csv", "", 300L, "");
+        addEntry(ColumnFamilyConstants.COLF_I, "enwiki", "", 300L, "");
+        addEntry(ColumnFamilyConstants.COLF_RI, "csv", "", 100L, "");
+        addEntry(ColumnFamilyConstants.COLF_T, "csv\0datawave.data.type.LcNoDiacriticsType", "", 100L, "");
+        addEntry(ColumnFamilyConstants.COLF_TF, "enwiki", "", 400L, "");
+        
+        assertThat(iterator.filter(new Text(ROW), keys, values)).isTrue();
+        List<MetadataRowSummaryIterator.Summary> summaries = MetadataRowSummaryIterator.decodeRow(iterator.rowEncoder(keys, values));
+        assertThat(summaries).extracting(MetadataRowSummaryIterator.Summary::getDataType).containsExactly("csv", "enwiki");
+        
+        MetadataRowSummaryIterator.Summary csv = summaries.get(0);
+        assertThat(csv.isIndexOnly()).isFalse();
+        assertThat(csv.isForwardIndexed()).isTrue();
+        assertThat(csv.isReverseIndexed()).isTrue();
+        assertThat(csv.isTokenized()).isFalse();
+        assertThat(csv.getLastUpdated()).isEqualTo(200L);
+        assertThat(csv.getTypes()).containsExactly("datawave.data.type.LcNoDiacriticsType");
+        assertThat(csv.getDescriptions()).hasSize(1);
+        assertThat(csv.getDescriptions().get(0).getText()).isEqualTo("Barfield Description");
+        assertThat(new String(csv.getDescriptions().get(0).getVisibility(), StandardCharsets.UTF_8)).isEqualTo("PRIVATE");
+        
+        MetadataRowSummaryIterator.Summary enwiki = summaries.get(1);
+        assertThat(enwiki.isIndexOnly()).isTrue();
+        assertThat(enwiki.isForwardIndexed()).isTrue();
+        assertThat(enwiki.isTokenized()).isTrue();
+        assertThat(enwiki.getLastUpdated()).isEqualTo(400L);
+        assertThat(enwiki.getTypes()).isEmpty();
+        assertThat(enwiki.getDescriptions()).isEmpty();
+    }
+    
+    @Test
+    public void whenEncodingRow_givenOnlyDescriptions_shouldNotHaveLastUpdated() throws IOException {
+        addEntry(ColumnFamilyConstants.COLF_DESC, "csv", "", 500L, "Description");
+        
+        List<MetadataRowSummaryIterator.Summary> summaries = MetadataRowSummaryIterator.decodeRow(iterator.rowEncoder(keys, values));
+        assertThat(summaries).hasSize(1);
+        assertThat(summaries.get(0).isIndexOnly()).isTrue();
+        assertThat(summaries.get(0).hasLastUpdated()).isFalse();
+    }
+    
+    @Test
+    public void whenRowIsHidden_shouldFilterRow() {
+        addEntry(ColumnFamilyConstants.COLF_E, "csv", "", 100L, "");
+        addEntry(ColumnFamilyConstants.COLF_H, "enwiki", "", 100L, "");
+        
+        assertThat(iterator.filter(new Text(ROW), keys, values)).isFalse();
+    }
+    
+    private void addEntry(Text columnFamily, String columnQualifier, String visibility, long timestamp, String value) {
+        keys.add(new Key(new Text(ROW), columnFamily, new Text(columnQualifier), new Text(visibility), timestamp));
+        values.add(new Value(value));
+    }
+}
@@ -0,0 +1,31 @@
+package datawave.microservice.metadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.junit.jupiter.api.Test;
+
+public class VisibilityFilterTest {
+    
+    @Test
+    public void whenMultipleAuthsGiven_shouldRequireVisibilityToAll() {
+        VisibilityFilter filter = new VisibilityFilter(
+                        new HashSet<>(Arrays.asList(new Authorizations("PRIVATE", "PUBLIC"), new Authorizations("PUBLIC"))));
+        assertThat(filter.isVisible(new ColumnVisibility("PUBLIC"))).isTrue();
+        assertThat(filter.isVisible(new ColumnVisibility("PRIVATE"))).isFalse();
+        assertThat(filter.isVisible(new ColumnVisibility())).isTrue();
+    }
+    
+    @Test
+    public void whenNoAuthsGiven_shouldOnlyPassUnmarkedVisibilities() {
+        VisibilityFilter filter = new VisibilityFilter(Collections.emptySet());
+        assertThat(filter.isVisible(new ColumnVisibility("PUBLIC"))).isFalse();
+        assertThat(filter.isVisible(new ColumnVisibility("PUBLIC|PRIVATE"))).isFalse();
+        assertThat(filter.isVisible(new ColumnVisibility())).isTrue();
+    }
+}
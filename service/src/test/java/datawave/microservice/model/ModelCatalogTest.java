@@ -0,0 +1,112 @@
+package datawave.microservice.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.accumulo.core.client.AccumuloClient;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import datawave.accumulo.inmemory.InMemoryAccumuloClient;
+import datawave.accumulo.inmemory.InMemoryInstance;
+import datawave.data.ColumnFamilyConstants;
+import datawave.query.model.Direction;
+import datawave.query.model.FieldMapping;
+import datawave.query.model.ModelKeyParser;
+
+public class ModelCatalogTest {
+    
+    private static final String MODEL_TABLE = "modelTable";
+    private static final Set<Authorizations> PUBLIC = Collections.singleton(new Authorizations("PUBLIC"));
+    private static final Set<Authorizations> PRIVATE = Collections.singleton(new Authorizations("PRIVATE", "PUBLIC"));
+    
+    private static final FieldMapping PUBLIC_MAPPING = new FieldMapping("csv", "FIELD_A", "MODEL_A", Direction.FORWARD, "PUBLIC");
+    private static final FieldMapping PRIVATE_MAPPING = new FieldMapping("csv", "FIELD_B", "MODEL_B", Direction.FORWARD, "PRIVATE");
+    
+    private AccumuloClient client;
+    private ModelCatalog catalog;
+    
+    @BeforeEach
+    public void setUp() throws Exception {
+        client = new InMemoryAccumuloClient("root", new InMemoryInstance());
+        client.securityOperations().changeUserAuthorizations("root", new Authorizations("PRIVATE", "PUBLIC"));
+        client.tableOperations().create(MODEL_TABLE);
+        try (BatchWriter writer = client.createBatchWriter(MODEL_TABLE, new BatchWriterConfig())) {
+            writer.addMutation(ModelKeyParser.createMutation(PUBLIC_MAPPING, "SHARED"));
+            writer.addMutation(ModelKeyParser.createMutation(PRIVATE_MAPPING, "SHARED"));
+            writer.addMutation(ModelKeyParser.createMutation(PRIVATE_MAPPING, "SECRET"));
+            // data dictionary entries in the same table are not models
+            Mutation mutation = new Mutation("BAR_FIELD");
+            mutation.put(ColumnFamilyConstants.COLF_DESC.toString(), "csv", new ColumnVisibility("PUBLIC"), new Value("description"));
+            writer.addMutation(mutation);
+        }
+        
+        catalog = new ModelCatalog(Duration.ofHours(1), null);
+    }
+    
+    @Test
+    public void whenRetrievingModels_shouldOnlyReturnVisibleModelsAndMappings() throws Exception {
+        assertThat(catalog.getModelNames(client, MODEL_TABLE, PUBLIC)).containsExactly("SHARED");
+        assertThat(catalog.getModelNames(client, MODEL_TABLE, PRIVATE)).containsExactly("SECRET", "SHARED");
+        
+        assertThat(catalog.getMappings(client, MODEL_TABLE, "SHARED", PUBLIC)).containsExactly(PUBLIC_MAPPING);
+        assertThat(catalog.getMappings(client, MODEL_TABLE, "SHARED", PRIVATE)).containsExactlyInAnyOrder(PUBLIC_MAPPING, PRIVATE_MAPPING);
+        assertThat(catalog.getMappings(client, MODEL_TABLE, "MISSING", PRIVATE)).isEmpty();
+    }
+    
+    @Test
+    public void whenUpdatingMappings_shouldApplyUpdatesInPlace() throws Exception {
+        // load the models, then remove them from the table so that they could only be served from memory
+        catalog.getModelNames(client, MODEL_TABLE, PRIVATE);
+        client.tableOperations().deleteRows(MODEL_TABLE, null, null);
+        
+        catalog.putMappings(MODEL_TABLE, "CLONE", Arrays.asList(PUBLIC_MAPPING, PRIVATE_MAPPING));
+        assertThat(catalog.getModelNames(client, MODEL_TABLE, PUBLIC)).containsExactly("CLONE", "SHARED");
+        assertThat(catalog.getMappings(client, MODEL_TABLE, "CLONE", PRIVATE)).containsExactlyInAnyOrder(PUBLIC_MAPPING, PRIVATE_MAPPING);
+        
+        catalog.removeMappings(MODEL_TABLE, "SECRET", Collections.singleton(PRIVATE_MAPPING));
+        assertThat(catalog.getModelNames(client, MODEL_TABLE, PRIVATE)).containsExactly("CLONE", "SHARED");
+        
+        // once invalidated, the models are scanned again
+        catalog.invalidate(MODEL_TABLE);
+        assertThat(catalog.getModelNames(client, MODEL_TABLE, PRIVATE)).isEmpty();
+    }
+    
+    @Test
+    public void whenModelTableIsRecreated_shouldScanItAgainOnceExpired() throws Exception {
+        assertThat(catalog.getModelNames(client, MODEL_TABLE, PRIVATE)).isNotEmpty();
+        
+        // until the models expire, they are served from memory without checking the table
+        client.tableOperations().delete(MODEL_TABLE);
+        assertThat(catalog.getModelNames(client, MODEL_TABLE, PRIVATE)).containsExactly("SECRET", "SHARED");
+        
+        catalog = new ModelCatalog(Duration.ZERO, null);
+        assertThatThrownBy(() -> catalog.getModelNames(client, MODEL_TABLE, PRIVATE)).isInstanceOf(TableNotFoundException.class);
+        
+        client.tableOperations().create(MODEL_TABLE);
+        assertThat(catalog.getModelNames(client, MODEL_TABLE, PRIVATE)).isEmpty();
+    }
+    
+    @Test
+    public void whenFilteringColumnFamilies_shouldOnlyPassModelColumnFamilies() {
+        Pattern pattern = Pattern.compile(ModelCatalog.MODEL_COLF_REGEX);
+        for (String colf : Arrays.asList("MODEL", "MODEL\u0000forward", "MODEL\u0000reverse", "edges", "desc", "e", "ri", "MODEL\u0000forward\u0000extra")) {
+            assertThat(pattern.matcher(colf).matches()).as(colf).isEqualTo(ModelCatalog.getModelName(colf) != null);
+        }
+        assertThat(pattern.matcher("MODEL\u0000forward").matches()).isTrue();
+        assertThat(pattern.matcher("desc").matches()).isFalse();
+    }
+}